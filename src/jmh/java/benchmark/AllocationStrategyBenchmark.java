@@ -0,0 +1,60 @@
+package benchmark;
+
+import model.AllocationPolicy;
+import model.LineTopology;
+import model.ProductionLine;
+import org.openjdk.jmh.annotations.*;
+import util.LineGenerator;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение стратегий распределения рабочих (AllocationPolicy) на линиях
+ * LineGenerator при нехватке рабочих: их вчетверо меньше, чем центров.
+ * Результат - прогонов в секунду (стоимость вычислений), а качество
+ * расписания - среднее смоделированное время прогона sim.makespan
+ * из SimulatedMinuteProfiler:
+ * java -jar target/benchmarks.jar AllocationStrategyBenchmark -prof benchmark.SimulatedMinuteProfiler
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class AllocationStrategyBenchmark {
+    
+    @Param({"GREEDY", "BOTTLENECK", "LONGEST_PATH", "LOOKAHEAD"})
+    public AllocationPolicy policy;
+    
+    @Param({"20", "100"})
+    public int centers;
+    
+    @Param({"1000"})
+    public int details;
+    
+    private ProductionLine line;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        line = LineTopology.compile(new LineGenerator()
+            .setCenters(centers)
+            .setDetailsCount(details)
+            .setTotalWorkers(centers / 4)
+            .setMaxWorkers(6)
+            .setSeed(2)
+            .generate()).createLine();
+        line.setAllocationStrategy(policy.create());
+        line.setKeepEventsInMemory(false);
+    }
+    
+    @Benchmark
+    public double simulate() {
+        long startBytes = SimulatedMinuteProfiler.threadAllocatedBytes();
+        line.reset();
+        line.simulate();
+        double totalTime = line.getTotalTime();
+        SimulatedMinuteProfiler.record(totalTime, SimulatedMinuteProfiler.threadAllocatedBytes() - startBytes);
+        return totalTime;
+    }
+}
@@ -0,0 +1,44 @@
+package benchmark;
+
+import model.Detail;
+import model.ProductionCenter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Память на одну деталь в буфере центра. Каждая операция заполняет буфер
+ * нового центра, а благодаря OperationsPerInvocation метрика
+ * gc.alloc.rate.norm показывает байты на одну буферизованную деталь:
+ * java -jar target/benchmarks.jar BufferMemoryBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BufferMemoryBenchmark {
+    
+    private static final int DETAILS = 100_000;
+    
+    @Benchmark
+    @OperationsPerInvocation(DETAILS)
+    public ProductionCenter fillWithDetails() {
+        ProductionCenter center = new ProductionCenter("Buffer", 1.0, 1);
+        for (int i = 0; i < DETAILS; i++) {
+            center.addDetailToBuffer(new Detail(i));
+        }
+        return center;
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(DETAILS)
+    public ProductionCenter fillWithIds() {
+        ProductionCenter center = new ProductionCenter("Buffer", 1.0, 1);
+        for (int i = 0; i < DETAILS; i++) {
+            center.addDetailToBuffer(i);
+        }
+        return center;
+    }
+}
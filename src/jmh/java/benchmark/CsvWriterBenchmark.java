@@ -0,0 +1,56 @@
+package benchmark;
+
+import model.EventSink;
+import org.openjdk.jmh.annotations.*;
+import util.CsvEventSink;
+import util.FastCsvEventSink;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Скорость записи строк CSV: форматирование через String.format (CsvEventSink)
+ * против прямого форматирования в буфер (FastCsvEventSink).
+ * Вывод кодируется в байты и отбрасывается, чтобы не измерять диск.
+ * Результат - строк в секунду.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CsvWriterBenchmark {
+    
+    private static final int ROWS = 10_000;
+    private static final String[] CENTERS = {"Центр 1", "Центр 2", "Центр 3", "Центр 4"};
+    
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void stringFormat() throws IOException {
+        try (CsvEventSink sink = new CsvEventSink(nullWriter())) {
+            writeRows(sink);
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void fast() throws IOException {
+        try (FastCsvEventSink sink = new FastCsvEventSink(nullWriter())) {
+            writeRows(sink);
+        }
+    }
+    
+    private static void writeRows(EventSink sink) {
+        for (int i = 0; i < ROWS; i++) {
+            sink.record(i * 0.5, CENTERS[i % CENTERS.length], i % 5, i % 100);
+        }
+    }
+    
+    private static Writer nullWriter() {
+        return new OutputStreamWriter(OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,53 @@
+package benchmark;
+
+import model.LineTopology;
+import model.ProductionLine;
+import model.SimulationMode;
+import org.openjdk.jmh.annotations.*;
+import util.LineGenerator;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Режим TICK с последовательным и двухфазным параллельным шагом
+ * (ProductionLine.setParallelStep()) на широких линиях LineGenerator.
+ * Параллельный шаг использует общий ForkJoinPool, поэтому выигрыш зависит
+ * от количества ядер.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class ParallelStepBenchmark {
+    
+    @Param({"200", "2000"})
+    public int centers;
+    
+    @Param({"false", "true"})
+    public boolean parallel;
+    
+    private ProductionLine line;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        line = LineTopology.compile(new LineGenerator()
+            .setCenters(centers)
+            .setLayerWidth(centers / 10)
+            .setDetailsCount(2000)
+            .setTotalWorkers(centers)
+            .setSeed(42)
+            .generate()).createLine();
+        line.setMode(SimulationMode.TICK);
+        line.setParallelStep(parallel);
+        line.setKeepEventsInMemory(false);
+    }
+    
+    @Benchmark
+    public double simulate() {
+        line.reset();
+        line.simulate();
+        return line.getTotalTime();
+    }
+}
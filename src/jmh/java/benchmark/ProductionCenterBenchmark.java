@@ -0,0 +1,48 @@
+package benchmark;
+
+import model.Detail;
+import model.ProductionCenter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость одного шага ProductionCenter.processDetails() в установившемся режиме.
+ * Центр замкнут сам на себя, поэтому завершённые детали возвращаются в его буфер
+ * и загрузка не меняется от шага к шагу.
+ *
+ * Скорость выделения памяти на шаг: java -jar target/benchmarks.jar ProductionCenterBenchmark -prof gc
+ * (метрика gc.alloc.rate.norm, байт на операцию).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProductionCenterBenchmark {
+    
+    @Param({"4", "64"})
+    public int workers;
+    
+    private ProductionCenter center;
+    private double currentTime;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        center = new ProductionCenter("Loop", 3.0, workers);
+        center.addNextCenter(center);
+        center.setCurrentWorkers(workers);
+        for (int i = 0; i < workers * 4; i++) {
+            center.addDetailToBuffer(new Detail(i));
+        }
+        currentTime = 0;
+    }
+    
+    @Benchmark
+    public int tick() {
+        center.processDetails(currentTime);
+        currentTime += 1.0;
+        return center.getDetailsInProcessCount();
+    }
+}
@@ -0,0 +1,59 @@
+package benchmark;
+
+import model.LineTopology;
+import model.ProductionLine;
+import model.SimulationMode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Полная симуляция ProductionLine.simulate() на синтетических линиях
+ * (SyntheticLines): цепочка, веер и многослойный граф. Линия создаётся
+ * один раз, перед каждым прогоном вызывается reset(), события в памяти
+ * не сохраняются.
+ *
+ * Результат - прогонов в секунду. Смоделированные минуты в секунду и байты
+ * на смоделированную минуту выводит SimulatedMinuteProfiler:
+ * java -jar target/benchmarks.jar ProductionLineBenchmark -prof benchmark.SimulatedMinuteProfiler
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ProductionLineBenchmark {
+    
+    @Param({"CHAIN", "FAN_OUT", "DAG"})
+    public SyntheticLines.Shape shape;
+    
+    @Param({"10", "100"})
+    public int centers;
+    
+    @Param({"1000"})
+    public int details;
+    
+    @Param({"EVENT"})
+    public SimulationMode mode;
+    
+    private ProductionLine line;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        int totalWorkers = 2 * centers;
+        line = LineTopology.compile(SyntheticLines.create(shape, centers, details, totalWorkers, 42)).createLine();
+        line.setMode(mode);
+        line.setKeepEventsInMemory(false);
+    }
+    
+    @Benchmark
+    public double simulate() {
+        long startBytes = SimulatedMinuteProfiler.threadAllocatedBytes();
+        line.reset();
+        line.simulate();
+        double totalTime = line.getTotalTime();
+        SimulatedMinuteProfiler.record(totalTime, SimulatedMinuteProfiler.threadAllocatedBytes() - startBytes);
+        return totalTime;
+    }
+}
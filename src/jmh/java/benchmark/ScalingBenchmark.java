@@ -0,0 +1,51 @@
+package benchmark;
+
+import model.LineTopology;
+import model.ProductionLine;
+import org.openjdk.jmh.annotations.*;
+import util.InputLimits;
+import util.LineGenerator;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Масштабирование событийной симуляции относительно ограничений входных
+ * данных по умолчанию (InputLimits.DEFAULT): при scale = k в линии
+ * 20·k центров, 40·k рабочих и 2000·k деталей. Линии строит LineGenerator
+ * с одинаковым seed, поэтому при росте scale меняется только размер.
+ *
+ * При почти линейном росте время прогона растёт примерно в k раз:
+ * java -jar target/benchmarks.jar ScalingBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class ScalingBenchmark {
+    
+    @Param({"1", "10", "100"})
+    public int scale;
+    
+    private ProductionLine line;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        InputLimits limits = InputLimits.DEFAULT;
+        line = LineTopology.compile(new LineGenerator()
+            .setCenters(limits.getMaxCenters() * scale)
+            .setTotalWorkers(limits.getMaxTotalWorkers() * scale)
+            .setDetailsCount(limits.getMaxDetailsCount() * scale)
+            .setSeed(42)
+            .generate()).createLine();
+        line.setKeepEventsInMemory(false);
+    }
+    
+    @Benchmark
+    public double simulate() {
+        line.reset();
+        line.simulate();
+        return line.getTotalTime();
+    }
+}
@@ -0,0 +1,90 @@
+package benchmark;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Профайлер JMH, переводящий результаты симуляции в смоделированное время:
+ * сколько минут моделируется за секунду и сколько байт выделяется
+ * на одну смоделированную минуту, а также среднее смоделированное время
+ * одного прогона (makespan). Бенчмарк сообщает о каждом прогоне через record().
+ *
+ * java -jar target/benchmarks.jar ProductionLineBenchmark -prof benchmark.SimulatedMinuteProfiler
+ *
+ * Выделение памяти считается по потоку бенчмарка через com.sun.management.ThreadMXBean;
+ * на JVM без этого расширения метрика байт не выводится.
+ */
+public class SimulatedMinuteProfiler implements InternalProfiler {
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    
+    private static final DoubleAdder minutes = new DoubleAdder();
+    private static final LongAdder allocatedBytes = new LongAdder();
+    private static final LongAdder runs = new LongAdder();
+    
+    private long iterationStart;
+    
+    /**
+     * @return байт, выделенных текущим потоком с его запуска, или -1, если не поддерживается
+     */
+    static long threadAllocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+    
+    /**
+     * Учитывает один прогон симуляции.
+     *
+     * @param simulatedMinutes смоделированное время прогона
+     * @param bytes выделенные за прогон байты (разность threadAllocatedBytes())
+     */
+    static void record(double simulatedMinutes, long bytes) {
+        minutes.add(simulatedMinutes);
+        allocatedBytes.add(bytes);
+        runs.increment();
+    }
+    
+    @Override
+    public String getDescription() {
+        return "Simulated minutes per second, allocated bytes per simulated minute and makespan";
+    }
+    
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+        minutes.reset();
+        allocatedBytes.reset();
+        runs.reset();
+        iterationStart = System.nanoTime();
+    }
+    
+    @Override
+    public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams,
+                                                       IterationParams iterationParams,
+                                                       IterationResult result) {
+        double seconds = (System.nanoTime() - iterationStart) / 1e9;
+        double total = minutes.sum();
+        List<Result> results = new ArrayList<>();
+        results.add(new ScalarResult("sim.minutes.rate", total / seconds, "min/s", AggregationPolicy.AVG));
+        if (runs.sum() > 0) {
+            results.add(new ScalarResult("sim.makespan", total / runs.sum(), "min", AggregationPolicy.AVG));
+        }
+        if (threadAllocatedBytes() >= 0 && total > 0) {
+            results.add(new ScalarResult("sim.alloc.norm", allocatedBytes.sum() / total, "B/min", AggregationPolicy.AVG));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,108 @@
+package benchmark;
+
+import model.LineConfiguration;
+import model.LineConfiguration.CenterSpec;
+import model.LineConfiguration.Connection;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Синтетические линии для бенчмарков. Все формы имеют один начальный
+ * и один конечный центр; время обработки от 0.5 до 5 минут с шагом 0.5
+ * выбирается детерминированно по seed, поэтому прогоны воспроизводимы.
+ */
+public final class SyntheticLines {
+    
+    public enum Shape {
+        /** Последовательная цепочка центров. */
+        CHAIN,
+        /** Начальный центр раздаёт детали centers - 2 параллельным центрам, они сходятся в конечный. */
+        FAN_OUT,
+        /** Слои шириной около √centers, каждый центр связан с 1-2 центрами следующего слоя. */
+        DAG
+    }
+    
+    private SyntheticLines() {
+    }
+    
+    static LineConfiguration create(Shape shape, int centers, int details, int totalWorkers, long seed) {
+        if (centers < 3) {
+            throw new IllegalArgumentException("Synthetic line needs at least 3 centers");
+        }
+        Random random = new Random(seed);
+        List<CenterSpec> specs = new ArrayList<>(centers);
+        for (int i = 0; i < centers; i++) {
+            specs.add(new CenterSpec(name(i), 0.5 * (1 + random.nextInt(10)), 1 + random.nextInt(4)));
+        }
+        
+        List<Connection> connections = new ArrayList<>();
+        switch (shape) {
+            case CHAIN:
+                for (int i = 0; i + 1 < centers; i++) {
+                    connections.add(new Connection(name(i), name(i + 1)));
+                }
+                break;
+            case FAN_OUT:
+                for (int i = 1; i + 1 < centers; i++) {
+                    connections.add(new Connection(name(0), name(i)));
+                    connections.add(new Connection(name(i), name(centers - 1)));
+                }
+                break;
+            case DAG:
+                addLayeredConnections(connections, centers, random);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown shape: " + shape);
+        }
+        
+        return new LineConfiguration(specs, connections, name(0), details, totalWorkers);
+    }
+    
+    /**
+     * Центры 1 .. centers - 2 разбиты на слои; центр 0 ведёт в первый слой,
+     * последний слой - в конечный центр. У каждого центра слоя есть хотя бы
+     * одна входящая и одна исходящая связь, поэтому конечный центр один.
+     */
+    private static void addLayeredConnections(List<Connection> connections, int centers, Random random) {
+        int inner = centers - 2;
+        int width = Math.max(1, (int) Math.sqrt(inner));
+        Set<Long> added = new HashSet<>();
+        boolean[] hasNext = new boolean[centers];
+        int previousStart = 0;
+        int previousEnd = 1;
+        for (int start = 1; start <= inner; start += width) {
+            int end = Math.min(start + width, inner + 1);
+            for (int to = start; to < end; to++) {
+                int from = previousStart + random.nextInt(previousEnd - previousStart);
+                connect(connections, added, hasNext, from, to, centers);
+            }
+            for (int from = previousStart; from < previousEnd; from++) {
+                int extra = hasNext[from] ? random.nextInt(2) : 1 + random.nextInt(2);
+                for (int k = 0; k < extra; k++) {
+                    connect(connections, added, hasNext, from, start + random.nextInt(end - start), centers);
+                }
+            }
+            previousStart = start;
+            previousEnd = end;
+        }
+        for (int from = previousStart; from < previousEnd; from++) {
+            connect(connections, added, hasNext, from, centers - 1, centers);
+        }
+    }
+    
+    private static void connect(List<Connection> connections, Set<Long> added, boolean[] hasNext,
+                                int from, int to, int centers) {
+        if (added.add((long) from * centers + to)) {
+            connections.add(new Connection(name(from), name(to)));
+            hasNext[from] = true;
+        }
+    }
+    
+    private static String name(int index) {
+        return "Center " + index;
+    }
+}
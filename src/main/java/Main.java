@@ -1,38 +1,292 @@
+import model.AllocationPolicy;
+import model.ArrivalProcess;
+import model.CompletionTrace;
+import model.EventSink;
+import model.LineSnapshot;
+import model.ProductionCenter;
 import model.ProductionLine;
-import util.ExcelReader;
-import util.CsvWriter;
+import model.SimulationMetrics;
+import model.SimulationMode;
+import model.SteadyStateMonitor;
+import util.ArrivalFile;
+import util.ColumnarEventSink;
+import util.FastCsvEventSink;
+import util.InputLimits;
+import util.LineReader;
+import util.ModelCache;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 
 public class Main {
+    private static final String USAGE =
+        "Usage: java -jar program.jar <input.xlsx|.line|.lineb> <output.csv|.simc> [--mode=event|tick] [--delta] [--no-cache]\n" +
+        "       [--limits=default|unlimited|FILE] [--strategy=greedy|bottleneck|longest-path|lookahead]\n" +
+        "       [--parallel-step] [--metrics] [--trace=FILE] [--trace-size=N]\n" +
+        "       [--checkpoint=FILE] [--checkpoint-every=MINUTES] [--resume=FILE]\n" +
+        "       [--arrivals=fixed:RATE|poisson:RATE[:SEED]|file:PATH] [--horizon=MINUTES]\n" +
+        "       [--steady-state=FILE] [--window=MINUTES]";
+    
     public static void main(String[] args) {
-        if (args.length != 2) {
-            System.out.println("Usage: java -jar program.jar <input.xlsx> <output.csv>");
+        if (args.length < 2) {
+            System.out.println(USAGE);
             return;
         }
         
         try {
             String inputFile = args[0];
             String outputFile = args[1];
+            SimulationMode mode = SimulationMode.EVENT;
+            boolean delta = false;
+            boolean useCache = true;
+            InputLimits limits = InputLimits.DEFAULT;
+            AllocationPolicy policy = AllocationPolicy.GREEDY;
+            boolean parallelStep = false;
+            SimulationMetrics metrics = null;
+            String traceFile = null;
+            int traceSize = 1_000_000;
+            String checkpointFile = null;
+            double checkpointInterval = 60;
+            String resumeFile = null;
+            String arrivalsSpec = null;
+            double horizon = Double.POSITIVE_INFINITY;
+            String steadyStateFile = null;
+            double window = 60;
             
-            // Читаем данные из Excel
-            ProductionLine productionLine = ExcelReader.readFromExcel(inputFile);
+            for (int i = 2; i < args.length; i++) {
+                if (args[i].startsWith("--mode=")) {
+                    mode = SimulationMode.valueOf(args[i].substring("--mode=".length()).toUpperCase());
+                } else if (args[i].equals("--delta")) {
+                    delta = true;
+                } else if (args[i].equals("--parallel-step")) {
+                    parallelStep = true;
+                } else if (args[i].equals("--metrics")) {
+                    metrics = new SimulationMetrics();
+                } else if (args[i].startsWith("--trace=")) {
+                    traceFile = args[i].substring("--trace=".length());
+                } else if (args[i].startsWith("--trace-size=")) {
+                    traceSize = Integer.parseInt(args[i].substring("--trace-size=".length()));
+                } else if (args[i].startsWith("--checkpoint=")) {
+                    checkpointFile = args[i].substring("--checkpoint=".length());
+                } else if (args[i].startsWith("--checkpoint-every=")) {
+                    checkpointInterval = Double.parseDouble(args[i].substring("--checkpoint-every=".length()));
+                } else if (args[i].startsWith("--resume=")) {
+                    resumeFile = args[i].substring("--resume=".length());
+                } else if (args[i].startsWith("--arrivals=")) {
+                    arrivalsSpec = args[i].substring("--arrivals=".length());
+                } else if (args[i].startsWith("--horizon=")) {
+                    horizon = Double.parseDouble(args[i].substring("--horizon=".length()));
+                } else if (args[i].startsWith("--steady-state=")) {
+                    steadyStateFile = args[i].substring("--steady-state=".length());
+                } else if (args[i].startsWith("--window=")) {
+                    window = Double.parseDouble(args[i].substring("--window=".length()));
+                } else if (args[i].equals("--no-cache")) {
+                    useCache = false;
+                } else if (args[i].startsWith("--limits=")) {
+                    limits = InputLimits.forName(args[i].substring("--limits=".length()));
+                } else if (args[i].startsWith("--strategy=")) {
+                    policy = AllocationPolicy.fromName(args[i].substring("--strategy=".length()));
+                } else {
+                    System.out.println(USAGE);
+                    return;
+                }
+            }
             
-            // Запускаем симуляцию
-            productionLine.simulate();
+            // Читаем описание линии; Excel - через кэш разобранных моделей
+            ProductionLine productionLine;
+            ModelCache cache = null;
+            long loadStart = System.nanoTime();
+            if (useCache && LineReader.isExcel(inputFile)) {
+                cache = new ModelCache(ModelCache.defaultDirectory());
+                productionLine = cache.load(inputFile, limits).createLine();
+            } else {
+                productionLine = LineReader.read(inputFile, limits);
+            }
+            long loadNanos = System.nanoTime() - loadStart;
+            if (metrics != null) {
+                metrics.addInputParseNanos(cache != null ? cache.getLastParseNanos() : loadNanos);
+                metrics.registerMBean();
+            }
+            productionLine.setMode(mode);
+            productionLine.setAllocationStrategy(policy.create());
+            productionLine.setParallelStep(parallelStep);
+            productionLine.setRecordChangesOnly(delta);
+            productionLine.setMetrics(metrics);
+            CompletionTrace trace = traceFile != null ? new CompletionTrace(traceSize) : null;
+            productionLine.setCompletionTrace(trace);
             
-            // Записываем результаты
-            CsvWriter.writeResults(outputFile, productionLine.getEvents());
+            // Поступления заменяют начальную партию деталей
+            String arrivalFile = null;
+            ArrivalProcess arrivals = null;
+            if (arrivalsSpec != null) {
+                if (checkpointFile != null || resumeFile != null) {
+                    throw new IllegalArgumentException("Arrivals cannot be combined with checkpoints");
+                }
+                if (arrivalsSpec.startsWith("file:")) {
+                    arrivalFile = arrivalsSpec.substring("file:".length());
+                } else {
+                    arrivals = parseArrivals(arrivalsSpec);
+                    if (Double.isInfinite(horizon)) {
+                        throw new IllegalArgumentException("Unbounded arrivals require --horizon");
+                    }
+                }
+                productionLine.reset(productionLine.getTotalWorkers(), 0);
+            }
+            // Продолжить можно только CSV, поэтому снимки для колоночного вывода бесполезны
+            boolean columnar = ColumnarEventSink.isColumnar(outputFile);
+            if (columnar && (checkpointFile != null || resumeFile != null)) {
+                throw new IllegalArgumentException("Checkpoints and resuming are supported only for CSV output");
+            }
+            if (checkpointFile != null) {
+                String file = checkpointFile;
+                productionLine.setCheckpoints(checkpointInterval, snapshot -> {
+                    try {
+                        snapshot.write(file);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
             
-            System.out.println("Simulation completed successfully!");
+            // Продолжаем прерванный прогон: вывод дописывается после событий, записанных до снимка
+            LineSnapshot resumeSnapshot = null;
+            if (resumeFile != null) {
+                resumeSnapshot = LineSnapshot.read(resumeFile);
+                checkResumeSettings(resumeSnapshot, mode, delta, policy);
+                productionLine.restore(resumeSnapshot);
+            }
+            
+            // Запускаем симуляцию, записывая результаты по ходу: .simc - в колоночном формате, иначе в CSV
+            SteadyStateMonitor monitor = null;
+            boolean complete;
+            try (ColumnarEventSink columnarSink = columnar ? new ColumnarEventSink(outputFile) : null;
+                 FastCsvEventSink csv = columnar ? null
+                     : resumeSnapshot != null ? FastCsvEventSink.resume(outputFile, resumeSnapshot.getRecordedEvents())
+                     : new FastCsvEventSink(outputFile);
+                 ArrivalFile replay = arrivalFile != null ? new ArrivalFile(arrivalFile) : null;
+                 Writer reports = steadyStateFile != null ? new BufferedWriter(new FileWriter(steadyStateFile)) : null) {
+                EventSink output = columnar ? columnarSink : csv;
+                productionLine.setKeepEventsInMemory(false);
+                productionLine.addEventSink(metrics != null ? metrics.timeOutput(output) : output);
+                if (arrivalsSpec != null) {
+                    productionLine.setArrivals(replay != null ? replay : arrivals);
+                }
+                if (reports != null) {
+                    reports.write(SteadyStateMonitor.HEADER);
+                    monitor = new SteadyStateMonitor(window, report -> {
+                        try {
+                            reports.write(report.toCsv());
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                    productionLine.setSteadyStateMonitor(monitor);
+                }
+                complete = productionLine.simulateUntil(horizon);
+            }
+            
+            if (trace != null) {
+                try (Writer writer = new BufferedWriter(new FileWriter(traceFile))) {
+                    trace.writeCsv(writer);
+                }
+            }
+            
+            if (complete) {
+                System.out.println("Simulation completed successfully!");
+            } else {
+                System.out.println("Simulation stopped at --horizon: " + productionLine.getTotalTime() + " minutes");
+            }
+            if (resumeSnapshot != null) {
+                System.out.println("Resumed from minute " + resumeSnapshot.getTime() + ": " + resumeFile);
+            }
             
             System.out.println("\nSimulation Statistics:");
             System.out.println("Total simulation time: " + productionLine.getTotalTime() + " minutes");
+            System.out.println("Model load time: " + formatMillis(loadNanos) + " ms" + describeCache(cache));
             for (ProductionCenter center : productionLine.getCenters()) {
                 System.out.println("\n" + center.getStatistics());
             }
-            
+            if (trace != null) {
+                System.out.println("\nTrace: " + trace.size() + " completions written to " + traceFile
+                    + (trace.getDroppedCount() > 0 ? " (" + trace.getDroppedCount() + " oldest dropped)" : ""));
+            }
+            if (monitor != null) {
+                SteadyStateMonitor.Report report = monitor.report();
+                System.out.println(String.format("\nSteady state over the last %.1f minutes: %.3f details/min,"
+                        + " WIP %.2f (now %d), latency p50/p90/p99 %.1f/%.1f/%.1f minutes",
+                    window, report.getThroughput(), report.getAverageWip(), report.getWip(),
+                    report.getLatencyP50(), report.getLatencyP90(), report.getLatencyP99()));
+                System.out.println("Steady state reports written to " + steadyStateFile);
+            }
+            if (metrics != null) {
+                System.out.println("\nMetrics:");
+                System.out.print(metrics.format());
+            }
+        
         } catch (Exception e) {
             System.err.println("Error during simulation: " + e.getMessage());
             e.printStackTrace();
         }
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Продолжение с другими режимом, дельта-записью или стратегией дописало бы
+     * к выводу строки в другом формате или порядке, поэтому флаги должны совпадать.
+     */
+    private static void checkResumeSettings(LineSnapshot snapshot, SimulationMode mode, boolean delta,
+                                            AllocationPolicy policy) {
+        if (snapshot.getMode() != mode) {
+            throw new IllegalArgumentException("Snapshot was taken with --mode="
+                + snapshot.getMode().name().toLowerCase() + ", resume with the same flags");
+        }
+        if (snapshot.isRecordChangesOnly() != delta) {
+            throw new IllegalArgumentException("Snapshot was taken " + (delta ? "without" : "with")
+                + " --delta, resume with the same flags");
+        }
+        if (!snapshot.getStrategy().equals(policy.name())) {
+            throw new IllegalArgumentException("Snapshot was taken with --strategy="
+                + snapshot.getStrategy().toLowerCase().replace('_', '-') + ", resume with the same flags");
+        }
+    }
+    
+    /**
+     * Разбирает поток поступлений fixed:RATE или poisson:RATE[:SEED] (деталей в минуту).
+     */
+    private static ArrivalProcess parseArrivals(String spec) {
+        String[] parts = spec.split(":");
+        switch (parts[0]) {
+            case "fixed":
+                if (parts.length == 2) {
+                    return ArrivalProcess.fixedRate(Double.parseDouble(parts[1]));
+                }
+                break;
+            case "poisson":
+                if (parts.length == 2 || parts.length == 3) {
+                    long seed = parts.length == 3 ? Long.parseLong(parts[2]) : 1;
+                    return ArrivalProcess.poisson(Double.parseDouble(parts[1]), seed);
+                }
+                break;
+            default:
+                break;
+        }
+        throw new IllegalArgumentException("Unknown arrivals: " + spec
+            + " (expected fixed:RATE, poisson:RATE[:SEED] or file:PATH)");
+    }
+    
+    private static String describeCache(ModelCache cache) {
+        if (cache == null) {
+            return " (cache not used)";
+        }
+        if (cache.isLastHit()) {
+            return " (from cache, saved " + formatMillis(cache.getLastSavedNanos()) + " ms)";
+        }
+        return " (parsed, cached for next runs)";
+    }
+    
+    private static String formatMillis(long nanos) {
+        return String.valueOf(Math.round(nanos / 100_000.0) / 10.0);
+    }
+}
@@ -0,0 +1,67 @@
+package model;
+
+/**
+ * Встроенные стратегии распределения рабочих.
+ */
+public enum AllocationPolicy {
+    /**
+     * Размер буфера × время обработки (исходная жадная стратегия).
+     */
+    GREEDY,
+    
+    /**
+     * Сначала центры с наименьшей пропускной способностью: приоритет -
+     * время разбора буфера при полном составе рабочих.
+     */
+    BOTTLENECK,
+    
+    /**
+     * Сначала центры, от которых дольше всего идти до конца линии:
+     * размер буфера × самый длинный путь по времени обработки до конечного центра.
+     */
+    LONGEST_PATH,
+    
+    /**
+     * Жадная стратегия с учётом деталей, которые скоро придут из предыдущих центров.
+     */
+    LOOKAHEAD;
+    
+    /**
+     * Создаёт новый экземпляр стратегии. Стратегии хранят веса центров
+     * конкретной линии, поэтому у каждой линии должен быть свой экземпляр.
+     */
+    public WorkerAllocationStrategy create() {
+        switch (this) {
+            case GREEDY:
+                return new GreedyAllocation();
+            case BOTTLENECK:
+                return new BottleneckAllocation();
+            case LONGEST_PATH:
+                return new LongestPathAllocation();
+            case LOOKAHEAD:
+                return new LookaheadAllocation();
+            default:
+                throw new IllegalArgumentException("Unknown allocation policy: " + this);
+        }
+    }
+    
+    /**
+     * @return встроенная политика, экземпляром которой является strategy,
+     *         или null для своей стратегии
+     */
+    public static AllocationPolicy of(WorkerAllocationStrategy strategy) {
+        for (AllocationPolicy policy : values()) {
+            if (policy.create().getClass() == strategy.getClass()) {
+                return policy;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Разбирает имя из командной строки: greedy, bottleneck, longest-path, lookahead.
+     */
+    public static AllocationPolicy fromName(String name) {
+        return valueOf(name.trim().toUpperCase().replace('-', '_'));
+    }
+}
@@ -0,0 +1,35 @@
+package model;
+
+/**
+ * Поступление деталей в начальный центр по ходу симуляции вместо одной
+ * начальной партии (см. ProductionLine.setArrivals()). Линия запрашивает
+ * следующее время, только когда предыдущая деталь поступила, поэтому
+ * источник может быть бесконечным и не хранить расписание в памяти.
+ */
+public interface ArrivalProcess {
+    
+    /**
+     * @return время поступления следующей детали, не меньше предыдущего,
+     *         или Double.POSITIVE_INFINITY, если детали закончились
+     */
+    double nextArrival();
+    
+    /**
+     * Детали поступают через равные промежутки: в моменты 1/rate, 2/rate, ...
+     *
+     * @param rate деталей в минуту
+     */
+    static ArrivalProcess fixedRate(double rate) {
+        return new FixedRateArrivals(rate);
+    }
+    
+    /**
+     * Пуассоновский поток: промежутки между деталями распределены
+     * экспоненциально со средним 1/rate. При одинаковом seed времена совпадают.
+     *
+     * @param rate деталей в минуту в среднем
+     */
+    static ArrivalProcess poisson(double rate, long seed) {
+        return new PoissonArrivals(rate, seed);
+    }
+}
@@ -0,0 +1,15 @@
+package model;
+
+/**
+ * Стратегия «сначала узкое место»: приоритет - время, за которое центр
+ * разберёт буфер при максимальном количестве рабочих. Центр с малой
+ * пропускной способностью (maxWorkers / processingTime) получает рабочих
+ * раньше центра с тем же объёмом работы, но большей пропускной способностью.
+ */
+final class BottleneckAllocation implements WorkerAllocationStrategy {
+    
+    @Override
+    public double priority(int centerIndex, ProductionCenter center) {
+        return center.getBufferSize() * center.getProcessingTime() / Math.max(1, center.getMaxWorkers());
+    }
+}
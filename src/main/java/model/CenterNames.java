@@ -0,0 +1,49 @@
+package model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Таблица названий центров для хранения событий по номерам: номер
+ * выдаётся названию при первой встрече, начиная с 0.
+ */
+public final class CenterNames {
+    private final Map<String, Integer> ids = new HashMap<>();
+    private String[] names = new String[16];
+    private String lastName;
+    private int lastId;
+    
+    /**
+     * @return номер центра; новое название получает следующий номер
+     */
+    public int id(String name) {
+        // Линия передаёт одни и те же экземпляры строк, а центры часто повторяются подряд
+        if (name == lastName) {
+            return lastId;
+        }
+        Integer id = ids.get(name);
+        if (id == null) {
+            id = ids.size();
+            ids.put(name, id);
+            if (id == names.length) {
+                names = Arrays.copyOf(names, id * 2);
+            }
+            names[id] = name;
+        }
+        lastName = name;
+        lastId = id;
+        return id;
+    }
+    
+    public int size() {
+        return ids.size();
+    }
+    
+    public String name(int id) {
+        if (id < 0 || id >= ids.size()) {
+            throw new IndexOutOfBoundsException("Center " + id + " of " + ids.size());
+        }
+        return names[id];
+    }
+}
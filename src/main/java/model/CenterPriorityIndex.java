@@ -0,0 +1,280 @@
+package model;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Индексированная двоичная куча центров по убыванию приоритета стратегии
+ * распределения (по умолчанию размер буфера × время обработки). При равных
+ * приоритетах раньше идёт центр с меньшим индексом в линии, как при
+ * устойчивой сортировке.
+ *
+ * В куче находятся только центры с деталями в буфере. Центр сообщает
+ * об изменении буфера через markChanged(), а refresh() пересчитывает
+ * приоритеты только изменившихся центров: O(изменений · log n) за шаг.
+ * Обход в порядке приоритета не разрушает кучу и стоит O(k · log k)
+ * для k просмотренных центров.
+ */
+final class CenterPriorityIndex {
+    private final ProductionCenter[] centers;
+    private final WorkerAllocationStrategy strategy;
+    private final double[] priorities;
+    
+    // Следующие центры, приоритет которых зависит от деталей в обработке
+    // (только для стратегий с dependsOnPredecessors())
+    private final int[][] dependents;
+    
+    // Куча индексов центров и позиция каждого центра в куче (-1 - вне кучи)
+    private final int[] heap;
+    private final int[] positions;
+    private int heapSize;
+    
+    // Центры, буфер которых изменился с последнего refresh()
+    private final int[] changed;
+    private final boolean[] isChanged;
+    private int changedCount;
+    
+    // Вспомогательная куча позиций для обхода в порядке приоритета
+    private final int[] traversal;
+    private int traversalSize;
+    
+    CenterPriorityIndex(List<ProductionCenter> centers) {
+        this(centers, new GreedyAllocation());
+    }
+    
+    CenterPriorityIndex(List<ProductionCenter> centers, WorkerAllocationStrategy strategy) {
+        int count = centers.size();
+        this.centers = centers.toArray(new ProductionCenter[0]);
+        this.strategy = strategy;
+        this.dependents = strategy.dependsOnPredecessors() ? nextIndexes(centers) : null;
+        this.priorities = new double[count];
+        this.heap = new int[count];
+        this.positions = new int[count];
+        this.changed = new int[count];
+        this.isChanged = new boolean[count];
+        this.traversal = new int[count];
+        
+        for (int i = 0; i < count; i++) {
+            this.centers[i].attachPriorityIndex(this, i);
+        }
+        reset();
+    }
+    
+    private static int[][] nextIndexes(List<ProductionCenter> centers) {
+        Map<ProductionCenter, Integer> indexes = new IdentityHashMap<>();
+        for (int i = 0; i < centers.size(); i++) {
+            indexes.put(centers.get(i), i);
+        }
+        int[][] next = new int[centers.size()][];
+        for (int i = 0; i < centers.size(); i++) {
+            List<ProductionCenter> nextCenters = centers.get(i).getNextCenters();
+            next[i] = new int[nextCenters.size()];
+            for (int k = 0; k < nextCenters.size(); k++) {
+                Integer index = indexes.get(nextCenters.get(k));
+                next[i][k] = index == null ? i : index;
+            }
+        }
+        return next;
+    }
+    
+    WorkerAllocationStrategy getStrategy() {
+        return strategy;
+    }
+    
+    /**
+     * Очищает индекс перед новым прогоном: все центры считаются изменившимися.
+     */
+    void reset() {
+        heapSize = 0;
+        changedCount = 0;
+        for (int i = 0; i < centers.length; i++) {
+            positions[i] = -1;
+            isChanged[i] = false;
+            markChanged(i);
+        }
+    }
+    
+    void markChanged(int centerIndex) {
+        if (!isChanged[centerIndex]) {
+            isChanged[centerIndex] = true;
+            changed[changedCount++] = centerIndex;
+        }
+    }
+    
+    /**
+     * Сообщает, что в центре запустились или завершились детали. Для стратегий,
+     * учитывающих предыдущие центры, изменившимися считаются следующие центры.
+     */
+    void markInProcessChanged(int centerIndex) {
+        if (dependents != null) {
+            for (int next : dependents[centerIndex]) {
+                markChanged(next);
+            }
+        }
+    }
+    
+    /**
+     * Пересчитывает приоритеты центров, изменившихся с прошлого вызова.
+     */
+    void refresh() {
+        for (int k = 0; k < changedCount; k++) {
+            int centerIndex = changed[k];
+            isChanged[centerIndex] = false;
+            update(centerIndex);
+        }
+        changedCount = 0;
+    }
+    
+    /**
+     * @return true, если ни у одного центра нет деталей в буфере
+     */
+    boolean isEmpty() {
+        refresh();
+        return heapSize == 0;
+    }
+    
+    /**
+     * Начинает обход центров с непустым буфером по убыванию приоритета.
+     */
+    void startTraversal() {
+        traversalSize = 0;
+        if (heapSize > 0) {
+            traversal[traversalSize++] = 0;
+        }
+    }
+    
+    /**
+     * @return индекс следующего центра в порядке приоритета или -1, если обход завершён
+     */
+    int nextCenter() {
+        if (traversalSize == 0) {
+            return -1;
+        }
+        int position = traversal[0];
+        traversal[0] = traversal[--traversalSize];
+        siftDownTraversal(0);
+        
+        int left = 2 * position + 1;
+        if (left < heapSize) {
+            pushTraversal(left);
+            if (left + 1 < heapSize) {
+                pushTraversal(left + 1);
+            }
+        }
+        return heap[position];
+    }
+    
+    private void update(int centerIndex) {
+        ProductionCenter center = centers[centerIndex];
+        int position = positions[centerIndex];
+        
+        if (center.getBufferSize() == 0) {
+            if (position >= 0) {
+                remove(position);
+            }
+            return;
+        }
+        
+        priorities[centerIndex] = strategy.priority(centerIndex, center);
+        if (position < 0) {
+            position = heapSize++;
+            heap[position] = centerIndex;
+            positions[centerIndex] = position;
+        }
+        siftDown(siftUp(position));
+    }
+    
+    private void remove(int position) {
+        int removed = heap[position];
+        positions[removed] = -1;
+        heapSize--;
+        if (position == heapSize) {
+            return;
+        }
+        int last = heap[heapSize];
+        heap[position] = last;
+        positions[last] = position;
+        siftDown(siftUp(position));
+    }
+    
+    private boolean higher(int a, int b) {
+        if (priorities[a] != priorities[b]) {
+            return priorities[a] > priorities[b];
+        }
+        return a < b;
+    }
+    
+    private int siftUp(int position) {
+        int centerIndex = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (!higher(centerIndex, heap[parent])) {
+                break;
+            }
+            heap[position] = heap[parent];
+            positions[heap[position]] = position;
+            position = parent;
+        }
+        heap[position] = centerIndex;
+        positions[centerIndex] = position;
+        return position;
+    }
+    
+    private void siftDown(int position) {
+        int centerIndex = heap[position];
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && higher(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!higher(heap[child], centerIndex)) {
+                break;
+            }
+            heap[position] = heap[child];
+            positions[heap[position]] = position;
+            position = child;
+        }
+        heap[position] = centerIndex;
+        positions[centerIndex] = position;
+    }
+    
+    private void pushTraversal(int heapPosition) {
+        int position = traversalSize++;
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (!higher(heap[heapPosition], heap[traversal[parent]])) {
+                break;
+            }
+            traversal[position] = traversal[parent];
+            position = parent;
+        }
+        traversal[position] = heapPosition;
+    }
+    
+    private void siftDownTraversal(int position) {
+        if (traversalSize == 0) {
+            return;
+        }
+        int heapPosition = traversal[position];
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= traversalSize) {
+                break;
+            }
+            if (child + 1 < traversalSize
+                    && higher(heap[traversal[child + 1]], heap[traversal[child]])) {
+                child++;
+            }
+            if (!higher(heap[traversal[child]], heap[heapPosition])) {
+                break;
+            }
+            traversal[position] = traversal[child];
+            position = child;
+        }
+        traversal[position] = heapPosition;
+    }
+}
@@ -0,0 +1,162 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Центры, которые нужно обработать в текущий момент событийной симуляции.
+ *
+ * Проход обрабатывает отмеченные центры по возрастанию индекса. Центр,
+ * отмеченный во время прохода, попадает в этот же проход, если его индекс
+ * больше текущего, иначе - в следующий. Так повторяется порядок полного
+ * обхода всех центров, но центры без изменений не просматриваются.
+ *
+ * Дополнительно запоминаются все центры, отмеченные с последнего
+ * clearTouched(): только их расписание и состояние могли измениться.
+ */
+final class CenterWorklist {
+    private final boolean[] pending;
+    
+    // Центры текущего прохода - двоичная куча по возрастанию индекса
+    private final int[] heap;
+    private int heapSize;
+    
+    // Центры следующего прохода
+    private final int[] next;
+    private int nextCount;
+    
+    // Индекс обрабатываемого центра или -1 вне прохода
+    private int position = -1;
+    
+    private final boolean[] touched;
+    private final int[] touchedCenters;
+    private int touchedCount;
+    
+    CenterWorklist(int centersCount) {
+        this.pending = new boolean[centersCount];
+        this.heap = new int[centersCount];
+        this.next = new int[centersCount];
+        this.touched = new boolean[centersCount];
+        this.touchedCenters = new int[centersCount];
+    }
+    
+    int size() {
+        return pending.length;
+    }
+    
+    void mark(int centerIndex) {
+        if (!touched[centerIndex]) {
+            touched[centerIndex] = true;
+            touchedCenters[touchedCount++] = centerIndex;
+        }
+        if (pending[centerIndex]) {
+            return;
+        }
+        pending[centerIndex] = true;
+        if (position >= 0 && centerIndex > position) {
+            push(centerIndex);
+        } else {
+            next[nextCount++] = centerIndex;
+        }
+    }
+    
+    void markAll() {
+        for (int i = 0; i < pending.length; i++) {
+            mark(i);
+        }
+    }
+    
+    /**
+     * Начинает проход по центрам, отмеченным до его начала.
+     */
+    void startPass() {
+        for (int k = 0; k < nextCount; k++) {
+            push(next[k]);
+        }
+        nextCount = 0;
+    }
+    
+    /**
+     * @return следующий центр прохода или -1, если проход завершён
+     */
+    int nextCenter() {
+        if (heapSize == 0) {
+            position = -1;
+            return -1;
+        }
+        int centerIndex = heap[0];
+        heapSize--;
+        if (heapSize > 0) {
+            siftDown(heap[heapSize]);
+        }
+        pending[centerIndex] = false;
+        position = centerIndex;
+        return centerIndex;
+    }
+    
+    int getTouchedCount() {
+        return touchedCount;
+    }
+    
+    int getTouched(int k) {
+        return touchedCenters[k];
+    }
+    
+    void sortTouched() {
+        Arrays.sort(touchedCenters, 0, touchedCount);
+    }
+    
+    void clearTouched() {
+        for (int k = 0; k < touchedCount; k++) {
+            touched[touchedCenters[k]] = false;
+        }
+        touchedCount = 0;
+    }
+    
+    /**
+     * Забывает все отметки, например после прерванной симуляции.
+     */
+    void clear() {
+        for (int k = 0; k < heapSize; k++) {
+            pending[heap[k]] = false;
+        }
+        for (int k = 0; k < nextCount; k++) {
+            pending[next[k]] = false;
+        }
+        heapSize = 0;
+        nextCount = 0;
+        position = -1;
+        clearTouched();
+    }
+    
+    private void push(int centerIndex) {
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (heap[parent] <= centerIndex) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = centerIndex;
+    }
+    
+    private void siftDown(int centerIndex) {
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (heap[child] >= centerIndex) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = centerIndex;
+    }
+}
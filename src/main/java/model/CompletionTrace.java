@@ -0,0 +1,131 @@
+package model;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Трасса завершения деталей: для каждой завершённой детали - центр,
+ * идентификатор детали, время запуска и время завершения. Записи хранятся
+ * в заранее выделенных массивах фиксированной ёмкости по кругу: при
+ * переполнении новые записи замещают самые старые, а память во время
+ * симуляции не выделяется.
+ *
+ * Подключается через ProductionLine.setCompletionTrace(). Без трассы центр
+ * при завершении детали только проверяет поле на null. Записи добавляются
+ * из одного потока, поэтому с трассой ProductionLine не использует
+ * параллельный шаг.
+ */
+public final class CompletionTrace {
+    static final String HEADER = "Center, Detail, Start, End\n";
+    
+    private final int[] centers;
+    private final int[] detailIds;
+    private final double[] startTimes;
+    private final double[] endTimes;
+    private String[] centerNames = new String[0];
+    private long recorded;
+    
+    /**
+     * @param capacity сколько последних завершений хранить
+     */
+    public CompletionTrace(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Trace capacity must be positive");
+        }
+        this.centers = new int[capacity];
+        this.detailIds = new int[capacity];
+        this.startTimes = new double[capacity];
+        this.endTimes = new double[capacity];
+    }
+    
+    void record(int center, int detailId, double startTime, double endTime) {
+        int slot = (int) (recorded % centers.length);
+        centers[slot] = center;
+        detailIds[slot] = detailId;
+        startTimes[slot] = startTime;
+        endTimes[slot] = endTime;
+        recorded++;
+    }
+    
+    void setCenterNames(String[] centerNames) {
+        this.centerNames = centerNames;
+    }
+    
+    public void clear() {
+        recorded = 0;
+    }
+    
+    public int getCapacity() {
+        return centers.length;
+    }
+    
+    /**
+     * @return количество хранимых записей
+     */
+    public int size() {
+        return (int) Math.min(recorded, centers.length);
+    }
+    
+    /**
+     * @return сколько завершений записано с последнего clear(), включая замещённые
+     */
+    public long getRecordedCount() {
+        return recorded;
+    }
+    
+    /**
+     * @return сколько самых старых записей замещено новыми
+     */
+    public long getDroppedCount() {
+        return recorded - size();
+    }
+    
+    /**
+     * @param k номер записи от самой старой из хранимых, от 0 до size() - 1
+     * @return индекс центра в линии
+     */
+    public int getCenter(int k) {
+        return centers[slot(k)];
+    }
+    
+    public String getCenterName(int k) {
+        int center = getCenter(k);
+        return center < centerNames.length ? centerNames[center] : String.valueOf(center);
+    }
+    
+    public int getDetailId(int k) {
+        return detailIds[slot(k)];
+    }
+    
+    public double getStartTime(int k) {
+        return startTimes[slot(k)];
+    }
+    
+    public double getEndTime(int k) {
+        return endTimes[slot(k)];
+    }
+    
+    private int slot(int k) {
+        if (k < 0 || k >= size()) {
+            throw new IndexOutOfBoundsException("Trace record " + k + " of " + size());
+        }
+        return (int) ((getDroppedCount() + k) % centers.length);
+    }
+    
+    /**
+     * Записывает хранимые записи в CSV от самой старой: центр, деталь,
+     * время запуска и завершения с точностью до 0.1 минуты.
+     */
+    public void writeCsv(Writer writer) throws IOException {
+        writer.write(HEADER);
+        StringBuilder row = new StringBuilder(64);
+        for (int k = 0; k < size(); k++) {
+            row.setLength(0);
+            row.append(getCenterName(k)).append(", ")
+                .append(getDetailId(k)).append(", ")
+                .append(Math.round(getStartTime(k) * 10) / 10.0).append(", ")
+                .append(Math.round(getEndTime(k) * 10) / 10.0).append('\n');
+            writer.append(row);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package model;
+
+/**
+ * Получатель состояний центров, которые ProductionLine записывает по ходу симуляции.
+ * Позволяет выводить результаты потоково, не накапливая их в памяти.
+ */
+public interface EventSink {
+    
+    /**
+     * Принимает состояние одного центра в момент времени time.
+     */
+    void record(double time, String productionCenter, int workersCount, int bufferCount);
+    
+    /**
+     * Вызывается по окончании симуляции и перед снимком состояния
+     * (ProductionLine.setCheckpoints()), чтобы сбросить буферизованные данные.
+     */
+    default void flush() {
+    }
+}
@@ -0,0 +1,240 @@
+package model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Компактное хранилище событий в памяти. Вместо объекта ProductionEvent
+ * на событие значения лежат в колонках примитивов, а названия центров -
+ * один раз в таблице:
+ * - номер центра, рабочие и буфер хранятся в char, пока значения порции
+ *   помещаются в 0..65535, иначе колонка порции расширяется до int;
+ * - время хранится сериями: линия записывает состояния центров в один
+ *   момент подряд, поэтому одно значение double приходится на серию.
+ * При записи состояния нескольких центров за шаг событие занимает
+ * 6-8 байт вместо 36.
+ *
+ * События разбиты на порции по CHUNK_SIZE, поэтому при росте хранилища
+ * ранее записанные порции не копируются. Для совместимости asList()
+ * возвращает представление List<ProductionEvent>, которое создаёт объекты
+ * ProductionEvent только при обращении к элементам.
+ */
+public final class EventStore implements EventSink {
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    
+    private Chunk[] chunks = new Chunk[0];
+    private int size;
+    
+    private final CenterNames centerNames = new CenterNames();
+    
+    private final List<ProductionEvent> view = new EventList();
+    
+    @Override
+    public void record(double time, String productionCenter, int workersCount, int bufferCount) {
+        int chunk = size >>> CHUNK_BITS;
+        if (chunk == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunk + 1);
+            chunks[chunk] = new Chunk();
+        }
+        chunks[chunk].add(size & CHUNK_MASK, time, centerNames.id(productionCenter), workersCount, bufferCount);
+        size++;
+    }
+    
+    /**
+     * Удаляет события; выделенные порции и таблица названий остаются
+     * для следующего прогона.
+     */
+    public void clear() {
+        size = 0;
+        for (Chunk chunk : chunks) {
+            chunk.clear();
+        }
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public double getTime(int index) {
+        checkIndex(index);
+        return chunks[index >>> CHUNK_BITS].time(index & CHUNK_MASK);
+    }
+    
+    /**
+     * @return номер центра в getCenterName(int)
+     */
+    public int getCenterId(int index) {
+        checkIndex(index);
+        return chunks[index >>> CHUNK_BITS].centers.get(index & CHUNK_MASK);
+    }
+    
+    public String getProductionCenter(int index) {
+        return centerNames.name(getCenterId(index));
+    }
+    
+    public int getWorkersCount(int index) {
+        checkIndex(index);
+        return chunks[index >>> CHUNK_BITS].workers.get(index & CHUNK_MASK);
+    }
+    
+    public int getBufferCount(int index) {
+        checkIndex(index);
+        return chunks[index >>> CHUNK_BITS].buffers.get(index & CHUNK_MASK);
+    }
+    
+    public int getCenterCount() {
+        return centerNames.size();
+    }
+    
+    public String getCenterName(int centerId) {
+        return centerNames.name(centerId);
+    }
+    
+    /**
+     * Передаёт все события получателю в порядке записи, не создавая объектов.
+     */
+    public void replay(EventSink sink) {
+        for (int c = 0; c < chunks.length && chunks[c].size > 0; c++) {
+            Chunk chunk = chunks[c];
+            for (int run = 0; run < chunk.runs; run++) {
+                double time = chunk.runTimes[run];
+                int end = run + 1 < chunk.runs ? chunk.runStarts[run + 1] : chunk.size;
+                for (int i = chunk.runStarts[run]; i < end; i++) {
+                    sink.record(time, centerNames.name(chunk.centers.get(i)),
+                        chunk.workers.get(i), chunk.buffers.get(i));
+                }
+            }
+        }
+    }
+    
+    /**
+     * @return неизменяемое представление событий; отражает последующие записи
+     */
+    public List<ProductionEvent> asList() {
+        return view;
+    }
+    
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Event " + index + " of " + size);
+        }
+    }
+    
+    /**
+     * Порция событий: серии одинакового времени и три колонки целых.
+     * Массивы растут удвоением до CHUNK_SIZE, чтобы короткие прогоны
+     * не занимали целую порцию.
+     */
+    private static final class Chunk {
+        private static final int INITIAL_CAPACITY = 256;
+        
+        // Время серии и номер её первого события в порции
+        private double[] runTimes = new double[16];
+        private int[] runStarts = new int[16];
+        private int runs;
+        private int size;
+        
+        private final PackedColumn centers = new PackedColumn(INITIAL_CAPACITY);
+        private final PackedColumn workers = new PackedColumn(INITIAL_CAPACITY);
+        private final PackedColumn buffers = new PackedColumn(INITIAL_CAPACITY);
+        
+        void add(int index, double time, int center, int workersCount, int bufferCount) {
+            // Серии сравниваются побитово, чтобы время восстанавливалось точно
+            if (runs == 0 || Double.doubleToRawLongBits(runTimes[runs - 1]) != Double.doubleToRawLongBits(time)) {
+                if (runs == runTimes.length) {
+                    runTimes = Arrays.copyOf(runTimes, runs * 2);
+                    runStarts = Arrays.copyOf(runStarts, runs * 2);
+                }
+                runTimes[runs] = time;
+                runStarts[runs] = index;
+                runs++;
+            }
+            if (index == centers.capacity()) {
+                int capacity = Math.min(CHUNK_SIZE, index * 2);
+                centers.grow(capacity);
+                workers.grow(capacity);
+                buffers.grow(capacity);
+            }
+            centers.set(index, center);
+            workers.set(index, workersCount);
+            buffers.set(index, bufferCount);
+            size = index + 1;
+        }
+        
+        /**
+         * @return время серии, в которую входит событие index
+         */
+        double time(int index) {
+            int run = Arrays.binarySearch(runStarts, 0, runs, index);
+            return runTimes[run >= 0 ? run : -run - 2];
+        }
+        
+        void clear() {
+            runs = 0;
+            size = 0;
+        }
+    }
+    
+    /**
+     * Колонка целых: char, пока значения помещаются в 0..65535, затем int.
+     */
+    private static final class PackedColumn {
+        private char[] narrow;
+        private int[] wide;
+        
+        PackedColumn(int capacity) {
+            this.narrow = new char[capacity];
+        }
+        
+        int capacity() {
+            return wide != null ? wide.length : narrow.length;
+        }
+        
+        void grow(int capacity) {
+            if (wide != null) {
+                wide = Arrays.copyOf(wide, capacity);
+            } else {
+                narrow = Arrays.copyOf(narrow, capacity);
+            }
+        }
+        
+        void set(int index, int value) {
+            if (wide == null) {
+                if (value >= 0 && value <= Character.MAX_VALUE) {
+                    narrow[index] = (char) value;
+                    return;
+                }
+                wide = new int[narrow.length];
+                for (int i = 0; i < narrow.length; i++) {
+                    wide[i] = narrow[i];
+                }
+                narrow = null;
+            }
+            wide[index] = value;
+        }
+        
+        int get(int index) {
+            return wide != null ? wide[index] : narrow[index];
+        }
+    }
+    
+    private final class EventList extends AbstractList<ProductionEvent> implements RandomAccess {
+        @Override
+        public ProductionEvent get(int index) {
+            checkIndex(index);
+            Chunk chunk = chunks[index >>> CHUNK_BITS];
+            int offset = index & CHUNK_MASK;
+            return new ProductionEvent(chunk.time(offset), centerNames.name(chunk.centers.get(offset)),
+                chunk.workers.get(offset), chunk.buffers.get(offset));
+        }
+        
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
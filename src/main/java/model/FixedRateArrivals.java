@@ -0,0 +1,24 @@
+package model;
+
+/**
+ * Поступление через равные промежутки 1/rate. Время считается умножением
+ * номера детали, а не сложением промежутков, чтобы ошибка округления
+ * не накапливалась за недели симулированного времени.
+ */
+final class FixedRateArrivals implements ArrivalProcess {
+    private final double rate;
+    private long count;
+    
+    FixedRateArrivals(double rate) {
+        if (!(rate > 0) || Double.isInfinite(rate)) {
+            throw new IllegalArgumentException("Arrival rate must be positive: " + rate);
+        }
+        this.rate = rate;
+    }
+    
+    @Override
+    public double nextArrival() {
+        count++;
+        return count / rate;
+    }
+}
@@ -0,0 +1,13 @@
+package model;
+
+/**
+ * Жадная стратегия по умолчанию: приоритет - размер буфера × время обработки
+ * (ProductionCenter.calculatePriority()).
+ */
+final class GreedyAllocation implements WorkerAllocationStrategy {
+    
+    @Override
+    public double priority(int centerIndex, ProductionCenter center) {
+        return center.calculatePriority();
+    }
+}
@@ -0,0 +1,86 @@
+package model;
+
+/**
+ * Кольцевой буфер деталей в обработке с временем их запуска.
+ * Время обработки в центре одинаково для всех деталей, а детали запускаются
+ * в неубывающем порядке времени, поэтому завершаются они в порядке запуска:
+ * поиск готовых деталей стоит O(завершений), а не O(деталей в обработке).
+ * Детали хранятся как идентификаторы, в установившемся режиме память не выделяется.
+ */
+final class InProcessQueue {
+    private int[] detailIds;
+    private double[] startTimes;
+    private int head;
+    private int size;
+    
+    InProcessQueue(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 1);
+        this.detailIds = new int[capacity];
+        this.startTimes = new double[capacity];
+    }
+    
+    void add(int detailId, double startTime) {
+        if (size == detailIds.length) {
+            grow();
+        }
+        int tail = (head + size) % detailIds.length;
+        detailIds[tail] = detailId;
+        startTimes[tail] = startTime;
+        size++;
+    }
+    
+    /**
+     * @return время запуска самой ранней детали; очередь не должна быть пустой
+     */
+    double peekStartTime() {
+        return startTimes[head];
+    }
+    
+    /**
+     * @return идентификатор самой ранней детали
+     */
+    int poll() {
+        int detailId = detailIds[head];
+        head = (head + 1) % detailIds.length;
+        size--;
+        return detailId;
+    }
+    
+    /**
+     * @param index позиция от самой ранней детали
+     */
+    int getDetailId(int index) {
+        return detailIds[(head + index) % detailIds.length];
+    }
+    
+    double getStartTime(int index) {
+        return startTimes[(head + index) % detailIds.length];
+    }
+    
+    void clear() {
+        head = 0;
+        size = 0;
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    boolean isEmpty() {
+        return size == 0;
+    }
+    
+    private void grow() {
+        int capacity = detailIds.length * 2;
+        int[] newDetailIds = new int[capacity];
+        double[] newStartTimes = new double[capacity];
+        for (int i = 0; i < size; i++) {
+            int index = (head + i) % detailIds.length;
+            newDetailIds[i] = detailIds[index];
+            newStartTimes[i] = startTimes[index];
+        }
+        detailIds = newDetailIds;
+        startTimes = newStartTimes;
+        head = 0;
+    }
+}
@@ -0,0 +1,76 @@
+package model;
+
+/**
+ * Очередь FIFO идентификаторов деталей на растущем кольцевом массиве int.
+ * В отличие от LinkedList&lt;Detail&gt; не создаёт узел и объект детали
+ * на каждый элемент: деталь в буфере занимает 4 байта.
+ */
+final class IntQueue {
+    private static final int DEFAULT_CAPACITY = 16;
+    
+    private int[] elements;
+    private int head;
+    private int size;
+    
+    IntQueue() {
+        this.elements = new int[DEFAULT_CAPACITY];
+    }
+    
+    void add(int value) {
+        if (size == elements.length) {
+            grow();
+        }
+        elements[(head + size) % elements.length] = value;
+        size++;
+    }
+    
+    /**
+     * @return первый элемент; очередь не должна быть пустой
+     */
+    int poll() {
+        int value = elements[head];
+        head = (head + 1) % elements.length;
+        size--;
+        return value;
+    }
+    
+    /**
+     * @param index позиция от головы очереди
+     */
+    int get(int index) {
+        return elements[(head + index) % elements.length];
+    }
+    
+    /**
+     * @return копия элементов от головы очереди
+     */
+    int[] toArray() {
+        int[] values = new int[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = get(i);
+        }
+        return values;
+    }
+    
+    void clear() {
+        head = 0;
+        size = 0;
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    boolean isEmpty() {
+        return size == 0;
+    }
+    
+    private void grow() {
+        int[] newElements = new int[elements.length * 2];
+        for (int i = 0; i < size; i++) {
+            newElements[i] = elements[(head + i) % elements.length];
+        }
+        elements = newElements;
+        head = 0;
+    }
+}
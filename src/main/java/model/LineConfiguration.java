@@ -0,0 +1,134 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Неизменяемое описание производственной линии: центры, связи между ними
+ * и начальные данные. Отделено от изменяемого состояния симуляции,
+ * поэтому одна прочитанная конфигурация безопасно порождает сколько угодно
+ * независимых ProductionLine, в том числе из разных потоков.
+ */
+public final class LineConfiguration {
+    private final List<CenterSpec> centers;
+    private final List<Connection> connections;
+    private final String initialCenter;
+    private final int detailsCount;
+    private final int totalWorkers;
+    
+    public LineConfiguration(List<CenterSpec> centers, List<Connection> connections,
+                             String initialCenter, int detailsCount, int totalWorkers) {
+        this.centers = Collections.unmodifiableList(new ArrayList<>(centers));
+        this.connections = Collections.unmodifiableList(new ArrayList<>(connections));
+        this.initialCenter = initialCenter;
+        this.detailsCount = detailsCount;
+        this.totalWorkers = totalWorkers;
+    }
+    
+    public List<CenterSpec> getCenters() {
+        return centers;
+    }
+    
+    public List<Connection> getConnections() {
+        return connections;
+    }
+    
+    public String getInitialCenter() {
+        return initialCenter;
+    }
+    
+    public int getDetailsCount() {
+        return detailsCount;
+    }
+    
+    public int getTotalWorkers() {
+        return totalWorkers;
+    }
+    
+    public LineConfiguration withTotalWorkers(int totalWorkers) {
+        return new LineConfiguration(centers, connections, initialCenter, detailsCount, totalWorkers);
+    }
+    
+    public LineConfiguration withDetailsCount(int detailsCount) {
+        return new LineConfiguration(centers, connections, initialCenter, detailsCount, totalWorkers);
+    }
+    
+    /**
+     * Возвращает конфигурацию, в которой у центра centerName другое максимальное количество рабочих.
+     */
+    public LineConfiguration withMaxWorkers(String centerName, int maxWorkers) {
+        List<CenterSpec> updated = new ArrayList<>(centers.size());
+        boolean found = false;
+        for (CenterSpec center : centers) {
+            if (center.getName().equals(centerName)) {
+                updated.add(new CenterSpec(center.getName(), center.getProcessingTime(), maxWorkers));
+                found = true;
+            } else {
+                updated.add(center);
+            }
+        }
+        if (!found) {
+            throw new IllegalArgumentException("Unknown production center: " + centerName);
+        }
+        return new LineConfiguration(updated, connections, initialCenter, detailsCount, totalWorkers);
+    }
+    
+    /**
+     * Создаёт новую линию с чистым состоянием: центры в порядке конфигурации,
+     * связи, начальный и конечные центры, детали в буфере начального центра.
+     * Связи с неизвестными центрами пропускаются.
+     * Для многократных прогонов выгоднее скомпилировать LineTopology один раз.
+     */
+    public ProductionLine createLine() {
+        return LineTopology.compile(this).createLine();
+    }
+    
+    /**
+     * Параметры производственного центра.
+     */
+    public static final class CenterSpec {
+        private final String name;
+        private final double processingTime;
+        private final int maxWorkers;
+        
+        public CenterSpec(String name, double processingTime, int maxWorkers) {
+            this.name = name;
+            this.processingTime = processingTime;
+            this.maxWorkers = maxWorkers;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        public double getProcessingTime() {
+            return processingTime;
+        }
+        
+        public int getMaxWorkers() {
+            return maxWorkers;
+        }
+    }
+    
+    /**
+     * Связь: детали из центра from передаются в центр to.
+     */
+    public static final class Connection {
+        private final String from;
+        private final String to;
+        
+        public Connection(String from, String to) {
+            this.from = from;
+            this.to = to;
+        }
+        
+        public String getFrom() {
+            return from;
+        }
+        
+        public String getTo() {
+            return to;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package model;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Сценарий «что если» от общего начала прогона: линия восстанавливается
+ * из снимка, к ней применяются изменения (общее количество рабочих,
+ * максимум рабочих центров, дополнительные детали в буферах), и прогон
+ * продолжается с момента снимка. Начало прогона не пересчитывается,
+ * поэтому сценарий стоит столько, сколько его продолжение.
+ *
+ * LineFork неизменяем: with*() возвращают новый сценарий с тем же
+ * снимком. Топология и снимок только читаются, поэтому линии сценариев
+ * от одного начала можно создавать и прогонять в разных потоках.
+ * Стратегию распределения, режим записи и получателей событий
+ * созданной линии задаёт вызывающий код, как для любой линии.
+ */
+public final class LineFork {
+    private final LineTopology topology;
+    private final LineSnapshot prefix;
+    private final Map<String, Integer> centerIndexes;
+    private final int firstDetailId;
+    
+    // Изменения сценария (totalWorkers < 0 - как в снимке)
+    private final int totalWorkers;
+    private final Map<String, Integer> maxWorkers;
+    private final Map<String, Integer> injectedDetails;
+    
+    /**
+     * @param topology топология, по которой сделан снимок
+     * @param prefix снимок общего начала, обычно сделанный во время прогона
+     */
+    public LineFork(LineTopology topology, LineSnapshot prefix) {
+        if (prefix.getCenterCount() != topology.getCenterCount()) {
+            throw new IllegalArgumentException("Snapshot has " + prefix.getCenterCount()
+                + " centers, the topology has " + topology.getCenterCount());
+        }
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < topology.getCenterCount(); i++) {
+            if (!topology.getName(i).equals(prefix.getCenterName(i))) {
+                throw new IllegalArgumentException("Snapshot does not match the topology: center " + i
+                    + " is " + prefix.getCenterName(i) + " in the snapshot and " + topology.getName(i)
+                    + " in the topology");
+            }
+            indexes.put(topology.getName(i), i);
+        }
+        this.topology = topology;
+        this.prefix = prefix;
+        this.centerIndexes = Collections.unmodifiableMap(indexes);
+        // Новые детали получают идентификаторы после всех известных
+        this.firstDetailId = Math.max(topology.getDetailsCount(), prefix.maxDetailId() + 1);
+        this.totalWorkers = -1;
+        this.maxWorkers = Collections.emptyMap();
+        this.injectedDetails = Collections.emptyMap();
+    }
+    
+    private LineFork(LineFork base, int totalWorkers, Map<String, Integer> maxWorkers,
+                     Map<String, Integer> injectedDetails) {
+        this.topology = base.topology;
+        this.prefix = base.prefix;
+        this.centerIndexes = base.centerIndexes;
+        this.firstDetailId = base.firstDetailId;
+        this.totalWorkers = totalWorkers;
+        this.maxWorkers = Collections.unmodifiableMap(maxWorkers);
+        this.injectedDetails = Collections.unmodifiableMap(injectedDetails);
+    }
+    
+    /**
+     * Сценарии от текущего состояния линии, например приостановленной
+     * через ProductionLine.simulateUntil().
+     */
+    public static LineFork of(ProductionLine line) {
+        if (line.getTopology() == null) {
+            throw new IllegalStateException("Only lines created from a LineTopology can be forked");
+        }
+        return new LineFork(line.getTopology(), line.snapshot());
+    }
+    
+    public LineSnapshot getPrefix() {
+        return prefix;
+    }
+    
+    /**
+     * @return момент, с которого продолжаются сценарии
+     */
+    public double getTime() {
+        return prefix.getTime();
+    }
+    
+    public LineFork withTotalWorkers(int totalWorkers) {
+        if (totalWorkers <= 0) {
+            throw new IllegalArgumentException("Total workers must be positive");
+        }
+        return new LineFork(this, totalWorkers, maxWorkers, injectedDetails);
+    }
+    
+    /**
+     * Возвращает сценарий, в котором у центра centerName другое максимальное
+     * количество рабочих.
+     */
+    public LineFork withMaxWorkers(String centerName, int maxWorkers) {
+        checkCenter(centerName);
+        if (maxWorkers <= 0) {
+            throw new IllegalArgumentException("Max workers must be positive: " + centerName);
+        }
+        Map<String, Integer> updated = new LinkedHashMap<>(this.maxWorkers);
+        updated.put(centerName, maxWorkers);
+        return new LineFork(this, totalWorkers, updated, injectedDetails);
+    }
+    
+    /**
+     * Возвращает сценарий, в котором в конец буфера центра centerName
+     * добавлено count новых деталей.
+     */
+    public LineFork withInjectedDetails(String centerName, int count) {
+        checkCenter(centerName);
+        if (count < 0) {
+            throw new IllegalArgumentException("Injected details count must not be negative");
+        }
+        Map<String, Integer> updated = new LinkedHashMap<>(injectedDetails);
+        updated.merge(centerName, count, Integer::sum);
+        return new LineFork(this, totalWorkers, maxWorkers, updated);
+    }
+    
+    private void checkCenter(String centerName) {
+        if (!centerIndexes.containsKey(centerName)) {
+            throw new IllegalArgumentException("Unknown production center: " + centerName);
+        }
+    }
+    
+    /**
+     * Создаёт линию в состоянии снимка с изменениями сценария. Для снимка,
+     * сделанного во время прогона, simulate() продолжает этот прогон.
+     */
+    public ProductionLine createLine() {
+        // Буфер начального центра всё равно заменяется снимком, поэтому детали топологии не создаются
+        ProductionLine line = new ProductionLine(topology, 0);
+        line.restore(prefix);
+        if (totalWorkers >= 0) {
+            line.setTotalWorkers(totalWorkers);
+        }
+        for (Map.Entry<String, Integer> entry : maxWorkers.entrySet()) {
+            line.getCenter(centerIndexes.get(entry.getKey())).setMaxWorkers(entry.getValue());
+        }
+        int detailId = firstDetailId;
+        for (Map.Entry<String, Integer> entry : injectedDetails.entrySet()) {
+            ProductionCenter center = line.getCenter(centerIndexes.get(entry.getKey()));
+            for (int k = 0; k < entry.getValue(); k++) {
+                center.addDetailToBuffer(detailId++);
+            }
+        }
+        return line;
+    }
+}
@@ -0,0 +1,301 @@
+package model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Снимок состояния линии в момент getTime(): буферы и детали в обработке
+ * с временем запуска, назначенные рабочие, статистика и очередь раздачи
+ * деталей каждого центра, а также последние записанные состояния для
+ * дельта-записи. Снимок не зависит от линии и не изменяется, поэтому
+ * из одного снимка можно восстановить несколько линий.
+ *
+ * Снимок, сделанный во время simulate() (см. ProductionLine.setCheckpoints()),
+ * после ProductionLine.restore() продолжает прогон так, что последующие
+ * события совпадают с непрерывным прогоном. Для этого снимок хранит и
+ * настройки, от которых зависят события: режим, дельта-запись и стратегию
+ * распределения рабочих (имя встроенной политики или класс своей стратегии). Снимок вне прогона
+ * (ProductionLine.snapshot()) задаёт начальное состояние нового прогона.
+ * Записи в памяти линии, трасса и счётчики в снимок не входят.
+ *
+ * Файл: MAGIC, VERSION, настройки, состояние линии и центров. Буфер хранится сериями
+ * идущих подряд идентификаторов (начало, длина), поэтому буфер начального
+ * центра из detailsCount деталей занимает 8 байт. Числа - big-endian.
+ */
+public final class LineSnapshot {
+    private static final int MAGIC = 0x50534E50;
+    private static final int VERSION = 2;
+    
+    final SimulationMode mode;
+    final boolean recordChangesOnly;
+    final String strategy;
+    final boolean inProgress;
+    final double currentTime;
+    final int totalWorkers;
+    final long recordedEvents;
+    final CenterState[] centers;
+    
+    LineSnapshot(SimulationMode mode, boolean recordChangesOnly, String strategy, boolean inProgress,
+                 double currentTime, int totalWorkers, long recordedEvents, CenterState[] centers) {
+        this.mode = mode;
+        this.recordChangesOnly = recordChangesOnly;
+        this.strategy = strategy;
+        this.inProgress = inProgress;
+        this.currentTime = currentTime;
+        this.totalWorkers = totalWorkers;
+        this.recordedEvents = recordedEvents;
+        this.centers = centers;
+    }
+    
+    public double getTime() {
+        return currentTime;
+    }
+    
+    public SimulationMode getMode() {
+        return mode;
+    }
+    
+    public int getTotalWorkers() {
+        return totalWorkers;
+    }
+    
+    public boolean isRecordChangesOnly() {
+        return recordChangesOnly;
+    }
+    
+    /**
+     * @return имя встроенной политики (AllocationPolicy.name()) или класса
+     *         своей стратегии, с которой сделан снимок
+     */
+    public String getStrategy() {
+        return strategy;
+    }
+    
+    /**
+     * @return true, если снимок сделан во время прогона и продолжает его
+     */
+    public boolean isInProgress() {
+        return inProgress;
+    }
+    
+    /**
+     * @return сколько состояний центров линия записала до снимка
+     */
+    public long getRecordedEvents() {
+        return recordedEvents;
+    }
+    
+    public int getCenterCount() {
+        return centers.length;
+    }
+    
+    public String getCenterName(int index) {
+        return centers[index].name;
+    }
+    
+    /**
+     * @return наибольший идентификатор детали в буферах и в обработке или -1
+     */
+    int maxDetailId() {
+        int max = -1;
+        for (CenterState center : centers) {
+            for (int detailId : center.buffer) {
+                max = Math.max(max, detailId);
+            }
+            for (int detailId : center.inProcessIds) {
+                max = Math.max(max, detailId);
+            }
+        }
+        return max;
+    }
+    
+    /**
+     * Записывает снимок во временный файл и переименовывает его, чтобы
+     * прерванная запись не испортила предыдущий снимок.
+     */
+    public void write(String filePath) throws IOException {
+        Path target = Paths.get(filePath).toAbsolutePath();
+        Path temp = Files.createTempFile(target.getParent(), "snapshot", ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                write(out);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    public void write(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeByte(mode.ordinal());
+        out.writeBoolean(recordChangesOnly);
+        out.writeUTF(strategy);
+        out.writeBoolean(inProgress);
+        out.writeDouble(currentTime);
+        out.writeInt(totalWorkers);
+        out.writeLong(recordedEvents);
+        out.writeInt(centers.length);
+        for (CenterState center : centers) {
+            center.write(out);
+        }
+        out.flush();
+    }
+    
+    public static LineSnapshot read(String filePath) throws IOException {
+        try (InputStream in = Files.newInputStream(Paths.get(filePath))) {
+            return read(in);
+        }
+    }
+    
+    public static LineSnapshot read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a simulation snapshot");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported simulation snapshot version: " + version);
+        }
+        int mode = in.readByte();
+        if (mode < 0 || mode >= SimulationMode.values().length) {
+            throw new IOException("Unknown simulation mode in snapshot: " + mode);
+        }
+        boolean recordChangesOnly = in.readBoolean();
+        String strategy = in.readUTF();
+        boolean inProgress = in.readBoolean();
+        double currentTime = in.readDouble();
+        int totalWorkers = in.readInt();
+        long recordedEvents = in.readLong();
+        CenterState[] centers = new CenterState[in.readInt()];
+        for (int i = 0; i < centers.length; i++) {
+            centers[i] = CenterState.read(in);
+        }
+        return new LineSnapshot(SimulationMode.values()[mode], recordChangesOnly, strategy, inProgress,
+            currentTime, totalWorkers, recordedEvents, centers);
+    }
+    
+    /**
+     * Состояние одного центра. Поля recorded* - последнее записанное
+     * состояние центра, которое линия сравнивает при дельта-записи.
+     */
+    static final class CenterState {
+        String name;
+        int maxWorkers;
+        int currentWorkers;
+        int nextCenterIndex;
+        int[] buffer;
+        int[] inProcessIds;
+        double[] inProcessStartTimes;
+        
+        int totalDetailsProcessed;
+        int maxBufferSize;
+        double totalWorkTime;
+        double simulationTime;
+        
+        int recordedWorkers = -1;
+        int recordedBuffer;
+        double recordedTime = Double.NaN;
+        
+        private void write(DataOutputStream out) throws IOException {
+            out.writeUTF(name);
+            out.writeInt(maxWorkers);
+            out.writeInt(currentWorkers);
+            out.writeInt(nextCenterIndex);
+            out.writeInt(totalDetailsProcessed);
+            out.writeInt(maxBufferSize);
+            out.writeDouble(totalWorkTime);
+            out.writeDouble(simulationTime);
+            out.writeInt(recordedWorkers);
+            out.writeInt(recordedBuffer);
+            out.writeDouble(recordedTime);
+            
+            // Буфер - серии идентификаторов, идущих подряд
+            int runs = 0;
+            for (int i = 0; i < buffer.length; i++) {
+                if (i == 0 || buffer[i] != buffer[i - 1] + 1) {
+                    runs++;
+                }
+            }
+            out.writeInt(runs);
+            for (int i = 0; i < buffer.length; ) {
+                int end = i + 1;
+                while (end < buffer.length && buffer[end] == buffer[end - 1] + 1) {
+                    end++;
+                }
+                out.writeInt(buffer[i]);
+                out.writeInt(end - i);
+                i = end;
+            }
+            
+            out.writeInt(inProcessIds.length);
+            for (int i = 0; i < inProcessIds.length; i++) {
+                out.writeInt(inProcessIds[i]);
+                out.writeDouble(inProcessStartTimes[i]);
+            }
+        }
+        
+        private static CenterState read(DataInputStream in) throws IOException {
+            CenterState center = new CenterState();
+            center.name = in.readUTF();
+            center.maxWorkers = in.readInt();
+            center.currentWorkers = in.readInt();
+            center.nextCenterIndex = in.readInt();
+            center.totalDetailsProcessed = in.readInt();
+            center.maxBufferSize = in.readInt();
+            center.totalWorkTime = in.readDouble();
+            center.simulationTime = in.readDouble();
+            center.recordedWorkers = in.readInt();
+            center.recordedBuffer = in.readInt();
+            center.recordedTime = in.readDouble();
+            
+            int runs = in.readInt();
+            if (runs < 0) {
+                throw new IOException("Corrupted buffer in snapshot of center " + center.name);
+            }
+            int[] starts = new int[runs];
+            int[] lengths = new int[runs];
+            long size = 0;
+            for (int k = 0; k < runs; k++) {
+                starts[k] = in.readInt();
+                lengths[k] = in.readInt();
+                if (lengths[k] < 1) {
+                    throw new IOException("Corrupted buffer in snapshot of center " + center.name);
+                }
+                size += lengths[k];
+            }
+            if (size > Integer.MAX_VALUE - 8) {
+                throw new IOException("Corrupted buffer in snapshot of center " + center.name);
+            }
+            center.buffer = new int[(int) size];
+            for (int k = 0, i = 0; k < runs; k++) {
+                for (int n = 0; n < lengths[k]; n++) {
+                    center.buffer[i++] = starts[k] + n;
+                }
+            }
+            
+            int inProcess = in.readInt();
+            if (inProcess < 0) {
+                throw new IOException("Corrupted snapshot of center " + center.name);
+            }
+            center.inProcessIds = new int[inProcess];
+            center.inProcessStartTimes = new double[inProcess];
+            for (int i = 0; i < inProcess; i++) {
+                center.inProcessIds[i] = in.readInt();
+                center.inProcessStartTimes[i] = in.readDouble();
+            }
+            return center;
+        }
+    }
+}
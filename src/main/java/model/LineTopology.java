@@ -0,0 +1,148 @@
+package model;
+
+import model.LineConfiguration.CenterSpec;
+import model.LineConfiguration.Connection;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Скомпилированная неизменяемая топология линии: центры пронумерованы
+ * по порядку конфигурации, параметры лежат в массивах, а связи - в формате
+ * списков смежности (nextOffsets/nextTargets, следующие центры i находятся
+ * в nextTargets[nextOffsets[i] .. nextOffsets[i + 1])).
+ *
+ * Топология строится один раз после чтения входных данных. Созданная
+ * из неё линия переиспользуется между прогонами через ProductionLine.reset(),
+ * поэтому граф центров не создаётся заново для каждой симуляции.
+ */
+public final class LineTopology {
+    private final String[] names;
+    private final double[] processingTimes;
+    private final int[] maxWorkers;
+    private final int[] nextOffsets;
+    private final int[] nextTargets;
+    private final int initialCenter;
+    private final boolean[] finals;
+    private final int detailsCount;
+    private final int totalWorkers;
+    
+    private LineTopology(String[] names, double[] processingTimes, int[] maxWorkers,
+                         int[] nextOffsets, int[] nextTargets, int initialCenter,
+                         int detailsCount, int totalWorkers) {
+        this.names = names;
+        this.processingTimes = processingTimes;
+        this.maxWorkers = maxWorkers;
+        this.nextOffsets = nextOffsets;
+        this.nextTargets = nextTargets;
+        this.initialCenter = initialCenter;
+        this.detailsCount = detailsCount;
+        this.totalWorkers = totalWorkers;
+        
+        // Конечные центры - без следующих центров, кроме начального
+        this.finals = new boolean[names.length];
+        for (int i = 0; i < names.length; i++) {
+            finals[i] = nextOffsets[i] == nextOffsets[i + 1] && i != initialCenter;
+        }
+    }
+    
+    /**
+     * Компилирует конфигурацию. Связи с неизвестными центрами пропускаются,
+     * как и при LineConfiguration.createLine().
+     */
+    public static LineTopology compile(LineConfiguration configuration) {
+        int count = configuration.getCenters().size();
+        String[] names = new String[count];
+        double[] processingTimes = new double[count];
+        int[] maxWorkers = new int[count];
+        Map<String, Integer> indexes = new HashMap<>();
+        
+        for (int i = 0; i < count; i++) {
+            CenterSpec spec = configuration.getCenters().get(i);
+            names[i] = spec.getName();
+            processingTimes[i] = spec.getProcessingTime();
+            maxWorkers[i] = spec.getMaxWorkers();
+            indexes.put(spec.getName(), i);
+        }
+        
+        // Считаем исходящие связи и раскладываем их по центрам в порядке описания
+        int[] nextOffsets = new int[count + 1];
+        for (Connection connection : configuration.getConnections()) {
+            Integer from = indexes.get(connection.getFrom());
+            if (from != null && indexes.containsKey(connection.getTo())) {
+                nextOffsets[from + 1]++;
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            nextOffsets[i + 1] += nextOffsets[i];
+        }
+        int[] nextTargets = new int[nextOffsets[count]];
+        int[] filled = Arrays.copyOf(nextOffsets, count);
+        for (Connection connection : configuration.getConnections()) {
+            Integer from = indexes.get(connection.getFrom());
+            Integer to = indexes.get(connection.getTo());
+            if (from != null && to != null) {
+                nextTargets[filled[from]++] = to;
+            }
+        }
+        
+        Integer initial = configuration.getInitialCenter() == null ? null : indexes.get(configuration.getInitialCenter());
+        return new LineTopology(names, processingTimes, maxWorkers, nextOffsets, nextTargets,
+            initial == null ? -1 : initial, configuration.getDetailsCount(), configuration.getTotalWorkers());
+    }
+    
+    public int getCenterCount() {
+        return names.length;
+    }
+    
+    public String getName(int center) {
+        return names[center];
+    }
+    
+    public double getProcessingTime(int center) {
+        return processingTimes[center];
+    }
+    
+    public int getMaxWorkers(int center) {
+        return maxWorkers[center];
+    }
+    
+    public int getNextCount(int center) {
+        return nextOffsets[center + 1] - nextOffsets[center];
+    }
+    
+    /**
+     * @return индекс k-го следующего центра для центра center
+     */
+    public int getNextCenter(int center, int k) {
+        return nextTargets[nextOffsets[center] + k];
+    }
+    
+    /**
+     * @return индекс начального центра или -1, если он не задан
+     */
+    public int getInitialCenter() {
+        return initialCenter;
+    }
+    
+    public boolean isFinal(int center) {
+        return finals[center];
+    }
+    
+    public int getDetailsCount() {
+        return detailsCount;
+    }
+    
+    public int getTotalWorkers() {
+        return totalWorkers;
+    }
+    
+    /**
+     * Создаёт линию с состоянием для прогонов по этой топологии.
+     * Для повторных прогонов используйте ProductionLine.reset().
+     */
+    public ProductionLine createLine() {
+        return new ProductionLine(this);
+    }
+}
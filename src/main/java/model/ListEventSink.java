@@ -0,0 +1,26 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Накапливает события в списке объектов ProductionEvent. Линия хранит
+ * события компактнее в EventStore; этот получатель нужен, когда
+ * объекты событий должны существовать независимо от линии.
+ */
+public class ListEventSink implements EventSink {
+    private final List<ProductionEvent> events = new ArrayList<>();
+    
+    @Override
+    public void record(double time, String productionCenter, int workersCount, int bufferCount) {
+        events.add(new ProductionEvent(time, productionCenter, workersCount, bufferCount));
+    }
+    
+    public void clear() {
+        events.clear();
+    }
+    
+    public List<ProductionEvent> getEvents() {
+        return events;
+    }
+}
@@ -0,0 +1,97 @@
+package model;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Стратегия «сначала длинный остаток пути»: приоритет - размер буфера ×
+ * самый длинный путь по времени обработки от центра до конца линии
+ * (включая сам центр). Детали, которым предстоит больше всего работы,
+ * продвигаются раньше, как при планировании по критическому пути.
+ */
+final class LongestPathAllocation implements WorkerAllocationStrategy {
+    private double[] remaining = new double[0];
+    
+    @Override
+    public void prepare(List<ProductionCenter> centers) {
+        int count = centers.size();
+        Map<ProductionCenter, Integer> indexes = new IdentityHashMap<>();
+        for (int i = 0; i < count; i++) {
+            indexes.put(centers.get(i), i);
+        }
+        
+        // Обратный топологический порядок (алгоритм Кана по исходящим связям):
+        // центр обрабатывается, когда посчитаны все следующие за ним
+        int[] outgoing = new int[count];
+        int[][] previous = predecessors(centers, indexes);
+        int[] ready = new int[count];
+        int readyCount = 0;
+        for (int i = 0; i < count; i++) {
+            outgoing[i] = centers.get(i).getNextCenters().size();
+            if (outgoing[i] == 0) {
+                ready[readyCount++] = i;
+            }
+        }
+        
+        remaining = new double[count];
+        while (readyCount > 0) {
+            int center = ready[--readyCount];
+            double longest = 0;
+            for (ProductionCenter next : centers.get(center).getNextCenters()) {
+                Integer nextIndex = indexes.get(next);
+                if (nextIndex != null) {
+                    longest = Math.max(longest, remaining[nextIndex]);
+                }
+            }
+            remaining[center] = centers.get(center).getProcessingTime() + longest;
+            for (int from : previous[center]) {
+                if (--outgoing[from] == 0) {
+                    ready[readyCount++] = from;
+                }
+            }
+        }
+        
+        // Центры на цикле не получили оценки - считаем только их собственное время
+        for (int i = 0; i < count; i++) {
+            if (remaining[i] == 0) {
+                remaining[i] = centers.get(i).getProcessingTime();
+            }
+        }
+    }
+    
+    @Override
+    public double priority(int centerIndex, ProductionCenter center) {
+        return center.getBufferSize() * remaining[centerIndex];
+    }
+    
+    /**
+     * @return индексы предыдущих центров для каждого центра
+     */
+    static int[][] predecessors(List<ProductionCenter> centers, Map<ProductionCenter, Integer> indexes) {
+        int count = centers.size();
+        int[] sizes = new int[count];
+        for (ProductionCenter center : centers) {
+            for (ProductionCenter next : center.getNextCenters()) {
+                Integer nextIndex = indexes.get(next);
+                if (nextIndex != null) {
+                    sizes[nextIndex]++;
+                }
+            }
+        }
+        int[][] previous = new int[count][];
+        for (int i = 0; i < count; i++) {
+            previous[i] = new int[sizes[i]];
+            sizes[i] = 0;
+        }
+        for (int i = 0; i < count; i++) {
+            for (ProductionCenter next : centers.get(i).getNextCenters()) {
+                Integer nextIndex = indexes.get(next);
+                if (nextIndex != null) {
+                    previous[nextIndex][sizes[nextIndex]++] = i;
+                }
+            }
+        }
+        return previous;
+    }
+}
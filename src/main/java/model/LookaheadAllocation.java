@@ -0,0 +1,42 @@
+package model;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Жадная стратегия с упреждением: к буферу центра добавляются детали,
+ * которые сейчас обрабатываются в предыдущих центрах и придут в него
+ * (при нескольких следующих центрах - пропорциональная доля, так как
+ * детали раздаются по очереди). Центр, к которому идёт поток деталей,
+ * получает рабочих раньше центра, буфер которого скоро иссякнет.
+ */
+final class LookaheadAllocation implements WorkerAllocationStrategy {
+    private ProductionCenter[] centers = new ProductionCenter[0];
+    private int[][] previous = new int[0][];
+    
+    @Override
+    public void prepare(List<ProductionCenter> centers) {
+        Map<ProductionCenter, Integer> indexes = new IdentityHashMap<>();
+        for (int i = 0; i < centers.size(); i++) {
+            indexes.put(centers.get(i), i);
+        }
+        this.centers = centers.toArray(new ProductionCenter[0]);
+        this.previous = LongestPathAllocation.predecessors(centers, indexes);
+    }
+    
+    @Override
+    public double priority(int centerIndex, ProductionCenter center) {
+        double incoming = 0;
+        for (int from : previous[centerIndex]) {
+            ProductionCenter source = centers[from];
+            incoming += (double) source.getDetailsInProcessCount() / source.getNextCenters().size();
+        }
+        return (center.getBufferSize() + incoming) * center.getProcessingTime();
+    }
+    
+    @Override
+    public boolean dependsOnPredecessors() {
+        return true;
+    }
+}
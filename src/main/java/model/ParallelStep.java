@@ -0,0 +1,193 @@
+package model;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Шаг режима TICK, выполняемый на нескольких ядрах в две фазы.
+ *
+ * При последовательном обходе центр i сначала завершает детали и кладёт их
+ * в буферы следующих центров, затем запускает детали из своего буфера.
+ * Поэтому центр j успевает запустить детали, пришедшие от центров с меньшим
+ * индексом, а детали от центров с большим индексом попадают в конец
+ * его буфера уже после запуска.
+ *
+ * Фаза 1 (параллельно по центрам): центры завершают готовые детали и
+ * записывают их с выбранным следующим центром в свои исходящие очереди.
+ * Фаза 2 (параллельно по центрам-получателям): центр j принимает детали
+ * от предыдущих центров с индексом не больше j в порядке индексов, запускает
+ * детали и затем принимает детали от остальных предыдущих центров. Каждый
+ * центр в фазе меняет только своё состояние, а содержимое и порядок буферов
+ * совпадают с последовательным обходом. Уведомления индекса приоритетов
+ * выполняются после фаз в одном потоке.
+ */
+final class ParallelStep {
+    // Центров в одной задаче: на меньших порциях накладные расходы больше работы
+    private static final int CHUNK_SIZE = 64;
+    
+    private final ProductionCenter[] centers;
+    private final int[][] nextIndexes;
+    private final int[][] previous;
+    private final IntQueue[] outgoing;
+    private final boolean[] completed;
+    private final boolean[] received;
+    private final boolean[] started;
+    
+    private ParallelStep(ProductionCenter[] centers, int[][] nextIndexes, int[][] previous) {
+        this.centers = centers;
+        this.nextIndexes = nextIndexes;
+        this.previous = previous;
+        this.outgoing = new IntQueue[centers.length];
+        for (int i = 0; i < centers.length; i++) {
+            outgoing[i] = new IntQueue();
+        }
+        this.completed = new boolean[centers.length];
+        this.received = new boolean[centers.length];
+        this.started = new boolean[centers.length];
+    }
+    
+    /**
+     * @return шаг для линии или null, если детали могут уходить в центры
+     *         вне линии и двухфазный шаг неприменим
+     */
+    static ParallelStep create(List<ProductionCenter> centers) {
+        Map<ProductionCenter, Integer> indexes = new IdentityHashMap<>();
+        for (int i = 0; i < centers.size(); i++) {
+            indexes.put(centers.get(i), i);
+        }
+        
+        int count = centers.size();
+        int[][] nextIndexes = new int[count][];
+        int[] previousCounts = new int[count];
+        for (int i = 0; i < count; i++) {
+            List<ProductionCenter> nextCenters = centers.get(i).getNextCenters();
+            nextIndexes[i] = new int[nextCenters.size()];
+            for (int k = 0; k < nextCenters.size(); k++) {
+                Integer next = indexes.get(nextCenters.get(k));
+                if (next == null) {
+                    return null;
+                }
+                nextIndexes[i][k] = next;
+                previousCounts[next]++;
+            }
+        }
+        
+        // Предыдущие центры по возрастанию индекса, без повторов
+        int[][] previous = new int[count][];
+        for (int j = 0; j < count; j++) {
+            previous[j] = new int[previousCounts[j]];
+            previousCounts[j] = 0;
+        }
+        for (int i = 0; i < count; i++) {
+            for (int next : nextIndexes[i]) {
+                int size = previousCounts[next];
+                if (size == 0 || previous[next][size - 1] != i) {
+                    previous[next][previousCounts[next]++] = i;
+                }
+            }
+        }
+        for (int j = 0; j < count; j++) {
+            previous[j] = Arrays.copyOf(previous[j], previousCounts[j]);
+        }
+        
+        return new ParallelStep(centers.toArray(new ProductionCenter[0]), nextIndexes, previous);
+    }
+    
+    /**
+     * Выполняет шаг processDetails(currentTime) для всех центров. Если
+     * порция центров одна или в пуле один поток (см. parallelism()), фазы
+     * только добавили бы накладные расходы, и центры обходятся последовательно.
+     */
+    void process(double currentTime) {
+        if (chunkCount() > 1 && parallelism() > 1) {
+            processInPhases(currentTime);
+        } else {
+            for (ProductionCenter center : centers) {
+                center.processDetails(currentTime);
+            }
+        }
+    }
+    
+    /**
+     * Выполняет шаг в две фазы независимо от количества потоков.
+     */
+    void processInPhases(double currentTime) {
+        forEachChunk(chunk -> {
+            int end = Math.min(centers.length, (chunk + 1) * CHUNK_SIZE);
+            for (int i = chunk * CHUNK_SIZE; i < end; i++) {
+                centers[i].addWorkTime(1.0);
+                completed[i] = centers[i].completeDetails(currentTime, outgoing[i]);
+            }
+        });
+        
+        forEachChunk(chunk -> {
+            int end = Math.min(centers.length, (chunk + 1) * CHUNK_SIZE);
+            for (int j = chunk * CHUNK_SIZE; j < end; j++) {
+                boolean arrived = false;
+                int k = 0;
+                for (; k < previous[j].length && previous[j][k] <= j; k++) {
+                    arrived |= receive(previous[j][k], j);
+                }
+                started[j] = centers[j].startDetails(currentTime);
+                for (; k < previous[j].length; k++) {
+                    arrived |= receive(previous[j][k], j);
+                }
+                received[j] = arrived;
+            }
+        });
+        
+        for (int i = 0; i < centers.length; i++) {
+            centers[i].notifyChanged(received[i] || started[i], completed[i] || started[i]);
+            outgoing[i].clear();
+        }
+    }
+    
+    /**
+     * Параллельный поток выполняется в ForkJoinPool, из потока которого запущен
+     * шаг, а вне пула - в общем ForkJoinPool.
+     */
+    private static int parallelism() {
+        ForkJoinPool pool = ForkJoinTask.getPool();
+        return pool != null ? pool.getParallelism() : ForkJoinPool.getCommonPoolParallelism();
+    }
+    
+    private int chunkCount() {
+        return (centers.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    }
+    
+    /**
+     * Выполняет фазу по порциям центров: параллельно, если порций несколько
+     * и в пуле больше одного потока, иначе в текущем потоке.
+     */
+    private void forEachChunk(IntConsumer phase) {
+        int chunks = chunkCount();
+        if (chunks > 1 && parallelism() > 1) {
+            IntStream.range(0, chunks).parallel().forEach(phase);
+        } else {
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                phase.accept(chunk);
+            }
+        }
+    }
+    
+    /**
+     * Принимает в центр target детали, которые центр source отправил ему в фазе 1.
+     */
+    private boolean receive(int source, int target) {
+        IntQueue details = outgoing[source];
+        boolean any = false;
+        for (int k = 0; k < details.size(); k += 2) {
+            if (nextIndexes[source][details.get(k + 1)] == target) {
+                centers[target].receiveDetail(details.get(k));
+                any = true;
+            }
+        }
+        return any;
+    }
+}
@@ -0,0 +1,27 @@
+package model;
+
+import java.util.Random;
+
+/**
+ * Пуассоновский поток: промежуток до следующей детали -ln(1 - U) / rate,
+ * где U равномерно распределено на [0, 1).
+ */
+final class PoissonArrivals implements ArrivalProcess {
+    private final double rate;
+    private final Random random;
+    private double time;
+    
+    PoissonArrivals(double rate, long seed) {
+        if (!(rate > 0) || Double.isInfinite(rate)) {
+            throw new IllegalArgumentException("Arrival rate must be positive: " + rate);
+        }
+        this.rate = rate;
+        this.random = new Random(seed);
+    }
+    
+    @Override
+    public double nextArrival() {
+        time += -Math.log(1 - random.nextDouble()) / rate;
+        return time;
+    }
+}
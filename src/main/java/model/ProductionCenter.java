@@ -1,33 +1,40 @@
 package model;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Queue;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.logging.Logger;
 
 /**
  * Представляет производственный центр в системе.
  * Обрабатывает детали с помощью назначенных рабочих.
  */
 public class ProductionCenter {
-    private static final Logger logger = Logger.getLogger(ProductionCenter.class.getName());
-    
     private String name;
     private double processingTime;
     private int maxWorkers;
-    private Queue<Detail> buffer;
+    // Буфер хранит только идентификаторы деталей
+    private IntQueue buffer;
     private List<ProductionCenter> nextCenters;
     private int currentWorkers;
     private boolean isInitial;
     private boolean isFinal;
     
-    // Храним информацию о деталях в обработке
-    private Map<Detail, Double> detailsInProcess;
+    // Храним информацию о деталях в обработке (в порядке запуска)
+    private InProcessQueue detailsInProcess;
     private int nextCenterIndex; // Для равномерного распределения деталей
     
+    // Индекс приоритетов линии, которому сообщаем об изменении буфера
+    private CenterPriorityIndex priorityIndex;
+    private int indexInLine;
+    
+    // Центры к обработке в событийном режиме (null вне событийной симуляции)
+    private CenterWorklist worklist;
+    
+    // Трасса завершения деталей (null - трасса отключена)
+    private CompletionTrace trace;
+    
+    // Показатели установившегося режима (null - не ведутся)
+    private SteadyStateMonitor monitor;
+    
     // Статистика
     private int totalDetailsProcessed;
     private int maxBufferSize;
@@ -38,12 +45,12 @@ public class ProductionCenter {
         this.name = name;
         this.processingTime = processingTime;
         this.maxWorkers = maxWorkers;
-        this.buffer = new LinkedList<>();
+        this.buffer = new IntQueue();
         this.nextCenters = new ArrayList<>();
         this.currentWorkers = 0;
         this.isInitial = false;
         this.isFinal = false;
-        this.detailsInProcess = new HashMap<>();
+        this.detailsInProcess = new InProcessQueue(maxWorkers);
         this.nextCenterIndex = 0;
         
         this.totalDetailsProcessed = 0;
@@ -65,6 +72,10 @@ public class ProductionCenter {
         return maxWorkers;
     }
     
+    public void setMaxWorkers(int maxWorkers) {
+        this.maxWorkers = maxWorkers;
+    }
+    
     public int getCurrentWorkers() {
         return currentWorkers;
     }
@@ -94,7 +105,31 @@ public class ProductionCenter {
     }
     
     public void addDetailToBuffer(Detail detail) {
-        buffer.add(detail);
+        addDetailToBuffer(detail.getId());
+    }
+    
+    /**
+     * Добавляет деталь в буфер по идентификатору, не создавая объект Detail.
+     *
+     * @param detailId идентификатор детали
+     */
+    public void addDetailToBuffer(int detailId) {
+        buffer.add(detailId);
+        bufferChanged();
+    }
+    
+    /**
+     * Возвращает детали, ожидающие в буфере, в порядке очереди.
+     * Объекты Detail создаются только при вызове этого метода.
+     *
+     * @return копия содержимого буфера
+     */
+    public List<Detail> getBufferedDetails() {
+        List<Detail> details = new ArrayList<>(buffer.size());
+        for (int i = 0; i < buffer.size(); i++) {
+            details.add(new Detail(buffer.get(i)));
+        }
+        return details;
     }
     
     public int getBufferSize() {
@@ -102,45 +137,224 @@ public class ProductionCenter {
     }
     
     public void processDetails(double currentTime) {
-        this.simulationTime = currentTime;
-        maxBufferSize = Math.max(maxBufferSize, buffer.size());
-        
+        addWorkTime(1.0);
+        completeAndStartDetails(currentTime);
+    }
+    
+    /**
+     * Засчитывает время работы центра, если на нём есть рабочие.
+     *
+     * @param duration прошедшее время в минутах
+     */
+    public void addWorkTime(double duration) {
         if (currentWorkers > 0) {
-            totalWorkTime += 1.0;
+            totalWorkTime += duration;
+        }
+    }
+    
+    /**
+     * Завершает детали, время обработки которых истекло к моменту currentTime,
+     * и запускает новые детали из буфера на свободных рабочих.
+     * Время между вызовами не должно убывать.
+     *
+     * @param currentTime текущее время симуляции
+     * @return true, если хотя бы одна деталь была завершена или запущена
+     */
+    public boolean completeAndStartDetails(double currentTime) {
+        boolean changed = completeDetails(currentTime, null);
+        boolean started = startDetails(currentTime);
+        if (started) {
+            bufferChanged();
+        }
+        if ((changed || started) && priorityIndex != null) {
+            priorityIndex.markInProcessChanged(indexInLine);
         }
         
-        // Завершаем обработку готовых деталей
-        List<Detail> completedDetails = new ArrayList<>();
-        detailsInProcess.forEach((detail, startTime) -> {
-            if (currentTime - startTime >= processingTime) {
-                completedDetails.add(detail);
-                totalDetailsProcessed++;
-                logger.fine(String.format("Center %s completed detail %d at time %.1f",
-                    name, detail.getId(), currentTime));
+        return changed || started;
+    }
+    
+    /**
+     * Завершает обработку готовых деталей. Если outgoing задан, детали
+     * не передаются дальше, а записываются в него парами (деталь, позиция
+     * следующего центра в getNextCenters()) - так их передаёт ParallelStep.
+     *
+     * @return true, если хотя бы одна деталь была завершена
+     */
+    boolean completeDetails(double currentTime, IntQueue outgoing) {
+        boolean changed = false;
+        while (!detailsInProcess.isEmpty()
+                && currentTime >= detailsInProcess.peekStartTime() + processingTime) {
+            double startTime = detailsInProcess.peekStartTime();
+            int detailId = detailsInProcess.poll();
+            totalDetailsProcessed++;
+            changed = true;
+            if (trace != null) {
+                trace.record(indexInLine, detailId, startTime, currentTime);
             }
-        });
-        
-        // Отправляем готовые детали в следующие центры
-        for (Detail detail : completedDetails) {
-            detailsInProcess.remove(detail);
             if (!isFinal) {
-                sendDetailToNextCenter(detail);
+                sendDetailToNextCenter(detailId, outgoing);
+            }
+            if (monitor != null && (isFinal || nextCenters.isEmpty())) {
+                monitor.completed(detailId, currentTime);
             }
         }
+        return changed;
+    }
+    
+    /**
+     * Начинает обработку деталей из буфера на свободных рабочих.
+     * Индекс приоритетов не уведомляется - это делает вызывающий код.
+     *
+     * @return true, если хотя бы одна деталь была запущена
+     */
+    boolean startDetails(double currentTime) {
+        this.simulationTime = currentTime;
+        maxBufferSize = Math.max(maxBufferSize, buffer.size());
         
-        // Начинаем обработку новых деталей
+        boolean started = false;
         while (detailsInProcess.size() < currentWorkers && !buffer.isEmpty()) {
-            Detail detail = buffer.poll();
-            detailsInProcess.put(detail, currentTime);
+            detailsInProcess.add(buffer.poll(), currentTime);
+            started = true;
+        }
+        return started;
+    }
+    
+    /**
+     * Добавляет деталь в буфер без уведомления индекса приоритетов.
+     */
+    void receiveDetail(int detailId) {
+        buffer.add(detailId);
+    }
+    
+    /**
+     * Уведомляет индекс приоритетов об изменениях, накопленных без уведомления.
+     */
+    void notifyChanged(boolean bufferChanged, boolean inProcessChanged) {
+        if (bufferChanged) {
+            bufferChanged();
+        }
+        if (inProcessChanged && priorityIndex != null) {
+            priorityIndex.markInProcessChanged(indexInLine);
+        }
+    }
+    
+    /**
+     * Возвращает центр в исходное состояние перед новым прогоном:
+     * буфер и детали в обработке очищаются, статистика обнуляется.
+     * Связи с другими центрами сохраняются.
+     *
+     * @param maxWorkers максимальное количество рабочих для нового прогона
+     */
+    public void reset(int maxWorkers) {
+        this.maxWorkers = maxWorkers;
+        buffer.clear();
+        detailsInProcess.clear();
+        bufferChanged();
+        currentWorkers = 0;
+        nextCenterIndex = 0;
+        
+        totalDetailsProcessed = 0;
+        maxBufferSize = 0;
+        totalWorkTime = 0;
+        simulationTime = 0;
+    }
+    
+    /**
+     * Копирует состояние центра в снимок; поля записи заполняет линия.
+     */
+    LineSnapshot.CenterState captureState() {
+        LineSnapshot.CenterState state = new LineSnapshot.CenterState();
+        state.name = name;
+        state.maxWorkers = maxWorkers;
+        state.currentWorkers = currentWorkers;
+        state.nextCenterIndex = nextCenterIndex;
+        state.buffer = buffer.toArray();
+        state.inProcessIds = new int[detailsInProcess.size()];
+        state.inProcessStartTimes = new double[detailsInProcess.size()];
+        for (int i = 0; i < detailsInProcess.size(); i++) {
+            state.inProcessIds[i] = detailsInProcess.getDetailId(i);
+            state.inProcessStartTimes[i] = detailsInProcess.getStartTime(i);
+        }
+        state.totalDetailsProcessed = totalDetailsProcessed;
+        state.maxBufferSize = maxBufferSize;
+        state.totalWorkTime = totalWorkTime;
+        state.simulationTime = simulationTime;
+        return state;
+    }
+    
+    /**
+     * Заменяет состояние центра состоянием из снимка. Связи с другими
+     * центрами сохраняются.
+     */
+    void restoreState(LineSnapshot.CenterState state) {
+        maxWorkers = state.maxWorkers;
+        currentWorkers = state.currentWorkers;
+        nextCenterIndex = state.nextCenterIndex;
+        buffer.clear();
+        for (int detailId : state.buffer) {
+            buffer.add(detailId);
         }
+        detailsInProcess.clear();
+        for (int i = 0; i < state.inProcessIds.length; i++) {
+            detailsInProcess.add(state.inProcessIds[i], state.inProcessStartTimes[i]);
+        }
+        bufferChanged();
+        
+        totalDetailsProcessed = state.totalDetailsProcessed;
+        maxBufferSize = state.maxBufferSize;
+        totalWorkTime = state.totalWorkTime;
+        simulationTime = state.simulationTime;
+    }
+    
+    void attachPriorityIndex(CenterPriorityIndex priorityIndex, int indexInLine) {
+        this.priorityIndex = priorityIndex;
+        this.indexInLine = indexInLine;
     }
     
-    private void sendDetailToNextCenter(Detail detail) {
+    void attachWorklist(CenterWorklist worklist) {
+        this.worklist = worklist;
+    }
+    
+    void attachTrace(CompletionTrace trace, int indexInLine) {
+        this.trace = trace;
+        this.indexInLine = indexInLine;
+    }
+    
+    void attachMonitor(SteadyStateMonitor monitor) {
+        this.monitor = monitor;
+    }
+    
+    private void bufferChanged() {
+        if (priorityIndex != null) {
+            priorityIndex.markChanged(indexInLine);
+        }
+        if (worklist != null) {
+            worklist.mark(indexInLine);
+        }
+    }
+    
+    /**
+     * Возвращает момент завершения ближайшей детали в обработке.
+     *
+     * @return время завершения или Double.POSITIVE_INFINITY, если центр простаивает
+     */
+    public double getNextCompletionTime() {
+        if (detailsInProcess.isEmpty()) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return detailsInProcess.peekStartTime() + processingTime;
+    }
+    
+    private void sendDetailToNextCenter(int detailId, IntQueue outgoing) {
         if (nextCenters.isEmpty()) return;
         
         // Распределяем детали равномерно между следующими центрами
-        ProductionCenter nextCenter = nextCenters.get(nextCenterIndex);
-        nextCenter.addDetailToBuffer(detail);
+        if (outgoing == null) {
+            nextCenters.get(nextCenterIndex).addDetailToBuffer(detailId);
+        } else {
+            outgoing.add(detailId);
+            outgoing.add(nextCenterIndex);
+        }
         
         nextCenterIndex = (nextCenterIndex + 1) % nextCenters.size();
     }
@@ -180,7 +394,7 @@ public class ProductionCenter {
             totalWorkTime
         );
     }
-
+    
     /**
      * Вычисляет приоритет центра для распределения рабочих.
      * Приоритет основан на размере буфера и времени обработки.
@@ -190,7 +404,7 @@ public class ProductionCenter {
     public double calculatePriority() {
         return getBufferSize() * processingTime;
     }
-
+    
     /**
      * Возвращает оптимальное количество рабочих для текущего состояния центра.
      * Учитывает размер буфера и максимальное количество рабочих.
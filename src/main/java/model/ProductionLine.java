@@ -1,108 +1,1012 @@
 package model;
 
-import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
 
 public class ProductionLine {
     private final List<ProductionCenter> centers;
-    private final int totalWorkers;
+    private int totalWorkers;
     private double currentTime;
-    private List<ProductionEvent> events;
+    private final EventStore eventLog;
+    private final List<EventSink> eventSinks;
+    private SimulationMode mode;
+    
+    // Топология, из которой создана линия (null, если центры переданы напрямую)
+    private LineTopology topology;
+    
+    // Запись только изменившихся состояний центров
+    private boolean recordChangesOnly;
+    private int[] recordedWorkers;
+    private int[] recordedBuffers;
+    private double[] recordedTimes;
+    
+    // Стратегия распределения рабочих, индекс приоритетов центров
+    // и центры, которым назначены рабочие
+    private WorkerAllocationStrategy allocationStrategy;
+    private CenterPriorityIndex priorityIndex;
+    private int[] staffedCenters;
+    private boolean[] isStaffed;
+    private int staffedCount;
+    
+    // Двухфазный параллельный шаг режима TICK (null - последовательный обход)
+    private boolean parallelStep;
+    private ParallelStep step;
+    
+    // Событийный режим: центры к обработке и количество запланированных завершений
+    private CenterWorklist worklist;
+    private int scheduledCount;
+    
+    // Счётчики и таймеры (null - замеры отключены)
+    private SimulationMetrics metrics;
+    
+    // Трасса завершения деталей (null - трасса отключена)
+    private CompletionTrace trace;
+    
+    // Снимки по ходу прогона (null - снимки отключены) и время следующего снимка
+    private Consumer<LineSnapshot> checkpointHandler;
+    private double checkpointInterval;
+    private double nextCheckpoint;
+    
+    // Следующий прогон продолжает прогон, приостановленный simulateUntil()
+    // или восстановленный из снимка, и момент приостановки текущего прогона
+    private boolean resuming;
+    private long recordedEvents;
+    private double stopTime;
+    
+    // Поступление деталей в начальный центр (null - только детали, уже
+    // находящиеся в линии), время следующего поступления и идентификатор
+    // следующей детали; started - поток начат в текущем прогоне
+    private ArrivalProcess arrivals;
+    private ProductionCenter arrivalCenter;
+    private boolean arrivalsStarted;
+    private double nextArrival = Double.POSITIVE_INFINITY;
+    private int nextDetailId;
+    
+    // Показатели установившегося режима (null - не ведутся)
+    private SteadyStateMonitor monitor;
+    private boolean monitorStarted;
     
     public ProductionLine(Collection<ProductionCenter> centers, int totalWorkers) {
         this.centers = new ArrayList<>(centers);
         this.totalWorkers = totalWorkers;
         this.currentTime = 0.0;
-        this.events = new ArrayList<>();
+        this.eventLog = new EventStore();
+        this.eventSinks = new ArrayList<>();
+        this.eventSinks.add(eventLog);
+        this.mode = SimulationMode.EVENT;
+        this.allocationStrategy = AllocationPolicy.GREEDY.create();
+    }
+    
+    ProductionLine(LineTopology topology) {
+        this(topology, topology.getDetailsCount());
+    }
+    
+    /**
+     * Линия по топологии с detailsCount деталями в начальном центре;
+     * 0 - для линий, состояние которых сразу заменяется снимком.
+     */
+    ProductionLine(LineTopology topology, int detailsCount) {
+        this(createCenters(topology), topology.getTotalWorkers());
+        this.topology = topology;
+        seedInitialCenter(detailsCount);
+    }
+    
+    private static List<ProductionCenter> createCenters(LineTopology topology) {
+        List<ProductionCenter> centers = new ArrayList<>(topology.getCenterCount());
+        for (int i = 0; i < topology.getCenterCount(); i++) {
+            ProductionCenter center = new ProductionCenter(
+                topology.getName(i), topology.getProcessingTime(i), topology.getMaxWorkers(i));
+            center.setInitial(i == topology.getInitialCenter());
+            center.setFinal(topology.isFinal(i));
+            centers.add(center);
+        }
+        for (int i = 0; i < topology.getCenterCount(); i++) {
+            for (int k = 0; k < topology.getNextCount(i); k++) {
+                centers.get(i).addNextCenter(centers.get(topology.getNextCenter(i, k)));
+            }
+        }
+        return centers;
+    }
+    
+    private void seedInitialCenter(int detailsCount) {
+        if (topology.getInitialCenter() >= 0) {
+            ProductionCenter initial = centers.get(topology.getInitialCenter());
+            for (int i = 0; i < detailsCount; i++) {
+                initial.addDetailToBuffer(i);
+            }
+        }
+    }
+    
+    /**
+     * Возвращает линию в начальное состояние с параметрами топологии,
+     * не пересоздавая центры и связи между ними.
+     */
+    public void reset() {
+        if (topology == null) {
+            throw new IllegalStateException("Only lines created from a LineTopology can be reset");
+        }
+        reset(topology.getTotalWorkers(), topology.getDetailsCount());
+    }
+    
+    /**
+     * Возвращает линию в начальное состояние с другим количеством рабочих и деталей.
+     * Максимальное количество рабочих центров восстанавливается из топологии.
+     */
+    public void reset(int totalWorkers, int detailsCount) {
+        if (topology == null) {
+            throw new IllegalStateException("Only lines created from a LineTopology can be reset");
+        }
+        this.totalWorkers = totalWorkers;
+        this.currentTime = 0.0;
+        this.resuming = false;
+        eventLog.clear();
+        for (int i = 0; i < centers.size(); i++) {
+            centers.get(i).reset(topology.getMaxWorkers(i));
+        }
+        seedInitialCenter(detailsCount);
+    }
+    
+    LineTopology getTopology() {
+        return topology;
+    }
+    
+    public int getTotalWorkers() {
+        return totalWorkers;
+    }
+    
+    /**
+     * Задаёт общее количество рабочих; в приостановленном прогоне
+     * действует с момента приостановки.
+     */
+    public void setTotalWorkers(int totalWorkers) {
+        this.totalWorkers = totalWorkers;
+    }
+    
+    public SimulationMode getMode() {
+        return mode;
+    }
+    
+    public void setMode(SimulationMode mode) {
+        this.mode = mode;
+    }
+    
+    public WorkerAllocationStrategy getAllocationStrategy() {
+        return allocationStrategy;
+    }
+    
+    /**
+     * Задаёт стратегию распределения рабочих для следующих прогонов.
+     * Экземпляр стратегии не должен использоваться другими линиями.
+     */
+    public void setAllocationStrategy(WorkerAllocationStrategy allocationStrategy) {
+        this.allocationStrategy = allocationStrategy;
+    }
+    
+    public boolean isParallelStep() {
+        return parallelStep;
+    }
+    
+    /**
+     * Включает обработку центров на нескольких ядрах в режиме TICK
+     * (см. ParallelStep). Результат совпадает с последовательным обходом.
+     * Шаг остаётся последовательным, если:
+     * - режим EVENT: за один проход обрабатываются только изменившиеся центры;
+     * - подключён CompletionTrace или SteadyStateMonitor: они получают
+     *   завершения деталей в порядке обхода из одного потока;
+     * - детали могут уходить в центры вне линии (ParallelStep.create());
+     * - порция центров одна или в пуле один поток (ParallelStep.process()).
+     */
+    public void setParallelStep(boolean parallelStep) {
+        this.parallelStep = parallelStep;
+    }
+    
+    public SimulationMetrics getMetrics() {
+        return metrics;
+    }
+    
+    /**
+     * Подключает счётчики и таймеры к следующим прогонам; null отключает замеры.
+     */
+    public void setMetrics(SimulationMetrics metrics) {
+        this.metrics = metrics;
+    }
+    
+    public CompletionTrace getCompletionTrace() {
+        return trace;
+    }
+    
+    /**
+     * Подключает трассу завершения деталей; null отключает её. Трасса
+     * очищается в начале каждого прогона. С трассой режим TICK не использует
+     * параллельный шаг, чтобы записи шли в порядке последовательного обхода.
+     */
+    public void setCompletionTrace(CompletionTrace trace) {
+        this.trace = trace;
+        String[] names = new String[centers.size()];
+        for (int i = 0; i < centers.size(); i++) {
+            centers.get(i).attachTrace(trace, i);
+            names[i] = centers.get(i).getName();
+        }
+        if (trace != null) {
+            trace.setCenterNames(names);
+        }
+    }
+    
+    public ArrivalProcess getArrivals() {
+        return arrivals;
+    }
+    
+    /**
+     * Подключает поступление деталей в начальный центр; null отключает его.
+     * Детали поступают в буфер начального центра в момент поступления
+     * (в режиме TICK - в начале первой минуты не раньше него) и получают
+     * идентификаторы после наибольшего идентификатора в линии на начало
+     * прогона. Прогон завершается, когда поток закончился и все детали
+     * обработаны, поэтому длительность прогона с бесконечным потоком
+     * задаёт simulateUntil().
+     *
+     * Состояние потока в снимки не входит, поэтому вместе с setCheckpoints()
+     * поступления не поддерживаются.
+     */
+    public void setArrivals(ArrivalProcess arrivals) {
+        ProductionCenter initial = null;
+        if (arrivals != null) {
+            for (ProductionCenter center : centers) {
+                if (center.isInitial()) {
+                    initial = center;
+                    break;
+                }
+            }
+            if (initial == null) {
+                throw new IllegalArgumentException("Arrivals require an initial center");
+            }
+        }
+        this.arrivals = arrivals;
+        this.arrivalCenter = initial;
+        this.arrivalsStarted = false;
+        this.nextArrival = Double.POSITIVE_INFINITY;
+    }
+    
+    public SteadyStateMonitor getSteadyStateMonitor() {
+        return monitor;
+    }
+    
+    /**
+     * Подключает показатели установившегося режима; null отключает их.
+     * Окно показателей начинается заново в начале каждого прогона, а при
+     * продолжении приостановленного прогона - продолжается.
+     */
+    public void setSteadyStateMonitor(SteadyStateMonitor monitor) {
+        this.monitor = monitor;
+        this.monitorStarted = false;
+        for (ProductionCenter center : centers) {
+            center.attachMonitor(monitor);
+        }
+    }
+    
+    public boolean isRecordChangesOnly() {
+        return recordChangesOnly;
+    }
+    
+    /**
+     * Включает дельта-запись: состояние центра записывается, только когда
+     * изменилось количество рабочих или деталей в буфере. В первый и последний
+     * момент симуляции записываются все центры, поэтому плотную запись
+     * можно восстановить (см. util.DeltaCsvExpander).
+     */
+    public void setRecordChangesOnly(boolean recordChangesOnly) {
+        this.recordChangesOnly = recordChangesOnly;
+    }
+    
+    /**
+     * Включает снимки состояния по ходу прогона: каждый раз, когда время
+     * симуляции достигает следующего кратного interval, получатели событий
+     * сбрасываются и handler получает снимок. Из снимка прогон можно
+     * продолжить через restore(). null отключает снимки.
+     *
+     * Снимок копирует только текущее состояние центров, поэтому его
+     * стоимость не зависит от времени, прошедшего с начала прогона.
+     */
+    public void setCheckpoints(double interval, Consumer<LineSnapshot> handler) {
+        if (handler != null && !(interval > 0)) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive");
+        }
+        this.checkpointInterval = interval;
+        this.checkpointHandler = handler;
+    }
+    
+    /**
+     * @return снимок текущего состояния. Снимок приостановленного прогона
+     *         (см. simulateUntil()) продолжает этот прогон, иначе задаёт
+     *         начальное состояние нового прогона
+     */
+    public LineSnapshot snapshot() {
+        return captureSnapshot(resuming);
+    }
+    
+    private LineSnapshot captureSnapshot(boolean inProgress) {
+        LineSnapshot.CenterState[] states = new LineSnapshot.CenterState[centers.size()];
+        for (int i = 0; i < centers.size(); i++) {
+            states[i] = centers.get(i).captureState();
+            if (inProgress) {
+                states[i].recordedWorkers = recordedWorkers[i];
+                states[i].recordedBuffer = recordedBuffers[i];
+                states[i].recordedTime = recordedTimes[i];
+            }
+        }
+        return new LineSnapshot(mode, recordChangesOnly, strategyName(allocationStrategy), inProgress,
+            currentTime, totalWorkers, inProgress ? recordedEvents : 0, states);
+    }
+    
+    /**
+     * @return имя встроенной политики или класса своей стратегии
+     */
+    private static String strategyName(WorkerAllocationStrategy strategy) {
+        AllocationPolicy policy = AllocationPolicy.of(strategy);
+        return policy != null ? policy.name() : strategy.getClass().getName();
+    }
+    
+    /**
+     * Заменяет состояние линии состоянием из снимка. Если снимок сделан
+     * во время прогона, линия становится приостановленной (см. simulateUntil()):
+     * следующий simulate() продолжает тот прогон в режиме снимка и записывает
+     * те же события, что и непрерывный прогон после момента снимка.
+     * Для этого такой снимок восстанавливает и настройки прогона: режим,
+     * дельта-запись и встроенную стратегию распределения рабочих. Своя
+     * стратегия снимка не восстанавливается - у линии должна быть стратегия
+     * того же класса. Центры линии должны совпадать с центрами снимка.
+     */
+    public void restore(LineSnapshot snapshot) {
+        if (snapshot.centers.length != centers.size()) {
+            throw new IllegalArgumentException("Snapshot has " + snapshot.centers.length
+                + " centers, the line has " + centers.size());
+        }
+        for (int i = 0; i < centers.size(); i++) {
+            if (!centers.get(i).getName().equals(snapshot.centers[i].name)) {
+                throw new IllegalArgumentException("Snapshot does not match the line: center " + i
+                    + " is " + snapshot.centers[i].name + " in the snapshot and "
+                    + centers.get(i).getName() + " in the line");
+            }
+        }
+        AllocationPolicy policy = null;
+        if (snapshot.inProgress && !snapshot.strategy.equals(strategyName(allocationStrategy))) {
+            try {
+                policy = AllocationPolicy.valueOf(snapshot.strategy);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Snapshot was taken with allocation strategy "
+                    + snapshot.strategy + ", the line uses " + strategyName(allocationStrategy));
+            }
+        }
+        
+        totalWorkers = snapshot.totalWorkers;
+        currentTime = snapshot.currentTime;
+        for (int i = 0; i < centers.size(); i++) {
+            centers.get(i).restoreState(snapshot.centers[i]);
+        }
+        resuming = snapshot.inProgress;
+        if (resuming) {
+            mode = snapshot.mode;
+            recordChangesOnly = snapshot.recordChangesOnly;
+            if (policy != null) {
+                allocationStrategy = policy.create();
+            }
+            recordedEvents = snapshot.recordedEvents;
+            initRecording();
+            for (int i = 0; i < centers.size(); i++) {
+                recordedWorkers[i] = snapshot.centers[i].recordedWorkers;
+                recordedBuffers[i] = snapshot.centers[i].recordedBuffer;
+                recordedTimes[i] = snapshot.centers[i].recordedTime;
+            }
+        }
     }
     
     public void simulate() {
+        simulateUntil(Double.POSITIVE_INFINITY);
+    }
+    
+    /**
+     * Симулирует до момента time и приостанавливает прогон в начале шага,
+     * на котором время достигло time (в режиме EVENT - в момент первого
+     * события не раньше time). Приостановленную линию можно изменить
+     * (setTotalWorkers(), ProductionCenter.setMaxWorkers(), addDetailToBuffer())
+     * или снять с неё снимок; следующий simulate() или simulateUntil()
+     * продолжает прогон с этого момента. Без изменений продолжение
+     * записывает те же события, что и непрерывный прогон.
+     *
+     * @return true, если прогон завершён, false - если приостановлен
+     */
+    public boolean simulateUntil(double time) {
+        if (arrivals != null && checkpointHandler != null) {
+            throw new IllegalStateException("Checkpoints do not support arrivals: the arrival process is not part of a snapshot");
+        }
+        long movedBefore = metrics != null ? countDetailsMoved() : 0;
+        boolean resume = resuming;
+        resuming = false;
+        if (trace != null && !resume) {
+            trace.clear();
+        }
+        if (arrivals != null && (!resume || !arrivalsStarted)) {
+            startArrivals();
+        }
+        if (monitor != null && (!resume || !monitorStarted)) {
+            monitor.start(currentTime, countDetailsInLine());
+            monitorStarted = true;
+        }
+        initWorkerDistribution();
+        if (!resume) {
+            initRecording();
+            recordedEvents = 0;
+        }
+        stopTime = time;
+        nextCheckpoint = checkpointHandler != null ? nextCheckpointTime() : Double.POSITIVE_INFINITY;
+        boolean complete;
+        if (mode == SimulationMode.TICK) {
+            complete = simulateTicks();
+        } else {
+            complete = simulateEvents(resume);
+        }
+        long start = startTimer();
+        if (complete && recordChangesOnly) {
+            saveFinalState();
+        }
+        resuming = !complete;
+        flushEventSinks();
+        if (metrics != null) {
+            metrics.addRecordingNanos(System.nanoTime() - start);
+            metrics.addDetailsMoved(countDetailsMoved() - movedBefore);
+        }
+        return complete;
+    }
+    
+    private void startArrivals() {
+        nextDetailId = captureSnapshot(false).maxDetailId() + 1;
+        nextArrival = arrivals.nextArrival();
+        arrivalsStarted = true;
+    }
+    
+    /**
+     * Добавляет в буфер начального центра детали, поступившие к текущему моменту.
+     */
+    private void admitArrivals() {
+        while (nextArrival <= currentTime) {
+            int detailId = nextDetailId++;
+            arrivalCenter.addDetailToBuffer(detailId);
+            if (monitor != null) {
+                monitor.arrived(detailId, nextArrival, currentTime);
+            }
+            double next = arrivals.nextArrival();
+            if (!(next >= nextArrival)) {
+                throw new IllegalStateException("Arrival times must not decrease: " + next + " after " + nextArrival);
+            }
+            nextArrival = next;
+        }
+    }
+    
+    private long countDetailsInLine() {
+        long count = 0;
+        for (ProductionCenter center : centers) {
+            count += center.getBufferSize() + center.getDetailsInProcessCount();
+        }
+        return count;
+    }
+    
+    private double nextCheckpointTime() {
+        return (Math.floor(currentTime / checkpointInterval) + 1) * checkpointInterval;
+    }
+    
+    /**
+     * Передаёт снимок обработчику. Получатели событий сбрасываются заранее,
+     * чтобы записанный вывод содержал все события до снимка.
+     */
+    private void checkpoint() {
+        flushEventSinks();
+        checkpointHandler.accept(captureSnapshot(true));
+        nextCheckpoint = nextCheckpointTime();
+    }
+    
+    /**
+     * @return System.nanoTime(), если замеры включены, иначе 0 без обращения к таймеру
+     */
+    private long startTimer() {
+        return metrics != null ? System.nanoTime() : 0;
+    }
+    
+    /**
+     * Каждая деталь, завершённая не конечным центром, передаётся дальше,
+     * поэтому переданные детали считаются по счётчикам центров, а не на каждом шаге.
+     */
+    private long countDetailsMoved() {
+        long moved = 0;
+        for (ProductionCenter center : centers) {
+            if (!center.isFinal() && !center.getNextCenters().isEmpty()) {
+                moved += center.getTotalDetailsProcessed();
+            }
+        }
+        return moved;
+    }
+    
+    /**
+     * @return true, если все детали обработаны, false - если прогон приостановлен
+     */
+    private boolean simulateTicks() {
+        if (parallelStep && step == null) {
+            step = ParallelStep.create(centers);
+        }
         boolean isProcessing = true;
         
         while (isProcessing) {
+            admitArrivals();
+            if (monitor != null) {
+                monitor.advanceTo(currentTime);
+            }
+            boolean idle = !hasDetailsInProcess();
+            
             // Распределяем рабочих оптимально между центрами
+            long start = startTimer();
             optimizeWorkerDistribution();
             
             // Обрабатываем детали в каждом центре
+            long processingStart = startTimer();
             processDetailsInCenters();
             
-            // Проверяем завершение всех работ
-            isProcessing = !isProductionComplete();
+            // Проверяем завершение всех работ и поступлений
+            isProcessing = !isProductionComplete() || nextArrival != Double.POSITIVE_INFINITY;
+            
+            // Шаг без деталей в обработке ничего не запустил: следующие шаги
+            // повторят его, и оставшиеся детали никогда не будут обработаны
+            if (isProcessing && idle && nextArrival == Double.POSITIVE_INFINITY && !hasDetailsInProcess()) {
+                throw new IllegalStateException(
+                    "Simulation stalled at time " + currentTime + ": details remain but none are in process");
+            }
             
             // Увеличиваем время
             currentTime += 1.0;
             
             // Сохраняем состояние для отчета
+            long recordingStart = startTimer();
             saveCurrentState();
+            if (metrics != null) {
+                long end = System.nanoTime();
+                metrics.addAllocationNanos(processingStart - start);
+                metrics.addProcessingNanos(recordingStart - processingStart);
+                metrics.addRecordingNanos(end - recordingStart);
+                metrics.addStep();
+            }
+            if (isProcessing && currentTime >= nextCheckpoint) {
+                checkpoint();
+            }
+            if (isProcessing && currentTime >= stopTime) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Дискретно-событийная симуляция. Вместо опроса каждую минуту время
+     * переходит к ближайшему завершению детали из очереди событий.
+     * В каждый момент события рабочие перераспределяются, а центры
+     * обрабатываются до тех пор, пока детали продолжают завершаться
+     * или запускаться, чтобы переданная дальше деталь не ждала
+     * следующего события.
+     *
+     * Обрабатываются только центры из CenterWorklist: с наступившим
+     * событием, изменившимся буфером или количеством рабочих. Остальные
+     * центры в этот момент ничего не сделали бы, поэтому стоимость шага
+     * зависит от количества изменений, а не от размера линии.
+     *
+     * Поступление детали - тоже событие: время не переходит дальше
+     * следующего поступления.
+     *
+     * @param resume продолжение прогона из снимка, сделанного в начале шага
+     * @return true, если все детали обработаны, false - если прогон приостановлен
+     */
+    private boolean simulateEvents(boolean resume) {
+        PriorityQueue<CompletionEvent> queue = new PriorityQueue<>();
+        // Время, на которое запланировано событие каждого центра
+        double[] scheduled = new double[centers.size()];
+        Arrays.fill(scheduled, Double.POSITIVE_INFINITY);
+        scheduledCount = 0;
+        
+        attachWorklist();
+        try {
+            if (resume) {
+                resumeSchedule(queue, scheduled);
+            } else {
+                // В первый момент обрабатываются все центры
+                worklist.markAll();
+            }
+            while (true) {
+                admitArrivals();
+                settleCurrentTime();
+                scheduleCompletions(queue, scheduled);
+                long start = startTimer();
+                saveChangedState();
+                if (metrics != null) {
+                    metrics.addRecordingNanos(System.nanoTime() - start);
+                    metrics.addStep();
+                }
+                worklist.clearTouched();
+                
+                if (priorityIndex.isEmpty() && scheduledCount == 0 && nextArrival == Double.POSITIVE_INFINITY) {
+                    // Центры, не затронутые последними событиями, тоже
+                    // должны увидеть время окончания симуляции
+                    for (ProductionCenter center : centers) {
+                        center.completeAndStartDetails(currentTime);
+                    }
+                    return true;
+                }
+                
+                double nextTime = pollNextEvents(queue, scheduled, nextArrival);
+                if (Double.isInfinite(nextTime)) {
+                    throw new IllegalStateException(
+                        "Simulation stalled at time " + currentTime + ": details remain but none are in process");
+                }
+                
+                // Время работы копится только у центров с рабочими
+                for (int k = 0; k < staffedCount; k++) {
+                    centers.get(staffedCenters[k]).addWorkTime(nextTime - currentTime);
+                }
+                if (metrics != null && nextTime - currentTime > 1) {
+                    metrics.addTicksSkipped((long) Math.ceil(nextTime - currentTime) - 1);
+                }
+                currentTime = nextTime;
+                if (monitor != null) {
+                    monitor.advanceTo(currentTime);
+                }
+                if (currentTime >= nextCheckpoint) {
+                    checkpoint();
+                }
+                if (currentTime >= stopTime) {
+                    return false;
+                }
+            }
+        } finally {
+            detachWorklist();
+        }
+    }
+    
+    /**
+     * Восстанавливает очередь событий на момент снимка: к началу шага
+     * события этого момента уже извлечены, а их центры отмечены.
+     * Отмечаются и центры, которые могут запустить детали: без изменений
+     * после снимка таких нет, а добавленные в буфер детали должны
+     * запуститься в тот же момент.
+     */
+    private void resumeSchedule(PriorityQueue<CompletionEvent> queue, double[] scheduled) {
+        for (int i = 0; i < centers.size(); i++) {
+            ProductionCenter center = centers.get(i);
+            if (center.getBufferSize() > 0 && center.getDetailsInProcessCount() < center.getCurrentWorkers()) {
+                worklist.mark(i);
+            }
+            double next = center.getNextCompletionTime();
+            if (Double.isInfinite(next)) {
+                continue;
+            }
+            scheduled[i] = next;
+            scheduledCount++;
+            if (next == currentTime) {
+                worklist.mark(i);
+            } else {
+                queue.add(new CompletionEvent(next, i));
+            }
+        }
+    }
+    
+    private void attachWorklist() {
+        if (worklist == null || worklist.size() != centers.size()) {
+            worklist = new CenterWorklist(centers.size());
+        }
+        for (ProductionCenter center : centers) {
+            center.attachWorklist(worklist);
+        }
+    }
+    
+    private void detachWorklist() {
+        for (ProductionCenter center : centers) {
+            center.attachWorklist(null);
+        }
+        worklist.clear();
+    }
+    
+    private void settleCurrentTime() {
+        boolean changed;
+        do {
+            long start = startTimer();
+            optimizeWorkerDistribution();
+            long processingStart = startTimer();
+            changed = false;
+            worklist.startPass();
+            for (int i = worklist.nextCenter(); i >= 0; i = worklist.nextCenter()) {
+                changed |= centers.get(i).completeAndStartDetails(currentTime);
+            }
+            if (metrics != null) {
+                metrics.addAllocationNanos(processingStart - start);
+                metrics.addProcessingNanos(System.nanoTime() - processingStart);
+            }
+        } while (changed);
+    }
+    
+    private void scheduleCompletions(PriorityQueue<CompletionEvent> queue, double[] scheduled) {
+        for (int k = 0; k < worklist.getTouchedCount(); k++) {
+            int i = worklist.getTouched(k);
+            double next = centers.get(i).getNextCompletionTime();
+            if (next != scheduled[i]) {
+                if (Double.isInfinite(scheduled[i])) {
+                    scheduledCount++;
+                } else if (Double.isInfinite(next)) {
+                    scheduledCount--;
+                }
+                scheduled[i] = next;
+                if (!Double.isInfinite(next)) {
+                    queue.add(new CompletionEvent(next, i));
+                }
+            }
         }
     }
     
+    /**
+     * Извлекает все актуальные события ближайшего момента, не позже limit,
+     * и отмечает их центры для обработки.
+     *
+     * @return момент событий, limit, если до него событий нет,
+     *         или Double.POSITIVE_INFINITY, если событий нет совсем
+     */
+    private double pollNextEvents(PriorityQueue<CompletionEvent> queue, double[] scheduled, double limit) {
+        double nextTime = limit;
+        while (!queue.isEmpty()) {
+            CompletionEvent event = queue.peek();
+            // Пропускаем устаревшие события, перепланированные после запуска
+            if (event.time != scheduled[event.centerIndex]) {
+                queue.poll();
+                continue;
+            }
+            if (event.time > nextTime) {
+                break;
+            }
+            queue.poll();
+            nextTime = event.time;
+            worklist.mark(event.centerIndex);
+        }
+        return nextTime;
+    }
+    
+    private void initWorkerDistribution() {
+        allocationStrategy.prepare(centers);
+        if (priorityIndex == null || priorityIndex.getStrategy() != allocationStrategy) {
+            priorityIndex = new CenterPriorityIndex(centers, allocationStrategy);
+            staffedCenters = new int[centers.size()];
+            isStaffed = new boolean[centers.size()];
+        } else {
+            priorityIndex.reset();
+            Arrays.fill(isStaffed, false);
+        }
+        staffedCount = 0;
+        for (int i = 0; i < centers.size(); i++) {
+            if (centers.get(i).getCurrentWorkers() != 0) {
+                markStaffed(i);
+            }
+        }
+    }
+    
+    /**
+     * Распределяет рабочих по центрам в порядке убывания приоритета стратегии.
+     * Приоритеты пересчитываются только для центров, буфер которых изменился
+     * с прошлого шага, а просматриваются только центры с деталями в буфере,
+     * пока не закончатся свободные рабочие.
+     */
     private void optimizeWorkerDistribution() {
         // Распределяем рабочих на основе размера буфера и времени обработки
         int remainingWorkers = totalWorkers;
-        
-        // Сначала определяем приоритеты центров
-        List<ProductionCenter> prioritizedCenters = getPrioritizedCenters();
+        priorityIndex.refresh();
         
         // Распределяем рабочих согласно приоритетам
-        for (ProductionCenter center : prioritizedCenters) {
-            if (remainingWorkers <= 0) break;
+        priorityIndex.startTraversal();
+        for (int i = priorityIndex.nextCenter(); i >= 0; i = priorityIndex.nextCenter()) {
+            if (remainingWorkers <= 0) return;
             
-            int optimalWorkers = calculateOptimalWorkers(center, remainingWorkers);
-            center.setCurrentWorkers(optimalWorkers);
+            ProductionCenter center = centers.get(i);
+            int optimalWorkers = allocationStrategy.workers(center, remainingWorkers);
+            assignWorkers(i, optimalWorkers);
+            if (optimalWorkers != 0) {
+                markStaffed(i);
+            }
             remainingWorkers -= optimalWorkers;
         }
+        
+        // Рабочие остались - центры с пустым буфером их не получают
+        if (remainingWorkers > 0) {
+            releaseIdleCenters();
+        }
     }
     
-    private List<ProductionCenter> getPrioritizedCenters() {
-        List<ProductionCenter> prioritized = new ArrayList<>(centers);
-        prioritized.sort((c1, c2) -> {
-            // Приоритет на основе размера буфера и времени обработки
-            double priority1 = c1.getBufferSize() * c1.getProcessingTime();
-            double priority2 = c2.getBufferSize() * c2.getProcessingTime();
-            return Double.compare(priority2, priority1);
-        });
-        return prioritized;
+    private void assignWorkers(int centerIndex, int workers) {
+        ProductionCenter center = centers.get(centerIndex);
+        if (center.getCurrentWorkers() != workers) {
+            center.setCurrentWorkers(workers);
+            if (worklist != null) {
+                worklist.mark(centerIndex);
+            }
+            if (metrics != null) {
+                metrics.addWorkerReassignment();
+            }
+        }
     }
     
-    private int calculateOptimalWorkers(ProductionCenter center, int availableWorkers) {
-        int maxNeeded = Math.min(center.getMaxWorkers(), center.getBufferSize());
-        return Math.min(maxNeeded, availableWorkers);
+    private void markStaffed(int centerIndex) {
+        if (!isStaffed[centerIndex]) {
+            isStaffed[centerIndex] = true;
+            staffedCenters[staffedCount++] = centerIndex;
+        }
+    }
+    
+    private void releaseIdleCenters() {
+        int kept = 0;
+        for (int k = 0; k < staffedCount; k++) {
+            int centerIndex = staffedCenters[k];
+            ProductionCenter center = centers.get(centerIndex);
+            if (center.getBufferSize() == 0) {
+                assignWorkers(centerIndex, 0);
+            }
+            if (center.getCurrentWorkers() != 0) {
+                staffedCenters[kept++] = centerIndex;
+            } else {
+                isStaffed[centerIndex] = false;
+            }
+        }
+        staffedCount = kept;
     }
     
     private void processDetailsInCenters() {
+        if (parallelStep && step != null && trace == null && monitor == null) {
+            step.process(currentTime);
+            return;
+        }
         for (ProductionCenter center : centers) {
             center.processDetails(currentTime);
         }
     }
     
+    private boolean hasDetailsInProcess() {
+        for (ProductionCenter center : centers) {
+            if (center.getDetailsInProcessCount() != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
     private boolean isProductionComplete() {
-        return centers.stream().allMatch(center -> 
-            center.getBufferSize() == 0 && center.getDetailsInProcessCount() == 0);
+        for (ProductionCenter center : centers) {
+            if (center.getBufferSize() != 0 || center.getDetailsInProcessCount() != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private void initRecording() {
+        if (recordedWorkers == null) {
+            recordedWorkers = new int[centers.size()];
+            recordedBuffers = new int[centers.size()];
+            recordedTimes = new double[centers.size()];
+        }
+        // Первое состояние каждого центра считается изменением
+        Arrays.fill(recordedWorkers, -1);
+        Arrays.fill(recordedTimes, Double.NaN);
     }
     
     private void saveCurrentState() {
-        for (ProductionCenter center : centers) {
-            events.add(new ProductionEvent(
-                currentTime,
-                center.getName(),
-                center.getCurrentWorkers(),
-                center.getBufferSize()
-            ));
+        for (int i = 0; i < centers.size(); i++) {
+            ProductionCenter center = centers.get(i);
+            int workers = center.getCurrentWorkers();
+            int bufferSize = center.getBufferSize();
+            if (recordChangesOnly && workers == recordedWorkers[i] && bufferSize == recordedBuffers[i]) {
+                continue;
+            }
+            recordState(i, workers, bufferSize);
+        }
+    }
+    
+    /**
+     * Запись состояния в событийном режиме: при дельта-записи просматриваются
+     * только центры, затронутые в этот момент, в порядке индексов.
+     */
+    private void saveChangedState() {
+        if (eventSinks.isEmpty()) {
+            return;
+        }
+        if (!recordChangesOnly) {
+            saveCurrentState();
+            return;
+        }
+        worklist.sortTouched();
+        for (int k = 0; k < worklist.getTouchedCount(); k++) {
+            int i = worklist.getTouched(k);
+            ProductionCenter center = centers.get(i);
+            int workers = center.getCurrentWorkers();
+            int bufferSize = center.getBufferSize();
+            if (workers != recordedWorkers[i] || bufferSize != recordedBuffers[i]) {
+                recordState(i, workers, bufferSize);
+            }
         }
     }
     
+    private void saveFinalState() {
+        for (int i = 0; i < centers.size(); i++) {
+            if (recordedTimes[i] != currentTime) {
+                ProductionCenter center = centers.get(i);
+                recordState(i, center.getCurrentWorkers(), center.getBufferSize());
+            }
+        }
+    }
+    
+    private void recordState(int centerIndex, int workers, int bufferSize) {
+        recordedWorkers[centerIndex] = workers;
+        recordedBuffers[centerIndex] = bufferSize;
+        recordedTimes[centerIndex] = currentTime;
+        recordedEvents++;
+        if (metrics != null) {
+            metrics.addEventRecorded();
+        }
+        String name = centers.get(centerIndex).getName();
+        for (EventSink sink : eventSinks) {
+            sink.record(currentTime, name, workers, bufferSize);
+        }
+    }
+    
+    private void flushEventSinks() {
+        for (EventSink sink : eventSinks) {
+            sink.flush();
+        }
+    }
+    
+    /**
+     * Подключает получателя, которому состояния центров передаются по ходу симуляции.
+     */
+    public void addEventSink(EventSink sink) {
+        eventSinks.add(sink);
+    }
+    
+    /**
+     * Включает или отключает накопление событий в памяти для getEvents().
+     * Без него расход памяти не зависит от длительности симуляции.
+     */
+    public void setKeepEventsInMemory(boolean keep) {
+        eventSinks.remove(eventLog);
+        if (keep) {
+            eventSinks.add(0, eventLog);
+        }
+    }
+    
+    /**
+     * @return события, накопленные в памяти, как список; объекты ProductionEvent
+     *         создаются при обращении к элементам (см. getEventStore())
+     */
     public List<ProductionEvent> getEvents() {
-        return events;
+        return eventLog.asList();
+    }
+    
+    /**
+     * @return события, накопленные в памяти, с доступом к значениям без создания объектов
+     */
+    public EventStore getEventStore() {
+        return eventLog;
     }
     
     public double getTotalTime() {
         return currentTime;
     }
     
+    public ProductionCenter getCenter(int index) {
+        return centers.get(index);
+    }
+    
     public Collection<ProductionCenter> getCenters() {
         return Collections.unmodifiableList(centers);
     }
@@ -120,4 +1024,23 @@ public class ProductionLine {
         stats.append(String.format("Total details processed: %d\n", totalProcessed));
         return stats.toString();
     }
+    
+    /**
+     * Событие завершения ближайшей детали в центре.
+     */
+    private static final class CompletionEvent implements Comparable<CompletionEvent> {
+        private final double time;
+        private final int centerIndex;
+        
+        CompletionEvent(double time, int centerIndex) {
+            this.time = time;
+            this.centerIndex = centerIndex;
+        }
+        
+        @Override
+        public int compareTo(CompletionEvent other) {
+            int result = Double.compare(time, other.time);
+            return result != 0 ? result : Integer.compare(centerIndex, other.centerIndex);
+        }
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,209 @@
+package model;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Счётчики и таймеры симуляции: время распределения рабочих, обработки
+ * деталей, записи состояний и вывода результатов, а также количество шагов,
+ * пропущенных минут, перестановок рабочих и переданных деталей.
+ *
+ * Подключается через ProductionLine.setMetrics(). Без неё линия не вызывает
+ * System.nanoTime() и не обновляет счётчики: все замеры стоят за проверкой
+ * на null. Показатели накапливаются между прогонами до reset(). Счётчики
+ * обновляет только поток симуляции, поэтому через JMX во время прогона
+ * значения могут немного отставать.
+ */
+public final class SimulationMetrics implements SimulationMetricsMXBean {
+    public static final String OBJECT_NAME = "production.simulation:type=SimulationMetrics";
+    
+    private long allocationNanos;
+    private long processingNanos;
+    private long recordingNanos;
+    private long outputWriteNanos;
+    private long inputParseNanos;
+    private long steps;
+    private long ticksSkipped;
+    private long workerReassignments;
+    private long detailsMoved;
+    private long eventsRecorded;
+    
+    void addAllocationNanos(long nanos) {
+        allocationNanos += nanos;
+    }
+    
+    void addProcessingNanos(long nanos) {
+        processingNanos += nanos;
+    }
+    
+    void addRecordingNanos(long nanos) {
+        recordingNanos += nanos;
+    }
+    
+    /**
+     * Учитывает время разбора входного файла (Excel через Apache POI или
+     * текстовый и двоичный форматы); при попадании в кэш моделей - 0.
+     */
+    public void addInputParseNanos(long nanos) {
+        inputParseNanos += nanos;
+    }
+    
+    void addStep() {
+        steps++;
+    }
+    
+    /**
+     * @param minutes целых минут между событиями, которые режим TICK прошёл бы по одной
+     */
+    void addTicksSkipped(long minutes) {
+        ticksSkipped += minutes;
+    }
+    
+    void addWorkerReassignment() {
+        workerReassignments++;
+    }
+    
+    void addDetailsMoved(long details) {
+        detailsMoved += details;
+    }
+    
+    void addEventRecorded() {
+        eventsRecorded++;
+    }
+    
+    /**
+     * Оборачивает получателя состояний (например, запись CSV), чтобы время
+     * его record() и flush() учитывалось как время вывода результатов.
+     */
+    public EventSink timeOutput(EventSink sink) {
+        return new EventSink() {
+            @Override
+            public void record(double time, String productionCenter, int workersCount, int bufferCount) {
+                long start = System.nanoTime();
+                sink.record(time, productionCenter, workersCount, bufferCount);
+                outputWriteNanos += System.nanoTime() - start;
+            }
+            
+            @Override
+            public void flush() {
+                long start = System.nanoTime();
+                sink.flush();
+                outputWriteNanos += System.nanoTime() - start;
+            }
+        };
+    }
+    
+    /**
+     * Регистрирует показатели в платформенном MBeanServer под именем OBJECT_NAME,
+     * заменяя ранее зарегистрированные.
+     */
+    public void registerMBean() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (server.isRegistered(name)) {
+            server.unregisterMBean(name);
+        }
+        server.registerMBean(this, name);
+    }
+    
+    @Override
+    public long getAllocationNanos() {
+        return allocationNanos;
+    }
+    
+    @Override
+    public long getProcessingNanos() {
+        return processingNanos;
+    }
+    
+    /**
+     * @return время записи состояний центров, включая время вывода результатов
+     */
+    @Override
+    public long getRecordingNanos() {
+        return recordingNanos;
+    }
+    
+    @Override
+    public long getOutputWriteNanos() {
+        return outputWriteNanos;
+    }
+    
+    @Override
+    public long getInputParseNanos() {
+        return inputParseNanos;
+    }
+    
+    /**
+     * @return шагов симуляции: минут в режиме TICK, моментов событий в режиме EVENT
+     */
+    @Override
+    public long getSteps() {
+        return steps;
+    }
+    
+    @Override
+    public long getTicksSkipped() {
+        return ticksSkipped;
+    }
+    
+    /**
+     * @return сколько раз у центра менялось количество рабочих
+     */
+    @Override
+    public long getWorkerReassignments() {
+        return workerReassignments;
+    }
+    
+    /**
+     * @return сколько деталей передано из центра в следующий центр
+     */
+    @Override
+    public long getDetailsMoved() {
+        return detailsMoved;
+    }
+    
+    @Override
+    public long getEventsRecorded() {
+        return eventsRecorded;
+    }
+    
+    @Override
+    public double getDetailsMovedPerStep() {
+        return steps == 0 ? 0 : (double) detailsMoved / steps;
+    }
+    
+    @Override
+    public void reset() {
+        allocationNanos = 0;
+        processingNanos = 0;
+        recordingNanos = 0;
+        outputWriteNanos = 0;
+        inputParseNanos = 0;
+        steps = 0;
+        ticksSkipped = 0;
+        workerReassignments = 0;
+        detailsMoved = 0;
+        eventsRecorded = 0;
+    }
+    
+    /**
+     * Показатели в машиночитаемом виде: по строке "ключ=значение",
+     * время в наносекундах.
+     */
+    public String format() {
+        return "sim.time.allocation.ns=" + allocationNanos + "\n"
+            + "sim.time.processing.ns=" + processingNanos + "\n"
+            + "sim.time.recording.ns=" + recordingNanos + "\n"
+            + "sim.time.output.ns=" + outputWriteNanos + "\n"
+            + "sim.time.parse.ns=" + inputParseNanos + "\n"
+            + "sim.steps=" + steps + "\n"
+            + "sim.ticks.skipped=" + ticksSkipped + "\n"
+            + "sim.workers.reassignments=" + workerReassignments + "\n"
+            + "sim.details.moved=" + detailsMoved + "\n"
+            + "sim.details.moved.per.step=" + getDetailsMovedPerStep() + "\n"
+            + "sim.events.recorded=" + eventsRecorded + "\n";
+    }
+}
@@ -0,0 +1,33 @@
+package model;
+
+/**
+ * Показатели SimulationMetrics, доступные через JMX
+ * (jconsole, VisualVM: production.simulation:type=SimulationMetrics).
+ * Время - в наносекундах.
+ */
+public interface SimulationMetricsMXBean {
+    
+    long getAllocationNanos();
+    
+    long getProcessingNanos();
+    
+    long getRecordingNanos();
+    
+    long getOutputWriteNanos();
+    
+    long getInputParseNanos();
+    
+    long getSteps();
+    
+    long getTicksSkipped();
+    
+    long getWorkerReassignments();
+    
+    long getDetailsMoved();
+    
+    long getEventsRecorded();
+    
+    double getDetailsMovedPerStep();
+    
+    void reset();
+}
@@ -0,0 +1,18 @@
+package model;
+
+/**
+ * Режим продвижения времени в симуляции производственной линии.
+ */
+public enum SimulationMode {
+    /**
+     * Фиксированный шаг в одну минуту: на каждом шаге перераспределяются
+     * рабочие и опрашиваются все центры.
+     */
+    TICK,
+    
+    /**
+     * Дискретно-событийный режим: время переходит сразу к ближайшему
+     * завершению детали, дробное время обработки учитывается точно.
+     */
+    EVENT
+}
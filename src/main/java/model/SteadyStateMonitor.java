@@ -0,0 +1,340 @@
+package model;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Показатели установившегося режима за скользящее окно: пропускная
+ * способность (деталей в минуту), незавершённое производство (WIP - детали
+ * в буферах и в обработке) и перцентили времени прохождения детали
+ * от поступления до выхода из линии.
+ *
+ * Окно делится на SLOTS интервалов. В конце каждого интервала получатель
+ * отчётов получает Report за последние window минут, после чего самый
+ * старый интервал очищается и используется заново. Время прохождения
+ * хранится в логарифмических гистограммах (погрешность не больше 1/64),
+ * поэтому память не зависит ни от длительности симуляции, ни от количества
+ * деталей: её занимают гистограммы интервалов и времена поступления
+ * деталей, ещё не покинувших линию.
+ *
+ * Деталь покидает линию, завершившись в конечном центре или в центре
+ * без следующих. Время прохождения известно только для деталей, поступивших
+ * через ProductionLine.setArrivals(); детали начальной партии учитываются
+ * в пропускной способности и WIP. Подключается через
+ * ProductionLine.setSteadyStateMonitor(); с ним режим TICK не использует
+ * параллельный шаг.
+ */
+public final class SteadyStateMonitor {
+    public static final String HEADER = "Time, Throughput, WIP, AverageWIP, LatencyP50, LatencyP90, LatencyP99, Completed\n";
+    static final int SLOTS = 10;
+    
+    // Время прохождения в сотых долях минуты: до 64 - точно, дальше по 32
+    // интервала на каждую степень двойки
+    private static final int EXACT_UNITS = 64;
+    private static final int SUB_BITS = 5;
+    private static final int MAX_BITS = 40;
+    static final int BINS = EXACT_UNITS + (MAX_BITS - 6) * (1 << SUB_BITS);
+    
+    private final double window;
+    private final double slotLength;
+    private final Consumer<Report> listener;
+    
+    // Интервалы окна по кругу; windowHistogram - сумма гистограмм интервалов
+    private final long[][] histograms = new long[SLOTS][BINS];
+    private final long[] windowHistogram = new long[BINS];
+    private final long[] completed = new long[SLOTS];
+    private final double[] wipArea = new double[SLOTS];
+    private long slot;
+    private double startTime;
+    private double lastTime;
+    private long wip;
+    
+    // Времена поступления деталей firstId, firstId + 1, ... по кругу;
+    // NaN - деталь уже покинула линию
+    private double[] arrivalTimes = new double[1024];
+    private int head;
+    private int tracked;
+    private long firstId;
+    
+    /**
+     * @param window длина окна в минутах
+     * @param listener получатель отчётов в конце каждого интервала окна (может быть null)
+     */
+    public SteadyStateMonitor(double window, Consumer<Report> listener) {
+        if (!(window > 0) || Double.isInfinite(window)) {
+            throw new IllegalArgumentException("Window must be positive: " + window);
+        }
+        this.window = window;
+        this.slotLength = window / SLOTS;
+        this.listener = listener;
+    }
+    
+    public double getWindow() {
+        return window;
+    }
+    
+    /**
+     * Начинает новый прогон: окно пустое, в линии wip деталей.
+     */
+    void start(double time, long wip) {
+        for (long[] histogram : histograms) {
+            Arrays.fill(histogram, 0);
+        }
+        Arrays.fill(windowHistogram, 0);
+        Arrays.fill(completed, 0);
+        Arrays.fill(wipArea, 0);
+        slot = (long) Math.floor(time / slotLength);
+        startTime = time;
+        lastTime = time;
+        this.wip = wip;
+        head = 0;
+        tracked = 0;
+    }
+    
+    /**
+     * Деталь detailId поступила в линию в момент arrivalTime.
+     */
+    void arrived(int detailId, double arrivalTime, double time) {
+        advanceTo(time);
+        wip++;
+        if (tracked > 0 && detailId != firstId + tracked) {
+            // Идентификаторы не подряд - время прохождения этой детали не учитывается
+            return;
+        }
+        if (tracked == 0) {
+            firstId = detailId;
+            head = 0;
+        } else if (tracked == arrivalTimes.length) {
+            double[] grown = new double[tracked * 2];
+            int tail = tracked - head;
+            System.arraycopy(arrivalTimes, head, grown, 0, tail);
+            System.arraycopy(arrivalTimes, 0, grown, tail, head);
+            arrivalTimes = grown;
+            head = 0;
+        }
+        arrivalTimes[(head + tracked) & (arrivalTimes.length - 1)] = arrivalTime;
+        tracked++;
+    }
+    
+    /**
+     * Деталь detailId покинула линию в момент time.
+     */
+    void completed(int detailId, double time) {
+        advanceTo(time);
+        wip--;
+        int current = (int) (slot % SLOTS);
+        completed[current]++;
+        
+        long offset = detailId - firstId;
+        if (offset < 0 || offset >= tracked) {
+            return;
+        }
+        int mask = arrivalTimes.length - 1;
+        int index = (int) ((head + offset) & mask);
+        double arrivalTime = arrivalTimes[index];
+        if (Double.isNaN(arrivalTime)) {
+            return;
+        }
+        int bin = bin(time - arrivalTime);
+        histograms[current][bin]++;
+        windowHistogram[bin]++;
+        arrivalTimes[index] = Double.NaN;
+        // Детали, покинувшие линию раньше всех оставшихся, больше не хранятся
+        while (tracked > 0 && Double.isNaN(arrivalTimes[head])) {
+            head = (head + 1) & mask;
+            tracked--;
+            firstId++;
+        }
+    }
+    
+    /**
+     * Доводит окно до момента time, выдавая отчёты на границах интервалов.
+     */
+    void advanceTo(double time) {
+        double slotEnd = (slot + 1) * slotLength;
+        while (time >= slotEnd) {
+            wipArea[(int) (slot % SLOTS)] += wip * (slotEnd - lastTime);
+            lastTime = slotEnd;
+            if (listener != null) {
+                listener.accept(report(slotEnd));
+            }
+            slot++;
+            clearSlot((int) (slot % SLOTS));
+            slotEnd = (slot + 1) * slotLength;
+        }
+        if (time > lastTime) {
+            wipArea[(int) (slot % SLOTS)] += wip * (time - lastTime);
+            lastTime = time;
+        }
+    }
+    
+    private void clearSlot(int index) {
+        long[] histogram = histograms[index];
+        for (int bin = 0; bin < BINS; bin++) {
+            windowHistogram[bin] -= histogram[bin];
+        }
+        Arrays.fill(histogram, 0);
+        completed[index] = 0;
+        wipArea[index] = 0;
+    }
+    
+    /**
+     * @return показатели за последние window минут до последнего известного
+     *         момента, включая незаконченный интервал
+     */
+    public Report report() {
+        return report(lastTime);
+    }
+    
+    private Report report(double time) {
+        // Окно - интервалы от самого старого до текущего, но не раньше начала прогона
+        double length = time - Math.max(startTime, (slot - SLOTS + 1) * slotLength);
+        long count = 0;
+        double area = 0;
+        for (int i = 0; i < SLOTS; i++) {
+            count += completed[i];
+            area += wipArea[i];
+        }
+        return new Report(time, count,
+            length > 0 ? count / length : 0,
+            wip,
+            length > 0 ? area / length : wip,
+            percentile(0.5), percentile(0.9), percentile(0.99));
+    }
+    
+    private double percentile(double p) {
+        long total = 0;
+        for (long n : windowHistogram) {
+            total += n;
+        }
+        if (total == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) Math.ceil(p * total);
+        long seen = 0;
+        for (int bin = 0; bin < BINS; bin++) {
+            seen += windowHistogram[bin];
+            if (seen >= rank) {
+                return value(bin);
+            }
+        }
+        return value(BINS - 1);
+    }
+    
+    static int bin(double latency) {
+        long units = Math.min(Math.max(Math.round(latency * 100), 0), (1L << MAX_BITS) - 1);
+        if (units < EXACT_UNITS) {
+            return (int) units;
+        }
+        int bits = 63 - Long.numberOfLeadingZeros(units);
+        return EXACT_UNITS + (bits - 6) * (1 << SUB_BITS)
+            + (int) ((units >>> (bits - SUB_BITS)) & ((1 << SUB_BITS) - 1));
+    }
+    
+    /**
+     * @return середина интервала гистограммы в минутах
+     */
+    static double value(int bin) {
+        if (bin < EXACT_UNITS) {
+            return bin / 100.0;
+        }
+        int bits = 6 + (bin - EXACT_UNITS) / (1 << SUB_BITS);
+        int sub = (bin - EXACT_UNITS) % (1 << SUB_BITS);
+        long width = 1L << (bits - SUB_BITS);
+        long low = ((1L << SUB_BITS) + sub) * width;
+        return (low + (width - 1) / 2.0) / 100.0;
+    }
+    
+    /**
+     * Показатели за окно, закончившееся в момент getTime().
+     * Перцентили - NaN, если за окно не вышло ни одной детали с известным
+     * временем поступления.
+     */
+    public static final class Report {
+        private final double time;
+        private final long completed;
+        private final double throughput;
+        private final long wip;
+        private final double averageWip;
+        private final double latencyP50;
+        private final double latencyP90;
+        private final double latencyP99;
+        
+        Report(double time, long completed, double throughput, long wip, double averageWip,
+               double latencyP50, double latencyP90, double latencyP99) {
+            this.time = time;
+            this.completed = completed;
+            this.throughput = throughput;
+            this.wip = wip;
+            this.averageWip = averageWip;
+            this.latencyP50 = latencyP50;
+            this.latencyP90 = latencyP90;
+            this.latencyP99 = latencyP99;
+        }
+        
+        public double getTime() {
+            return time;
+        }
+        
+        /**
+         * @return сколько деталей покинуло линию за окно
+         */
+        public long getCompleted() {
+            return completed;
+        }
+        
+        /**
+         * @return деталей в минуту за окно
+         */
+        public double getThroughput() {
+            return throughput;
+        }
+        
+        /**
+         * @return деталей в линии в момент getTime()
+         */
+        public long getWip() {
+            return wip;
+        }
+        
+        /**
+         * @return среднее по времени количество деталей в линии за окно
+         */
+        public double getAverageWip() {
+            return averageWip;
+        }
+        
+        public double getLatencyP50() {
+            return latencyP50;
+        }
+        
+        public double getLatencyP90() {
+            return latencyP90;
+        }
+        
+        public double getLatencyP99() {
+            return latencyP99;
+        }
+        
+        /**
+         * @return строка CSV в порядке HEADER с переводом строки
+         */
+        public String toCsv() {
+            return new StringBuilder(96)
+                .append(Math.round(time * 10) / 10.0).append(", ")
+                .append(Math.round(throughput * 1000) / 1000.0).append(", ")
+                .append(wip).append(", ")
+                .append(Math.round(averageWip * 100) / 100.0).append(", ")
+                .append(formatLatency(latencyP50)).append(", ")
+                .append(formatLatency(latencyP90)).append(", ")
+                .append(formatLatency(latencyP99)).append(", ")
+                .append(completed).append('\n')
+                .toString();
+        }
+        
+        // Неизвестный перцентиль - пустое поле
+        private static String formatLatency(double latency) {
+            return Double.isNaN(latency) ? "" : String.valueOf(Math.round(latency * 10) / 10.0);
+        }
+    }
+}
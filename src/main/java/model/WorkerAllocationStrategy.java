@@ -0,0 +1,48 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Политика распределения рабочих между центрами. На каждом шаге линия
+ * обходит центры с деталями в буфере по убыванию priority() и назначает
+ * каждому workers() рабочих, пока они не закончатся.
+ *
+ * Приоритеты хранит CenterPriorityIndex и пересчитывает только для центров,
+ * буфер которых изменился. Поэтому priority() должен зависеть лишь от
+ * состояния самого центра и неизменных параметров линии, а если он учитывает
+ * детали в обработке у предыдущих центров, dependsOnPredecessors()
+ * должен возвращать true.
+ */
+public interface WorkerAllocationStrategy {
+    
+    /**
+     * Вызывается перед каждым прогоном: стратегия может заранее вычислить
+     * неизменные веса центров.
+     *
+     * @param centers центры линии в порядке индексов
+     */
+    default void prepare(List<ProductionCenter> centers) {
+    }
+    
+    /**
+     * @param centerIndex индекс центра в линии
+     * @param center центр с непустым буфером
+     * @return приоритет: центры с большим значением получают рабочих раньше
+     */
+    double priority(int centerIndex, ProductionCenter center);
+    
+    /**
+     * @return количество рабочих для центра, не больше availableWorkers
+     */
+    default int workers(ProductionCenter center, int availableWorkers) {
+        return center.getOptimalWorkersCount(availableWorkers);
+    }
+    
+    /**
+     * @return true, если приоритет меняется при запуске и завершении деталей
+     *         в предыдущих центрах
+     */
+    default boolean dependsOnPredecessors() {
+        return false;
+    }
+}
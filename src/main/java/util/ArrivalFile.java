@@ -0,0 +1,67 @@
+package util;
+
+import model.ArrivalProcess;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Повтор записанных поступлений: текстовый файл, одно время поступления
+ * (в минутах) на строку. Пустые строки и строки, начинающиеся с '#',
+ * пропускаются. Файл читается построчно по мере симуляции, поэтому память
+ * не зависит от его длины.
+ *
+ * Времена должны не убывать; ошибка формата сообщает номер строки.
+ */
+public class ArrivalFile implements ArrivalProcess, Closeable {
+    private final BufferedReader reader;
+    private int lineNumber;
+    private double lastTime = Double.NEGATIVE_INFINITY;
+    
+    public ArrivalFile(String filePath) throws IOException {
+        this(new FileReader(filePath, StandardCharsets.UTF_8));
+    }
+    
+    public ArrivalFile(Reader source) {
+        this.reader = new BufferedReader(source);
+    }
+    
+    @Override
+    public double nextArrival() {
+        String line;
+        try {
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                double time;
+                try {
+                    time = Double.parseDouble(line);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": invalid arrival time: " + line, e);
+                }
+                if (Double.isNaN(time) || time < lastTime) {
+                    throw new IllegalArgumentException("Line " + lineNumber
+                        + ": arrival times must not decrease: " + line);
+                }
+                lastTime = time;
+                return time;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,274 @@
+package util;
+
+import model.EventSink;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Чтение результатов в формате ColumnarEventSink. При открытии читается
+ * только оглавление; scan() читает лишь блоки, пересекающие интервал
+ * времени. При выборке одного центра сначала просматривается колонка
+ * центров: остальные колонки блока разбираются только для строк этого центра.
+ *
+ * Преобразование в CSV:
+ * java -cp program.jar util.ColumnarEventReader result.simc result.csv [--center=NAME] [--from=T] [--to=T]
+ */
+public class ColumnarEventReader implements Closeable {
+    private static final String USAGE =
+        "Usage: java -cp program.jar util.ColumnarEventReader <input.simc> <output.csv>"
+            + " [--center=NAME] [--from=TIME] [--to=TIME]";
+    // MAGIC в начале, смещение оглавления и MAGIC в конце
+    private static final int HEADER_SIZE = 8;
+    private static final int TRAILER_SIZE = 12;
+    
+    private final FileChannel channel;
+    private final String[] centerNames;
+    private final long[] blockOffsets;
+    private final int[] blockRows;
+    private final double[] blockMinTimes;
+    private final double[] blockMaxTimes;
+    private final long rowCount;
+    
+    // Переиспользуемый буфер разбора блока
+    private ByteBuffer block = ByteBuffer.allocate(0);
+    
+    public ColumnarEventReader(String filePath) throws IOException {
+        this.channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            ByteBuffer header = readAt(0, HEADER_SIZE);
+            if (size < HEADER_SIZE + TRAILER_SIZE || header.getInt() != ColumnarEventSink.MAGIC) {
+                throw new IOException("Not a columnar simulation result: " + filePath);
+            }
+            int version = header.getInt();
+            if (version != ColumnarEventSink.VERSION) {
+                throw new IOException("Unsupported columnar result version: " + version);
+            }
+            ByteBuffer trailer = readAt(size - TRAILER_SIZE, TRAILER_SIZE);
+            long footerOffset = trailer.getLong();
+            if (trailer.getInt() != ColumnarEventSink.MAGIC || footerOffset < HEADER_SIZE || footerOffset > size - TRAILER_SIZE) {
+                throw new IOException("Columnar result is incomplete: " + filePath);
+            }
+            
+            ByteBuffer footer = readAt(footerOffset, (int) (size - TRAILER_SIZE - footerOffset));
+            DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(footer.array(), 0, footer.limit()));
+            centerNames = new String[in.readInt()];
+            for (int i = 0; i < centerNames.length; i++) {
+                centerNames[i] = in.readUTF();
+            }
+            int blockCount = in.readInt();
+            blockOffsets = new long[blockCount + 1];
+            blockRows = new int[blockCount];
+            blockMinTimes = new double[blockCount];
+            blockMaxTimes = new double[blockCount];
+            long rows = 0;
+            for (int i = 0; i < blockCount; i++) {
+                blockOffsets[i] = in.readLong();
+                blockRows[i] = in.readInt();
+                blockMinTimes[i] = in.readDouble();
+                blockMaxTimes[i] = in.readDouble();
+                rows += blockRows[i];
+            }
+            blockOffsets[blockCount] = footerOffset;
+            rowCount = rows;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+    
+    /**
+     * @return названия центров в порядке их первого появления в результатах
+     */
+    public List<String> getCenterNames() {
+        return Collections.unmodifiableList(Arrays.asList(centerNames));
+    }
+    
+    public long getRowCount() {
+        return rowCount;
+    }
+    
+    public int getBlockCount() {
+        return blockRows.length;
+    }
+    
+    /**
+     * Передаёт все строки в порядке записи.
+     *
+     * @return количество переданных строк
+     */
+    public long scan(EventSink sink) throws IOException {
+        return scan(null, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, sink);
+    }
+    
+    /**
+     * Передаёт строки центра center (null - всех центров) со временем
+     * из [from, to] в порядке записи.
+     *
+     * @return количество переданных строк
+     */
+    public long scan(String center, double from, double to, EventSink sink) throws IOException {
+        int centerId = -1;
+        if (center != null) {
+            centerId = Arrays.asList(centerNames).indexOf(center);
+            if (centerId < 0) {
+                return 0;
+            }
+        }
+        boolean allTimes = from == Double.NEGATIVE_INFINITY && to == Double.POSITIVE_INFINITY;
+        
+        long delivered = 0;
+        for (int b = 0; b < blockRows.length; b++) {
+            if (!allTimes && (blockMaxTimes[b] < from || blockMinTimes[b] > to)) {
+                continue;
+            }
+            delivered += scanBlock(b, centerId, from, to, allTimes, sink);
+        }
+        return delivered;
+    }
+    
+    private long scanBlock(int b, int centerId, double from, double to, boolean allTimes, EventSink sink)
+            throws IOException {
+        int length = (int) (blockOffsets[b + 1] - blockOffsets[b]);
+        if (block.capacity() < length) {
+            block = ByteBuffer.allocate(length);
+        }
+        block.clear().limit(length);
+        readFully(block, blockOffsets[b]);
+        block.flip();
+        
+        int rows = block.getInt();
+        int runs = block.getInt();
+        byte timeEncoding = block.get();
+        int valueWidth = block.get();
+        int runWidth = block.get();
+        int centerWidth = block.get();
+        int workersWidth = block.get();
+        int bufferWidth = block.get();
+        long baseTenths = timeEncoding == ColumnarEventSink.TIME_TENTHS ? block.getLong() : 0;
+        
+        // Значения серий времени, их длины, затем колонки строк
+        int valuesStart = block.position();
+        int lengthsStart = valuesStart + runs * valueWidth;
+        int centersStart = lengthsStart + runs * runWidth;
+        int workersStart = centersStart + rows * centerWidth;
+        int buffersStart = workersStart + rows * workersWidth;
+        
+        // Сначала колонка центров: блок без нужного центра дальше не разбирается
+        if (centerId >= 0 && !containsCenter(centersStart, rows, centerWidth, centerId)) {
+            return 0;
+        }
+        
+        long delivered = 0;
+        int row = 0;
+        for (int run = 0; run < runs; run++) {
+            int end = row + get(block, lengthsStart + run * runWidth, runWidth);
+            // Время серии разбирается только для подходящих строк
+            boolean timeKnown = false;
+            double time = 0;
+            for (; row < end; row++) {
+                int center = get(block, centersStart + row * centerWidth, centerWidth);
+                if (centerId >= 0 && center != centerId) {
+                    continue;
+                }
+                if (!timeKnown) {
+                    time = timeEncoding == ColumnarEventSink.TIME_TENTHS
+                        ? (baseTenths + get(block, valuesStart + run * valueWidth, valueWidth)) / 10.0
+                        : block.getDouble(valuesStart + run * 8);
+                    timeKnown = true;
+                    if (!allTimes && (time < from || time > to)) {
+                        row = end;
+                        break;
+                    }
+                }
+                sink.record(time, centerNames[center],
+                    get(block, workersStart + row * workersWidth, workersWidth),
+                    get(block, buffersStart + row * bufferWidth, bufferWidth));
+                delivered++;
+            }
+        }
+        return delivered;
+    }
+    
+    private boolean containsCenter(int centersStart, int rows, int centerWidth, int centerId) {
+        for (int i = 0; i < rows; i++) {
+            if (get(block, centersStart + i * centerWidth, centerWidth) == centerId) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static int get(ByteBuffer buffer, int index, int width) {
+        switch (width) {
+            case 1:
+                return buffer.get(index);
+            case 2:
+                return buffer.getShort(index);
+            default:
+                return buffer.getInt(index);
+        }
+    }
+    
+    private ByteBuffer readAt(long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        readFully(buffer, offset);
+        buffer.flip();
+        return buffer;
+    }
+    
+    private void readFully(ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, offset);
+            if (read < 0) {
+                throw new EOFException("Unexpected end of columnar result");
+            }
+            offset += read;
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println(USAGE);
+            return;
+        }
+        String center = null;
+        double from = Double.NEGATIVE_INFINITY;
+        double to = Double.POSITIVE_INFINITY;
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].startsWith("--center=")) {
+                center = args[i].substring("--center=".length());
+            } else if (args[i].startsWith("--from=")) {
+                from = Double.parseDouble(args[i].substring("--from=".length()));
+            } else if (args[i].startsWith("--to=")) {
+                to = Double.parseDouble(args[i].substring("--to=".length()));
+            } else {
+                System.out.println(USAGE);
+                return;
+            }
+        }
+        
+        try (ColumnarEventReader reader = new ColumnarEventReader(args[0]);
+             FastCsvEventSink csv = new FastCsvEventSink(args[1])) {
+            long rows = reader.scan(center, from, to, csv);
+            System.out.println("Written " + rows + " of " + reader.getRowCount() + " rows: " + args[1]);
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package util;
+
+import model.CenterNames;
+import model.EventSink;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Потоковая запись результатов в двоичный колоночный формат (расширение .simc).
+ * Строки копятся в блоки по blockRows строк; блок хранит колонки времени,
+ * центра, рабочих и буфера подряд, а целые числа - в 1, 2 или 4 байтах
+ * в зависимости от диапазона значений блока. Название центра записывается
+ * один раз в словарь, в строках хранится его номер.
+ *
+ * Время хранится сериями одинаковых значений. Если все значения блока
+ * точно равны десятым долям минуты (режим TICK, целые и половинные времена
+ * обработки), серия хранит смещение в десятых от наименьшего времени блока,
+ * иначе - double. Значения восстанавливаются побитово.
+ *
+ * Файл: MAGIC, VERSION, блоки, оглавление (словарь центров и для каждого
+ * блока смещение, количество строк, наименьшее и наибольшее время), смещение
+ * оглавления и MAGIC. Оглавление позволяет ColumnarEventReader пропускать
+ * блоки вне нужного интервала времени не читая их. Числа - big-endian.
+ */
+public class ColumnarEventSink implements EventSink, Closeable {
+    public static final String EXTENSION = ".simc";
+    static final int MAGIC = 0x50534D43;
+    static final int VERSION = 1;
+    static final int DEFAULT_BLOCK_ROWS = 65536;
+    
+    static final byte TIME_DOUBLE = 0;
+    static final byte TIME_TENTHS = 1;
+    
+    private final FileChannel channel;
+    private final int blockRows;
+    
+    // Строки текущего блока
+    private final double[] times;
+    private final int[] centers;
+    private final int[] workers;
+    private final int[] buffers;
+    private int rows;
+    
+    private final ByteBuffer block;
+    private final CenterNames centerNames = new CenterNames();
+    
+    // Оглавление записанных блоков
+    private long[] blockOffsets = new long[16];
+    private int[] blockRowCounts = new int[16];
+    private double[] blockMinTimes = new double[16];
+    private double[] blockMaxTimes = new double[16];
+    private int blockCount;
+    private long position;
+    
+    public ColumnarEventSink(String filePath) throws IOException {
+        this(filePath, DEFAULT_BLOCK_ROWS);
+    }
+    
+    public ColumnarEventSink(String filePath, int blockRows) throws IOException {
+        if (blockRows < 1) {
+            throw new IllegalArgumentException("Block must hold at least one row");
+        }
+        this.blockRows = blockRows;
+        this.times = new double[blockRows];
+        this.centers = new int[blockRows];
+        this.workers = new int[blockRows];
+        this.buffers = new int[blockRows];
+        // Худший случай: время double и длина серии на каждую строку, колонки по 4 байта
+        this.block = ByteBuffer.allocate(32 + blockRows * 24);
+        this.channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        
+        block.putInt(MAGIC).putInt(VERSION).flip();
+        writeFully(block);
+    }
+    
+    public static boolean isColumnar(String filePath) {
+        return filePath.toLowerCase().endsWith(EXTENSION);
+    }
+    
+    @Override
+    public void record(double time, String productionCenter, int workersCount, int bufferCount) {
+        times[rows] = time;
+        centers[rows] = centerNames.id(productionCenter);
+        workers[rows] = workersCount;
+        buffers[rows] = bufferCount;
+        if (++rows == blockRows) {
+            writeBlock();
+        }
+    }
+    
+    /**
+     * Записывает накопленные строки неполным блоком.
+     */
+    @Override
+    public void flush() {
+        writeBlock();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        try {
+            writeBlock();
+            writeFooter();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            channel.close();
+        }
+    }
+    
+    private void writeBlock() {
+        if (rows == 0) {
+            return;
+        }
+        block.clear();
+        block.putInt(rows);
+        
+        // Серии одинаковых значений времени и их наименьшее и наибольшее значение
+        int runs = 0;
+        int longestRun = 0;
+        double minTime = Double.POSITIVE_INFINITY;
+        double maxTime = Double.NEGATIVE_INFINITY;
+        boolean tenths = true;
+        long minTenths = Long.MAX_VALUE;
+        long maxTenths = Long.MIN_VALUE;
+        for (int i = 0, run = 0; i < rows; i++) {
+            double time = times[i];
+            minTime = Math.min(minTime, time);
+            maxTime = Math.max(maxTime, time);
+            if (tenths) {
+                long value = Math.round(time * 10);
+                tenths = Double.doubleToRawLongBits(value / 10.0) == Double.doubleToRawLongBits(time);
+                minTenths = Math.min(minTenths, value);
+                maxTenths = Math.max(maxTenths, value);
+            }
+            run++;
+            if (i + 1 == rows || Double.doubleToRawLongBits(times[i + 1]) != Double.doubleToRawLongBits(time)) {
+                runs++;
+                longestRun = Math.max(longestRun, run);
+                run = 0;
+            }
+        }
+        tenths &= maxTenths - minTenths <= Integer.MAX_VALUE;
+        
+        int valueWidth = tenths ? width(0, (int) (maxTenths - minTenths)) : 8;
+        int runWidth = width(0, longestRun);
+        int centerWidth = width(centers);
+        int workersWidth = width(workers);
+        int bufferWidth = width(buffers);
+        block.putInt(runs);
+        block.put(tenths ? TIME_TENTHS : TIME_DOUBLE);
+        block.put((byte) valueWidth).put((byte) runWidth);
+        block.put((byte) centerWidth).put((byte) workersWidth).put((byte) bufferWidth);
+        if (tenths) {
+            block.putLong(minTenths);
+        }
+        
+        // Значения серий, затем их длины
+        for (int i = 0; i < rows; ) {
+            if (tenths) {
+                put(block, valueWidth, (int) (Math.round(times[i] * 10) - minTenths));
+            } else {
+                block.putDouble(times[i]);
+            }
+            int next = i + 1;
+            while (next < rows && Double.doubleToRawLongBits(times[next]) == Double.doubleToRawLongBits(times[i])) {
+                next++;
+            }
+            i = next;
+        }
+        for (int i = 0; i < rows; ) {
+            int next = i + 1;
+            while (next < rows && Double.doubleToRawLongBits(times[next]) == Double.doubleToRawLongBits(times[i])) {
+                next++;
+            }
+            put(block, runWidth, next - i);
+            i = next;
+        }
+        
+        putColumn(centers, centerWidth);
+        putColumn(workers, workersWidth);
+        putColumn(buffers, bufferWidth);
+        block.flip();
+        
+        if (blockCount == blockOffsets.length) {
+            int capacity = blockCount * 2;
+            blockOffsets = Arrays.copyOf(blockOffsets, capacity);
+            blockRowCounts = Arrays.copyOf(blockRowCounts, capacity);
+            blockMinTimes = Arrays.copyOf(blockMinTimes, capacity);
+            blockMaxTimes = Arrays.copyOf(blockMaxTimes, capacity);
+        }
+        blockOffsets[blockCount] = position;
+        blockRowCounts[blockCount] = rows;
+        blockMinTimes[blockCount] = minTime;
+        blockMaxTimes[blockCount] = maxTime;
+        blockCount++;
+        
+        writeFully(block);
+        rows = 0;
+    }
+    
+    private void putColumn(int[] column, int width) {
+        for (int i = 0; i < rows; i++) {
+            put(block, width, column[i]);
+        }
+    }
+    
+    private int width(int[] column) {
+        int min = 0;
+        int max = 0;
+        for (int i = 0; i < rows; i++) {
+            min = Math.min(min, column[i]);
+            max = Math.max(max, column[i]);
+        }
+        return width(min, max);
+    }
+    
+    /**
+     * @return сколько байт со знаком нужно для значений из [min, max]: 1, 2 или 4
+     */
+    static int width(int min, int max) {
+        if (min >= Byte.MIN_VALUE && max <= Byte.MAX_VALUE) {
+            return 1;
+        }
+        if (min >= Short.MIN_VALUE && max <= Short.MAX_VALUE) {
+            return 2;
+        }
+        return 4;
+    }
+    
+    static void put(ByteBuffer buffer, int width, int value) {
+        switch (width) {
+            case 1:
+                buffer.put((byte) value);
+                break;
+            case 2:
+                buffer.putShort((short) value);
+                break;
+            default:
+                buffer.putInt(value);
+        }
+    }
+    
+    private void writeFooter() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(centerNames.size());
+        for (int i = 0; i < centerNames.size(); i++) {
+            out.writeUTF(centerNames.name(i));
+        }
+        out.writeInt(blockCount);
+        for (int i = 0; i < blockCount; i++) {
+            out.writeLong(blockOffsets[i]);
+            out.writeInt(blockRowCounts[i]);
+            out.writeDouble(blockMinTimes[i]);
+            out.writeDouble(blockMaxTimes[i]);
+        }
+        out.writeLong(position);
+        out.writeInt(MAGIC);
+        writeFully(ByteBuffer.wrap(bytes.toByteArray()));
+    }
+    
+    private void writeFully(ByteBuffer buffer) {
+        try {
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package util;
+
+import model.EventSink;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * Потоково записывает состояния центров в CSV по мере симуляции.
+ * Формат совпадает с CsvWriter.writeResults(), но строки не накапливаются в памяти.
+ */
+public class CsvEventSink implements EventSink, Closeable {
+    static final String HEADER = "Time, ProductionCenter, WorkersCount, BufferCount\n";
+    
+    private final Writer writer;
+    
+    public CsvEventSink(String filePath) throws IOException {
+        this(new BufferedWriter(new FileWriter(filePath)));
+    }
+    
+    public CsvEventSink(Writer writer) throws IOException {
+        this.writer = writer;
+        writer.write(HEADER);
+    }
+    
+    @Override
+    public void record(double time, String productionCenter, int workersCount, int bufferCount) {
+        try {
+            writer.write(String.format("%.1f, %s, %d, %d\n",
+                time,
+                productionCenter,
+                workersCount,
+                bufferCount
+            ));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    @Override
+    public void flush() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -1,25 +1,36 @@
 package util;
 
+import model.EventStore;
 import model.ProductionEvent;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 public class CsvWriter {
     public static void writeResults(String filePath, List<ProductionEvent> events) throws IOException {
-        try (FileWriter writer = new FileWriter(filePath)) {
-            // Записываем заголовок
-            writer.write("Time, ProductionCenter, WorkersCount, BufferCount\n");
-            
+        try (FastCsvEventSink sink = new FastCsvEventSink(filePath)) {
             // Записываем данные
             for (ProductionEvent event : events) {
-                writer.write(String.format("%.1f, %s, %d, %d\n",
+                sink.record(
                     event.getTime(),
                     event.getProductionCenter(),
                     event.getWorkersCount(),
                     event.getBufferCount()
-                ));
+                );
             }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Записывает события из хранилища, не создавая объектов ProductionEvent.
+     */
+    public static void writeResults(String filePath, EventStore events) throws IOException {
+        try (FastCsvEventSink sink = new FastCsvEventSink(filePath)) {
+            events.replay(sink);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package util;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.text.DecimalFormatSymbols;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Восстанавливает плотную запись результатов (все центры с заданным шагом времени)
+ * из CSV, записанного в дельта-режиме ProductionLine.setRecordChangesOnly(true).
+ * Файл читается потоково, память зависит только от количества центров.
+ *
+ * Для шагового режима с шагом 1.0 результат совпадает с полной записью.
+ */
+public class DeltaCsvExpander {
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.out.println("Usage: java -cp program.jar util.DeltaCsvExpander <delta.csv> <dense.csv> [step]");
+            return;
+        }
+        double step = args.length == 3 ? Double.parseDouble(args[2]) : 1.0;
+        expand(args[0], args[1], step);
+    }
+    
+    public static void expand(String deltaFile, String denseFile, double step) throws IOException {
+        try (Reader reader = new FileReader(deltaFile);
+             Writer writer = new FileWriter(denseFile)) {
+            expand(reader, writer, step);
+        }
+    }
+    
+    public static void expand(Reader delta, Writer dense, double step) throws IOException {
+        if (step <= 0) {
+            throw new IllegalArgumentException("Step must be positive");
+        }
+        
+        BufferedReader reader = new BufferedReader(delta);
+        FastCsvEventSink sink = new FastCsvEventSink(dense);
+        char decimalSeparator = DecimalFormatSymbols.getInstance(Locale.getDefault(Locale.Category.FORMAT))
+            .getDecimalSeparator();
+        
+        // Последнее известное состояние каждого центра в порядке первого появления
+        Map<String, Integer> centerIndexes = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        List<int[]> states = new ArrayList<>();
+        
+        double startTime = Double.NaN;
+        double lastTime = Double.NaN;
+        long gridIndex = 0;
+        
+        try {
+            reader.readLine(); // Пропускаем заголовок
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) continue;
+                
+                int timeEnd = line.indexOf(", ");
+                int bufferStart = line.lastIndexOf(", ");
+                int workersStart = line.lastIndexOf(", ", bufferStart - 1);
+                if (timeEnd < 0 || workersStart <= timeEnd) {
+                    throw new IOException("Malformed CSV row: " + line);
+                }
+                
+                double time = parseTime(line.substring(0, timeEnd), decimalSeparator);
+                String name = line.substring(timeEnd + 2, workersStart);
+                int workers = Integer.parseInt(line.substring(workersStart + 2, bufferStart));
+                int bufferCount = Integer.parseInt(line.substring(bufferStart + 2));
+                
+                if (Double.isNaN(startTime)) {
+                    startTime = time;
+                }
+                
+                // Все строки до текущего момента применены - выводим пройденные точки сетки
+                for (double gridTime = startTime + gridIndex * step; gridTime < time;
+                        gridTime = startTime + ++gridIndex * step) {
+                    writeSnapshot(sink, gridTime, names, states);
+                }
+                
+                Integer index = centerIndexes.get(name);
+                if (index == null) {
+                    index = names.size();
+                    centerIndexes.put(name, index);
+                    names.add(name);
+                    states.add(new int[2]);
+                }
+                states.get(index)[0] = workers;
+                states.get(index)[1] = bufferCount;
+                lastTime = time;
+            }
+            
+            if (!Double.isNaN(startTime)) {
+                for (double gridTime = startTime + gridIndex * step; gridTime <= lastTime;
+                        gridTime = startTime + ++gridIndex * step) {
+                    writeSnapshot(sink, gridTime, names, states);
+                }
+            }
+            sink.flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+    
+    private static void writeSnapshot(FastCsvEventSink sink, double time, List<String> names, List<int[]> states) {
+        for (int i = 0; i < names.size(); i++) {
+            int[] state = states.get(i);
+            sink.record(time, names.get(i), state[0], state[1]);
+        }
+    }
+    
+    private static double parseTime(String text, char decimalSeparator) {
+        // Время записано через String.format в локали по умолчанию
+        StringBuilder normalized = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == decimalSeparator) {
+                normalized.append('.');
+            } else if (Character.isDigit(c)) {
+                normalized.append((char) ('0' + Character.digit(c, 10)));
+            } else {
+                normalized.append(c);
+            }
+        }
+        return Double.parseDouble(normalized.toString());
+    }
+}
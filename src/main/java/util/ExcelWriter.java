@@ -0,0 +1,69 @@
+package util;
+
+import model.LineConfiguration;
+import model.LineConfiguration.CenterSpec;
+import model.LineConfiguration.Connection;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Записывает описание линии во входной Excel файл того же вида, что читает
+ * ExcelReader: три листа - центры, связи и начальные данные, первая строка
+ * каждого листа - заголовок. Строки пишутся потоково (SXSSF), поэтому
+ * большие линии не держатся в памяти целиком.
+ */
+public class ExcelWriter {
+    // Количество строк листа, которые SXSSF держит в памяти
+    private static final int ROW_WINDOW = 1000;
+    
+    public static void write(LineConfiguration configuration, String filePath) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+        try (OutputStream out = new FileOutputStream(filePath)) {
+            Sheet centers = workbook.createSheet("Centers");
+            header(centers, "Название центра", "Время обработки", "Макс. кол-во рабочих");
+            int rowNum = 1;
+            for (CenterSpec center : configuration.getCenters()) {
+                Row row = centers.createRow(rowNum++);
+                row.createCell(0).setCellValue(center.getName());
+                row.createCell(1).setCellValue(center.getProcessingTime());
+                row.createCell(2).setCellValue(center.getMaxWorkers());
+            }
+            
+            Sheet connections = workbook.createSheet("Connections");
+            header(connections, "От центра", "К центру");
+            rowNum = 1;
+            for (Connection connection : configuration.getConnections()) {
+                Row row = connections.createRow(rowNum++);
+                row.createCell(0).setCellValue(connection.getFrom());
+                row.createCell(1).setCellValue(connection.getTo());
+            }
+            
+            Sheet initialData = workbook.createSheet("Initial Data");
+            header(initialData, "Кол-во рабочих", "Начальный центр", "Кол-во деталей");
+            Row row = initialData.createRow(1);
+            row.createCell(0).setCellValue(configuration.getTotalWorkers());
+            if (configuration.getInitialCenter() != null) {
+                row.createCell(1).setCellValue(configuration.getInitialCenter());
+            }
+            row.createCell(2).setCellValue(configuration.getDetailsCount());
+            
+            workbook.write(out);
+        } finally {
+            // Удаляем временные файлы SXSSF
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+    
+    private static void header(Sheet sheet, String... titles) {
+        Row row = sheet.createRow(0);
+        for (int i = 0; i < titles.length; i++) {
+            row.createCell(i).setCellValue(titles[i]);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package util;
+
+import model.EventSink;
+
+import java.io.Closeable;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Потоковая запись результатов в CSV без String.format: числа форматируются
+ * прямо в переиспользуемый буфер символов, который целиком уходит в Writer.
+ * Вывод побайтно совпадает с CsvEventSink, включая десятичный разделитель
+ * и цифры локали по умолчанию. Время, которое нельзя точно записать
+ * с одним знаком после запятой, форматируется через String.format.
+ */
+public class FastCsvEventSink implements EventSink, Closeable {
+    private static final int BUFFER_SIZE = 8192;
+    // Время до 10^15 минут помещается в long после умножения на 10
+    private static final double MAX_FAST_TIME = 1e15;
+    
+    private final Writer writer;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final char[] digits = new char[20];
+    private int position;
+    
+    private final char zeroDigit;
+    private final char decimalSeparator;
+    
+    public FastCsvEventSink(String filePath) throws IOException {
+        this(new FileWriter(filePath));
+    }
+    
+    public FastCsvEventSink(Writer writer) throws IOException {
+        this(writer, true);
+    }
+    
+    private FastCsvEventSink(Writer writer, boolean writeHeader) throws IOException {
+        this.writer = writer;
+        // String.format использует локаль категории FORMAT
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+        this.zeroDigit = symbols.getZeroDigit();
+        this.decimalSeparator = locale.equals(Locale.US) ? '.' : symbols.getDecimalSeparator();
+        
+        if (writeHeader) {
+            appendText(CsvEventSink.HEADER);
+        }
+    }
+    
+    /**
+     * Продолжает запись в файл прерванного прогона: оставляет заголовок
+     * и первые rows строк, отбрасывает записанное после них и дописывает
+     * новые строки в конец (см. model.LineSnapshot.getRecordedEvents()).
+     */
+    public static FastCsvEventSink resume(String filePath, long rows) throws IOException {
+        Path path = Paths.get(filePath);
+        // Заголовок - тоже строка
+        long lines = rows + 1;
+        long offset = 0;
+        byte[] chunk = new byte[1 << 16];
+        try (InputStream in = Files.newInputStream(path)) {
+            int read;
+            while (lines > 0 && (read = in.read(chunk)) > 0) {
+                for (int i = 0; i < read && lines > 0; i++) {
+                    if (chunk[i] == '\n') {
+                        lines--;
+                    }
+                    offset++;
+                }
+            }
+        }
+        if (lines > 0) {
+            throw new IOException("Output " + filePath + " has fewer than " + rows + " rows to resume from");
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(offset);
+        }
+        return new FastCsvEventSink(new FileWriter(filePath, true), false);
+    }
+    
+    @Override
+    public void record(double time, String productionCenter, int workersCount, int bufferCount) {
+        try {
+            appendTime(time);
+            appendText(", ");
+            appendText(productionCenter);
+            appendText(", ");
+            appendInt(workersCount);
+            appendText(", ");
+            appendInt(bufferCount);
+            appendChar('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    @Override
+    public void flush() {
+        try {
+            flushBuffer();
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBuffer();
+        } finally {
+            writer.close();
+        }
+    }
+    
+    private void appendTime(double time) throws IOException {
+        double scaled = time * 10;
+        if (Math.abs(time) >= MAX_FAST_TIME || scaled != Math.rint(scaled)) {
+            appendText(String.format("%.1f", time));
+            return;
+        }
+        
+        long tenths = (long) scaled;
+        if (Double.doubleToRawLongBits(time) < 0) {
+            appendChar('-');
+            tenths = -tenths;
+        }
+        appendLong(tenths / 10);
+        appendChar(decimalSeparator);
+        appendChar((char) (zeroDigit + tenths % 10));
+    }
+    
+    private void appendInt(int value) throws IOException {
+        if (value < 0) {
+            appendChar('-');
+            appendLong(-(long) value);
+        } else {
+            appendLong(value);
+        }
+    }
+    
+    private void appendLong(long value) throws IOException {
+        int count = 0;
+        do {
+            digits[count++] = (char) (zeroDigit + value % 10);
+            value /= 10;
+        } while (value > 0);
+        
+        if (position + count > buffer.length) {
+            flushBuffer();
+        }
+        while (count > 0) {
+            buffer[position++] = digits[--count];
+        }
+    }
+    
+    private void appendText(String text) throws IOException {
+        int length = text.length();
+        if (position + length > buffer.length) {
+            flushBuffer();
+            if (length > buffer.length) {
+                writer.write(text);
+                return;
+            }
+        }
+        text.getChars(0, length, buffer, position);
+        position += length;
+    }
+    
+    private void appendChar(char c) throws IOException {
+        if (position == buffer.length) {
+            flushBuffer();
+        }
+        buffer[position++] = c;
+    }
+    
+    private void flushBuffer() throws IOException {
+        if (position > 0) {
+            writer.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
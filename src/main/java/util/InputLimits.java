@@ -0,0 +1,124 @@
+package util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * Ограничения размера входных данных, которые проверяют все читатели линии.
+ * DEFAULT - исходные ограничения задачи, UNLIMITED снимает их, оставляя
+ * только проверки положительности и структуры линии.
+ *
+ * Профиль можно загрузить из файла свойств:
+ *
+ * <pre>
+ * processing.time.max = 100
+ * workers.max = 400
+ * details.max = unlimited
+ * centers.max = 200
+ * </pre>
+ *
+ * Отсутствующие ключи берутся из DEFAULT.
+ */
+public final class InputLimits {
+    public static final String UNLIMITED_VALUE = "unlimited";
+    
+    public static final InputLimits DEFAULT = new InputLimits(10, 40, 2000, 20);
+    public static final InputLimits UNLIMITED = new InputLimits(
+        Double.POSITIVE_INFINITY, Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+    
+    private final double maxProcessingTime;
+    private final int maxTotalWorkers;
+    private final int maxDetailsCount;
+    private final int maxCenters;
+    
+    public InputLimits(double maxProcessingTime, int maxTotalWorkers, int maxDetailsCount, int maxCenters) {
+        if (maxProcessingTime <= 0 || maxTotalWorkers <= 0 || maxDetailsCount <= 0 || maxCenters <= 0) {
+            throw new IllegalArgumentException("Input limits must be positive");
+        }
+        this.maxProcessingTime = maxProcessingTime;
+        this.maxTotalWorkers = maxTotalWorkers;
+        this.maxDetailsCount = maxDetailsCount;
+        this.maxCenters = maxCenters;
+    }
+    
+    /**
+     * Профиль по имени (default, unlimited) или из файла свойств.
+     */
+    public static InputLimits forName(String nameOrPath) throws IOException {
+        if ("default".equalsIgnoreCase(nameOrPath)) {
+            return DEFAULT;
+        }
+        if (UNLIMITED_VALUE.equalsIgnoreCase(nameOrPath)) {
+            return UNLIMITED;
+        }
+        return load(nameOrPath);
+    }
+    
+    public static InputLimits load(String filePath) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(Paths.get(filePath), StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        return fromProperties(properties);
+    }
+    
+    public static InputLimits fromProperties(Properties properties) {
+        String time = properties.getProperty("processing.time.max");
+        return new InputLimits(
+            time == null ? DEFAULT.maxProcessingTime
+                : isUnlimited(time) ? Double.POSITIVE_INFINITY : Double.parseDouble(time.trim()),
+            intLimit(properties, "workers.max", DEFAULT.maxTotalWorkers),
+            intLimit(properties, "details.max", DEFAULT.maxDetailsCount),
+            intLimit(properties, "centers.max", DEFAULT.maxCenters));
+    }
+    
+    private static int intLimit(Properties properties, String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        return isUnlimited(value) ? Integer.MAX_VALUE : Integer.parseInt(value.trim());
+    }
+    
+    private static boolean isUnlimited(String value) {
+        return UNLIMITED_VALUE.equalsIgnoreCase(value.trim());
+    }
+    
+    public double getMaxProcessingTime() {
+        return maxProcessingTime;
+    }
+    
+    public int getMaxTotalWorkers() {
+        return maxTotalWorkers;
+    }
+    
+    public int getMaxDetailsCount() {
+        return maxDetailsCount;
+    }
+    
+    public int getMaxCenters() {
+        return maxCenters;
+    }
+    
+    @Override
+    public String toString() {
+        return "processing.time.max=" + format(maxProcessingTime)
+            + " workers.max=" + format(maxTotalWorkers)
+            + " details.max=" + format(maxDetailsCount)
+            + " centers.max=" + format(maxCenters);
+    }
+    
+    /**
+     * Значение ограничения для сообщений: 10 вместо 10.0, unlimited вместо бесконечности.
+     */
+    static String format(double limit) {
+        if (Double.isInfinite(limit) || limit == Integer.MAX_VALUE) {
+            return UNLIMITED_VALUE;
+        }
+        return limit == Math.rint(limit) ? String.valueOf((long) limit) : String.valueOf(limit);
+    }
+}
@@ -0,0 +1,93 @@
+package util;
+
+import model.LineConfiguration;
+import model.LineConfiguration.CenterSpec;
+import model.LineConfiguration.Connection;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Компактный двоичный формат описания линии (расширение .lineb).
+ * Файл: MAGIC, VERSION и тело - центры (имя, время обработки, максимум рабочих),
+ * связи (от, к), начальный центр, количество деталей и рабочих.
+ * Строки записаны в modified UTF-8 DataOutputStream, числа - big-endian.
+ */
+public class LineBinaryFormat {
+    private static final int MAGIC = 0x504C4442;
+    private static final int VERSION = 1;
+    
+    public static LineConfiguration read(String filePath) throws IOException {
+        return read(filePath, InputLimits.DEFAULT);
+    }
+    
+    public static LineConfiguration read(String filePath, InputLimits limits) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(filePath)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a binary line definition: " + filePath);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported binary line definition version: " + version);
+            }
+            LineConfiguration configuration = readBody(in);
+            LineValidator.validateConfiguration(configuration, limits);
+            return configuration;
+        }
+    }
+    
+    public static void write(LineConfiguration configuration, String filePath) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filePath)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            writeBody(out, configuration);
+        }
+    }
+    
+    /**
+     * Записывает тело формата без заголовка (используется и кэшем моделей).
+     */
+    static void writeBody(DataOutputStream out, LineConfiguration configuration) throws IOException {
+        out.writeInt(configuration.getCenters().size());
+        for (CenterSpec center : configuration.getCenters()) {
+            out.writeUTF(center.getName());
+            out.writeDouble(center.getProcessingTime());
+            out.writeInt(center.getMaxWorkers());
+        }
+        out.writeInt(configuration.getConnections().size());
+        for (Connection connection : configuration.getConnections()) {
+            out.writeUTF(connection.getFrom());
+            out.writeUTF(connection.getTo());
+        }
+        out.writeBoolean(configuration.getInitialCenter() != null);
+        if (configuration.getInitialCenter() != null) {
+            out.writeUTF(configuration.getInitialCenter());
+        }
+        out.writeInt(configuration.getDetailsCount());
+        out.writeInt(configuration.getTotalWorkers());
+    }
+    
+    static LineConfiguration readBody(DataInputStream in) throws IOException {
+        int centersCount = in.readInt();
+        List<CenterSpec> centers = new ArrayList<>();
+        for (int i = 0; i < centersCount; i++) {
+            centers.add(new CenterSpec(in.readUTF(), in.readDouble(), in.readInt()));
+        }
+        int connectionsCount = in.readInt();
+        List<Connection> connections = new ArrayList<>();
+        for (int i = 0; i < connectionsCount; i++) {
+            connections.add(new Connection(in.readUTF(), in.readUTF()));
+        }
+        String initialCenter = in.readBoolean() ? in.readUTF() : null;
+        int detailsCount = in.readInt();
+        int totalWorkers = in.readInt();
+        return new LineConfiguration(centers, connections, initialCenter, detailsCount, totalWorkers);
+    }
+}
@@ -0,0 +1,58 @@
+package util;
+
+import model.LineConfiguration;
+
+import java.io.IOException;
+
+/**
+ * Преобразует описание линии между форматами Excel, .line и .lineb
+ * (формат выбирается по расширению).
+ * Порядок центров и связей сохраняется, поэтому линия из результата
+ * симулируется так же, как из исходного файла.
+ */
+public class LineConverter {
+    private static final String USAGE =
+        "Usage: java -cp program.jar util.LineConverter <input.xlsx|.line|.lineb> <output.xlsx|.line|.lineb>"
+            + " [--limits=default|unlimited|FILE]";
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.out.println(USAGE);
+            return;
+        }
+        InputLimits limits = InputLimits.DEFAULT;
+        if (args.length == 3) {
+            if (!args[2].startsWith("--limits=")) {
+                System.out.println(USAGE);
+                return;
+            }
+            limits = InputLimits.forName(args[2].substring("--limits=".length()));
+        }
+        convert(args[0], args[1], limits);
+    }
+    
+    public static void convert(String inputFile, String outputFile) throws IOException {
+        convert(inputFile, outputFile, InputLimits.DEFAULT);
+    }
+    
+    /**
+     * Преобразует файл, проверяя входные данные ограничениями limits
+     * (например, InputLimits.UNLIMITED для сгенерированных линий).
+     */
+    public static void convert(String inputFile, String outputFile, InputLimits limits) throws IOException {
+        write(LineReader.readConfiguration(inputFile, limits), outputFile);
+    }
+    
+    /**
+     * Записывает конфигурацию в файл: .line, .lineb, остальные - Excel.
+     */
+    public static void write(LineConfiguration configuration, String filePath) throws IOException {
+        if (LineReader.isTextFormat(filePath)) {
+            LineTextFormat.write(configuration, filePath);
+        } else if (LineReader.isBinaryFormat(filePath)) {
+            LineBinaryFormat.write(configuration, filePath);
+        } else {
+            ExcelWriter.write(configuration, filePath);
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package util;
+
+import model.LineConfiguration;
+import model.LineConfiguration.CenterSpec;
+import model.LineConfiguration.Connection;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Генератор случайных производственных линий для нагрузочного тестирования.
+ * Линия - ациклический граф из слоёв: начальный центр, слои промежуточных
+ * центров и конечный центр. Каждый центр слоя получает от 1 до maxFanIn
+ * входящих связей из предыдущего слоя, а каждый центр предыдущего слоя -
+ * хотя бы одну исходящую. Ограничения нарушаются, только если иначе граф
+ * не собрать: слой шире следующего × maxFanIn или уже, чем нужно для
+ * maxFanOut. Одинаковый seed даёт одинаковую линию.
+ *
+ * Результат - LineConfiguration в памяти либо файл .xlsx, .line или .lineb.
+ */
+public class LineGenerator {
+    private static final String USAGE =
+        "Usage: java -cp program.jar util.LineGenerator <output.xlsx|.line|.lineb> [--centers=N] [--width=N]\n" +
+        "       [--fan-in=N] [--fan-out=N] [--time=fixed:T|uniform:MIN:MAX|exponential:MIN:MAX]\n" +
+        "       [--max-workers=N] [--details=N] [--workers=N] [--seed=N] [--validate]\n" +
+        "--validate checks the generated structure without the input size limits";
+    
+    /**
+     * Распределение времени обработки центров.
+     */
+    public enum TimeDistribution {
+        /** Всегда min. */
+        FIXED,
+        /** Равномерно на [min, max]. */
+        UNIFORM,
+        /** min плюс экспоненциальная величина со средним (max - min) / 4, не больше max. */
+        EXPONENTIAL
+    }
+    
+    private int centers = 20;
+    private int layerWidth = 0;
+    private int maxFanIn = 2;
+    private int maxFanOut = 2;
+    private TimeDistribution timeDistribution = TimeDistribution.UNIFORM;
+    private double minTime = 0.5;
+    private double maxTime = 10;
+    private int maxWorkers = 3;
+    private int detailsCount = 1000;
+    private int totalWorkers = 40;
+    private long seed = 1;
+    
+    public LineGenerator setCenters(int centers) {
+        if (centers < 2) {
+            throw new IllegalArgumentException("Line must have at least 2 centers");
+        }
+        this.centers = centers;
+        return this;
+    }
+    
+    /**
+     * @param layerWidth центров в слое; 0 - около корня из количества центров
+     */
+    public LineGenerator setLayerWidth(int layerWidth) {
+        if (layerWidth < 0) {
+            throw new IllegalArgumentException("Layer width must not be negative");
+        }
+        this.layerWidth = layerWidth;
+        return this;
+    }
+    
+    public LineGenerator setMaxFanIn(int maxFanIn) {
+        if (maxFanIn < 1) {
+            throw new IllegalArgumentException("Fan-in must be positive");
+        }
+        this.maxFanIn = maxFanIn;
+        return this;
+    }
+    
+    public LineGenerator setMaxFanOut(int maxFanOut) {
+        if (maxFanOut < 1) {
+            throw new IllegalArgumentException("Fan-out must be positive");
+        }
+        this.maxFanOut = maxFanOut;
+        return this;
+    }
+    
+    public LineGenerator setProcessingTimes(TimeDistribution distribution, double min, double max) {
+        if (min <= 0 || max < min) {
+            throw new IllegalArgumentException("Invalid processing time range: " + min + ".." + max);
+        }
+        this.timeDistribution = distribution;
+        this.minTime = min;
+        this.maxTime = max;
+        return this;
+    }
+    
+    /**
+     * @param maxWorkers максимальное количество рабочих центра выбирается от 1 до maxWorkers
+     */
+    public LineGenerator setMaxWorkers(int maxWorkers) {
+        if (maxWorkers < 1) {
+            throw new IllegalArgumentException("Max workers must be positive");
+        }
+        this.maxWorkers = maxWorkers;
+        return this;
+    }
+    
+    public LineGenerator setDetailsCount(int detailsCount) {
+        this.detailsCount = detailsCount;
+        return this;
+    }
+    
+    public LineGenerator setTotalWorkers(int totalWorkers) {
+        this.totalWorkers = totalWorkers;
+        return this;
+    }
+    
+    public LineGenerator setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+    
+    public LineConfiguration generate() {
+        Random random = new Random(seed);
+        
+        List<CenterSpec> specs = new ArrayList<>(centers);
+        for (int i = 0; i < centers; i++) {
+            specs.add(new CenterSpec(name(i), nextProcessingTime(random), 1 + random.nextInt(maxWorkers)));
+        }
+        
+        // Центр 0 - начальный, centers - 1 - конечный, между ними слои
+        // почти одинакового размера (не шире layerWidth)
+        List<Connection> connections = new ArrayList<>();
+        int inner = centers - 2;
+        int width = layerWidth > 0 ? layerWidth : Math.max(1, (int) Math.round(Math.sqrt(inner)));
+        int layers = (inner + width - 1) / width;
+        int[] outgoing = new int[centers];
+        int previousStart = 0;
+        int previousEnd = 1;
+        for (int layer = 0; layer < layers; layer++) {
+            int start = 1 + (int) ((long) layer * inner / layers);
+            int end = 1 + (int) ((long) (layer + 1) * inner / layers);
+            connectLayers(connections, outgoing, previousStart, previousEnd, start, end, random);
+            previousStart = start;
+            previousEnd = end;
+        }
+        connectLayers(connections, outgoing, previousStart, previousEnd, centers - 1, centers, random);
+        
+        return new LineConfiguration(specs, connections, name(0), detailsCount, totalWorkers);
+    }
+    
+    /**
+     * Связывает слой [fromStart, fromEnd) со следующим слоем [toStart, toEnd).
+     */
+    private void connectLayers(List<Connection> connections, int[] outgoing,
+                               int fromStart, int fromEnd, int toStart, int toEnd, Random random) {
+        int fromCount = fromEnd - fromStart;
+        int[] incoming = new int[toEnd - toStart];
+        
+        // Входящие связи: от 1 до maxFanIn различных центров предыдущего слоя,
+        // центры с исчерпанным maxFanOut берутся, только если других не осталось
+        for (int to = toStart; to < toEnd; to++) {
+            int fanIn = 1 + random.nextInt(Math.min(maxFanIn, fromCount));
+            int offset = random.nextInt(fromCount);
+            for (int k = 0; k < fromCount && incoming[to - toStart] < fanIn; k++) {
+                int from = fromStart + (offset + k) % fromCount;
+                boolean spare = outgoing[from] < maxFanOut;
+                boolean lastChance = fromCount - k <= fanIn - incoming[to - toStart];
+                if (spare || lastChance) {
+                    connections.add(new Connection(name(from), name(to)));
+                    outgoing[from]++;
+                    incoming[to - toStart]++;
+                }
+            }
+        }
+        
+        // Центры без исходящих связей присоединяем к наименее загруженному центру
+        // следующего слоя, иначе они стали бы лишними конечными центрами
+        for (int from = fromStart; from < fromEnd; from++) {
+            if (outgoing[from] == 0) {
+                int best = 0;
+                for (int k = 1; k < incoming.length; k++) {
+                    if (incoming[k] < incoming[best]) {
+                        best = k;
+                    }
+                }
+                connections.add(new Connection(name(from), name(toStart + best)));
+                outgoing[from]++;
+                incoming[best]++;
+            }
+        }
+    }
+    
+    private double nextProcessingTime(Random random) {
+        double time;
+        switch (timeDistribution) {
+            case FIXED:
+                return minTime;
+            case UNIFORM:
+                time = minTime + random.nextDouble() * (maxTime - minTime);
+                break;
+            case EXPONENTIAL:
+                time = Math.min(maxTime, minTime - Math.log(1 - random.nextDouble()) * (maxTime - minTime) / 4);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown distribution: " + timeDistribution);
+        }
+        // Время с точностью до 0.1 минуты, как во входных файлах
+        return Math.max(minTime, Math.round(time * 10) / 10.0);
+    }
+    
+    private static String name(int index) {
+        return "Центр " + (index + 1);
+    }
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println(USAGE);
+            return;
+        }
+        
+        LineGenerator generator = new LineGenerator();
+        boolean validate = false;
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            int separator = arg.indexOf('=');
+            String value = separator < 0 ? "" : arg.substring(separator + 1);
+            String key = separator < 0 ? arg : arg.substring(0, separator);
+            switch (key) {
+                case "--centers":
+                    generator.setCenters(Integer.parseInt(value));
+                    break;
+                case "--width":
+                    generator.setLayerWidth(Integer.parseInt(value));
+                    break;
+                case "--fan-in":
+                    generator.setMaxFanIn(Integer.parseInt(value));
+                    break;
+                case "--fan-out":
+                    generator.setMaxFanOut(Integer.parseInt(value));
+                    break;
+                case "--time": {
+                    String[] parts = value.split(":");
+                    TimeDistribution distribution = TimeDistribution.valueOf(parts[0].toUpperCase());
+                    double min = Double.parseDouble(parts[1]);
+                    double max = parts.length > 2 ? Double.parseDouble(parts[2]) : min;
+                    generator.setProcessingTimes(distribution, min, max);
+                    break;
+                }
+                case "--max-workers":
+                    generator.setMaxWorkers(Integer.parseInt(value));
+                    break;
+                case "--details":
+                    generator.setDetailsCount(Integer.parseInt(value));
+                    break;
+                case "--workers":
+                    generator.setTotalWorkers(Integer.parseInt(value));
+                    break;
+                case "--seed":
+                    generator.setSeed(Long.parseLong(value));
+                    break;
+                case "--validate":
+                    validate = true;
+                    break;
+                default:
+                    System.out.println(USAGE);
+                    return;
+            }
+        }
+        
+        LineConfiguration configuration = generator.generate();
+        if (validate) {
+            LineValidator.validateStructure(configuration);
+        }
+        LineConverter.write(configuration, args[0]);
+        System.out.println("Generated " + configuration.getCenters().size() + " centers, "
+            + configuration.getConnections().size() + " connections, "
+            + configuration.getDetailsCount() + " details: " + args[0]);
+    }
+}
@@ -0,0 +1,54 @@
+package util;
+
+import model.LineConfiguration;
+import model.ProductionLine;
+
+import java.io.IOException;
+
+/**
+ * Чтение описания линии в любом поддерживаемом формате по расширению файла:
+ * .line - текстовый формат (LineTextFormat), .lineb - двоичный (LineBinaryFormat),
+ * остальные - Excel (ExcelReader). Текстовый и двоичный форматы читаются
+ * без Apache POI.
+ */
+public class LineReader {
+    public static final String TEXT_EXTENSION = ".line";
+    public static final String BINARY_EXTENSION = ".lineb";
+    
+    public static ProductionLine read(String filePath) throws IOException {
+        return readConfiguration(filePath).createLine();
+    }
+    
+    public static ProductionLine read(String filePath, InputLimits limits) throws IOException {
+        return readConfiguration(filePath, limits).createLine();
+    }
+    
+    public static LineConfiguration readConfiguration(String filePath) throws IOException {
+        return readConfiguration(filePath, InputLimits.DEFAULT);
+    }
+    
+    /**
+     * @param limits ограничения размера входных данных, которые проверяет читатель
+     */
+    public static LineConfiguration readConfiguration(String filePath, InputLimits limits) throws IOException {
+        if (isTextFormat(filePath)) {
+            return LineTextFormat.read(filePath, limits);
+        }
+        if (isBinaryFormat(filePath)) {
+            return LineBinaryFormat.read(filePath, limits);
+        }
+        return ExcelReader.readConfiguration(filePath, limits);
+    }
+    
+    public static boolean isExcel(String filePath) {
+        return !isTextFormat(filePath) && !isBinaryFormat(filePath);
+    }
+    
+    static boolean isTextFormat(String filePath) {
+        return filePath.toLowerCase().endsWith(TEXT_EXTENSION);
+    }
+    
+    static boolean isBinaryFormat(String filePath) {
+        return filePath.toLowerCase().endsWith(BINARY_EXTENSION);
+    }
+}
@@ -0,0 +1,216 @@
+package util;
+
+import model.LineConfiguration;
+import model.LineConfiguration.CenterSpec;
+import model.LineConfiguration.Connection;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Текстовый формат описания линии (расширение .line) с теми же тремя
+ * разделами, что и входной Excel файл:
+ *
+ * <pre>
+ * # комментарий
+ * [centers]
+ * # название, время обработки, максимальное количество рабочих
+ * Центр 1, 2.0, 2
+ * [connections]
+ * # от какого центра, к какому центру
+ * Центр 1, Центр 2
+ * [initial]
+ * workers = 5
+ * center = Центр 1
+ * details = 10
+ * </pre>
+ *
+ * Значения разделяются запятыми, пробелы по краям отбрасываются. Название
+ * с запятой, кавычкой или пробелами по краям записывается в двойных кавычках,
+ * кавычка внутри удваивается. Файл в UTF-8.
+ */
+public class LineTextFormat {
+    
+    public static LineConfiguration read(String filePath) throws IOException {
+        return read(filePath, InputLimits.DEFAULT);
+    }
+    
+    public static LineConfiguration read(String filePath, InputLimits limits) throws IOException {
+        try (Reader reader = new FileReader(filePath, StandardCharsets.UTF_8)) {
+            return read(reader, limits);
+        }
+    }
+    
+    public static LineConfiguration read(Reader source) throws IOException {
+        return read(source, InputLimits.DEFAULT);
+    }
+    
+    public static LineConfiguration read(Reader source, InputLimits limits) throws IOException {
+        BufferedReader reader = new BufferedReader(source);
+        // Повторное описание центра заменяет прежнее, как и при чтении Excel
+        Map<String, CenterSpec> centers = new LinkedHashMap<>();
+        List<Connection> connections = new ArrayList<>();
+        String initialCenter = null;
+        int totalWorkers = 0;
+        int detailsCount = 0;
+        
+        String section = null;
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            if (trimmed.startsWith("[") && trimmed.endsWith("]")) {
+                section = trimmed.substring(1, trimmed.length() - 1).trim();
+                continue;
+            }
+            
+            try {
+                if ("centers".equals(section)) {
+                    List<String> fields = splitFields(trimmed, 3);
+                    double processingTime = Double.parseDouble(fields.get(1));
+                    int maxWorkers = Integer.parseInt(fields.get(2));
+                    LineValidator.validateCenterData(processingTime, maxWorkers, limits);
+                    centers.put(fields.get(0), new CenterSpec(fields.get(0), processingTime, maxWorkers));
+                } else if ("connections".equals(section)) {
+                    List<String> fields = splitFields(trimmed, 2);
+                    connections.add(new Connection(fields.get(0), fields.get(1)));
+                } else if ("initial".equals(section)) {
+                    int separator = trimmed.indexOf('=');
+                    if (separator < 0) {
+                        throw new IllegalArgumentException("Expected key = value");
+                    }
+                    String key = trimmed.substring(0, separator).trim();
+                    String value = trimmed.substring(separator + 1).trim();
+                    switch (key) {
+                        case "workers":
+                            totalWorkers = Integer.parseInt(value);
+                            break;
+                        case "center":
+                            initialCenter = splitFields(value, 1).get(0);
+                            break;
+                        case "details":
+                            detailsCount = Integer.parseInt(value);
+                            break;
+                        default:
+                            throw new IllegalArgumentException("Unknown key: " + key);
+                    }
+                } else {
+                    throw new IllegalArgumentException("Unknown section: " + section);
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        
+        LineValidator.validateInitialData(totalWorkers, detailsCount, limits);
+        LineConfiguration configuration = new LineConfiguration(new ArrayList<>(centers.values()), connections,
+            initialCenter, detailsCount, totalWorkers);
+        LineValidator.validateCenters(configuration, limits);
+        return configuration;
+    }
+    
+    public static void write(LineConfiguration configuration, String filePath) throws IOException {
+        try (Writer writer = new FileWriter(filePath, StandardCharsets.UTF_8)) {
+            write(configuration, writer);
+        }
+    }
+    
+    public static void write(LineConfiguration configuration, Writer writer) throws IOException {
+        writer.write("[centers]\n");
+        writer.write("# name, processing time, max workers\n");
+        for (CenterSpec center : configuration.getCenters()) {
+            writer.write(quote(center.getName()) + ", " + center.getProcessingTime() + ", " + center.getMaxWorkers() + "\n");
+        }
+        writer.write("\n[connections]\n");
+        writer.write("# from, to\n");
+        for (Connection connection : configuration.getConnections()) {
+            writer.write(quote(connection.getFrom()) + ", " + quote(connection.getTo()) + "\n");
+        }
+        writer.write("\n[initial]\n");
+        writer.write("workers = " + configuration.getTotalWorkers() + "\n");
+        if (configuration.getInitialCenter() != null) {
+            writer.write("center = " + quote(configuration.getInitialCenter()) + "\n");
+        }
+        writer.write("details = " + configuration.getDetailsCount() + "\n");
+    }
+    
+    /**
+     * Разбивает строку на count полей через запятую с учётом кавычек.
+     */
+    static List<String> splitFields(String line, int count) {
+        List<String> fields = new ArrayList<>(count);
+        int position = 0;
+        while (true) {
+            while (position < line.length() && line.charAt(position) == ' ') {
+                position++;
+            }
+            if (position < line.length() && line.charAt(position) == '"') {
+                StringBuilder field = new StringBuilder();
+                position++;
+                while (true) {
+                    if (position >= line.length()) {
+                        throw new IllegalArgumentException("Unterminated quote");
+                    }
+                    char c = line.charAt(position++);
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (position < line.length() && line.charAt(position) == '"') {
+                        field.append('"');
+                        position++;
+                    } else {
+                        break;
+                    }
+                }
+                fields.add(field.toString());
+                while (position < line.length() && line.charAt(position) == ' ') {
+                    position++;
+                }
+            } else {
+                int end = line.indexOf(',', position);
+                if (end < 0) {
+                    end = line.length();
+                }
+                fields.add(line.substring(position, end).trim());
+                position = end;
+            }
+            
+            if (position >= line.length()) {
+                break;
+            }
+            if (line.charAt(position) != ',') {
+                throw new IllegalArgumentException("Expected ',' after quoted value");
+            }
+            position++;
+        }
+        if (fields.size() != count) {
+            throw new IllegalArgumentException("Expected " + count + " values, found " + fields.size());
+        }
+        return fields;
+    }
+    
+    private static String quote(String value) {
+        boolean plain = !value.isEmpty()
+            && value.indexOf(',') < 0
+            && value.indexOf('"') < 0
+            && value.charAt(0) != '#'
+            && value.charAt(0) != '['
+            && value.trim().equals(value);
+        if (plain) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,131 @@
+package util;
+
+import model.LineConfiguration;
+import model.LineConfiguration.CenterSpec;
+import model.LineTopology;
+
+/**
+ * Проверки входных данных линии, общие для всех форматов входных файлов.
+ * Не зависит от Apache POI.
+ */
+final class LineValidator {
+    
+    private LineValidator() {
+    }
+    
+    /**
+     * Полная проверка готовой конфигурации: параметры центров, начальные данные
+     * и структура линии. Для форматов, которые читают конфигурацию целиком.
+     */
+    static void validateConfiguration(LineConfiguration configuration, InputLimits limits) {
+        for (CenterSpec center : configuration.getCenters()) {
+            validateCenterData(center.getProcessingTime(), center.getMaxWorkers(), limits);
+        }
+        validateInitialData(configuration.getTotalWorkers(), configuration.getDetailsCount(), limits);
+        validateCenters(configuration, limits);
+    }
+    
+    /**
+     * Проверка без ограничений размера входных данных: значения положительны,
+     * структура линии корректна. Для сгенерированных нагрузочных линий.
+     */
+    static void validateStructure(LineConfiguration configuration) {
+        validateConfiguration(configuration, InputLimits.UNLIMITED);
+    }
+    
+    static void validateCenters(LineConfiguration configuration, InputLimits limits) {
+        validateCentersCount(configuration.getCenters().size(), limits);
+        LineTopology topology = LineTopology.compile(configuration);
+        int count = topology.getCenterCount();
+        
+        // Проверяем наличие ровно одного начального и конечного центра
+        int initialCount = topology.getInitialCenter() >= 0 ? 1 : 0;
+        int finalCount = 0;
+        for (int i = 0; i < count; i++) {
+            if (topology.isFinal(i)) {
+                finalCount++;
+            }
+        }
+        
+        if (initialCount != 1 || finalCount != 1) {
+            throw new IllegalStateException(
+                "Must have exactly one initial center and one final center. " +
+                "Found: " + initialCount + " initial and " + finalCount + " final centers.");
+        }
+        
+        // Проверяем отсутствие циклов
+        checkForCycles(topology);
+    }
+    
+    /**
+     * Топологическая сортировка без рекурсии (алгоритм Кана), поэтому
+     * глубина линии не ограничена размером стека: если обойти удаётся
+     * не все центры, оставшиеся лежат на цикле или за ним.
+     */
+    private static void checkForCycles(LineTopology topology) {
+        int count = topology.getCenterCount();
+        int[] incoming = new int[count];
+        for (int i = 0; i < count; i++) {
+            for (int k = 0; k < topology.getNextCount(i); k++) {
+                incoming[topology.getNextCenter(i, k)]++;
+            }
+        }
+        
+        int[] ready = new int[count];
+        int readyCount = 0;
+        for (int i = 0; i < count; i++) {
+            if (incoming[i] == 0) {
+                ready[readyCount++] = i;
+            }
+        }
+        
+        int visited = 0;
+        while (readyCount > 0) {
+            int center = ready[--readyCount];
+            visited++;
+            for (int k = 0; k < topology.getNextCount(center); k++) {
+                int next = topology.getNextCenter(center, k);
+                if (--incoming[next] == 0) {
+                    ready[readyCount++] = next;
+                }
+            }
+        }
+        
+        if (visited != count) {
+            throw new IllegalStateException("Cycle detected in production centers configuration");
+        }
+    }
+    
+    static void validateCenterData(double processingTime, int maxWorkers, InputLimits limits) {
+        double maxTime = limits.getMaxProcessingTime();
+        if (processingTime <= 0 || processingTime > maxTime) {
+            throw new IllegalArgumentException(Double.isInfinite(maxTime)
+                ? "Processing time must be positive"
+                : "Processing time must be between 0 and " + InputLimits.format(maxTime) + " minutes");
+        }
+        if (maxWorkers <= 0) {
+            throw new IllegalArgumentException("Max workers must be positive");
+        }
+    }
+    
+    static void validateInitialData(int totalWorkers, int detailsCount, InputLimits limits) {
+        if (totalWorkers <= 0 || totalWorkers > limits.getMaxTotalWorkers()) {
+            throw new IllegalArgumentException(rangeMessage("Total workers", limits.getMaxTotalWorkers()));
+        }
+        if (detailsCount <= 0 || detailsCount > limits.getMaxDetailsCount()) {
+            throw new IllegalArgumentException(rangeMessage("Details count", limits.getMaxDetailsCount()));
+        }
+    }
+    
+    private static String rangeMessage(String value, int max) {
+        return max == Integer.MAX_VALUE
+            ? value + " must be positive"
+            : value + " must be between 1 and " + max;
+    }
+    
+    private static void validateCentersCount(int count, InputLimits limits) {
+        if (count > limits.getMaxCenters()) {
+            throw new IllegalArgumentException("Maximum number of production centers is " + limits.getMaxCenters());
+        }
+    }
+}
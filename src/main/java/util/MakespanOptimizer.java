@@ -0,0 +1,374 @@
+package util;
+
+import model.AllocationPolicy;
+import model.LineConfiguration;
+import model.LineTopology;
+import model.ProductionLine;
+import model.WorkerAllocationStrategy;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Поиск распределения рабочих с наименьшим временем выполнения (makespan).
+ * Кандидат - стратегия распределения (AllocationPolicy) и ограничения
+ * рабочих каждого центра от 1 до максимума из входных данных: ограничение
+ * ниже максимума не даёт жадной стратегии забирать рабочих у других центров.
+ *
+ * Локальный поиск: из текущего лучшего кандидата строится пакет соседей
+ * (другая стратегия или новые ограничения у одного-двух центров), пакет
+ * симулируется параллельно, и лучший сосед становится текущим, если он
+ * быстрее. Поиск заканчивается, когда исчерпан бюджет симуляций или
+ * несколько пакетов подряд не дали улучшения. Соседи строятся одним
+ * генератором случайных чисел в потоке поиска, поэтому при одинаковом
+ * seed результат не зависит от количества потоков.
+ *
+ * Как и в ParameterSweep, топология компилируется один раз, а каждый поток
+ * переиспользует свою линию через ProductionLine.reset().
+ */
+public class MakespanOptimizer {
+    private static final String USAGE =
+        "Usage: java -cp program.jar util.MakespanOptimizer <input.xlsx|.line|.lineb> [--evaluations=N]\n" +
+        "       [--batch=N] [--patience=N] [--threads=N] [--seed=N] [--policies=greedy,bottleneck,...]\n" +
+        "       [--limits=default|unlimited|FILE]";
+    
+    private final LineTopology topology;
+    private int maxEvaluations = 2000;
+    private int batchSize = 64;
+    private int patience = 10;
+    private long seed = 1;
+    private AllocationPolicy[] policies = AllocationPolicy.values();
+    
+    public MakespanOptimizer(LineConfiguration configuration) {
+        this.topology = LineTopology.compile(configuration);
+    }
+    
+    public MakespanOptimizer setMaxEvaluations(int maxEvaluations) {
+        this.maxEvaluations = maxEvaluations;
+        return this;
+    }
+    
+    public MakespanOptimizer setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+    
+    /**
+     * @param patience сколько пакетов подряд без улучшения допускается до остановки
+     */
+    public MakespanOptimizer setPatience(int patience) {
+        this.patience = patience;
+        return this;
+    }
+    
+    public MakespanOptimizer setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+    
+    /**
+     * Стратегии, среди которых идёт поиск. По умолчанию - все.
+     */
+    public MakespanOptimizer setPolicies(AllocationPolicy... policies) {
+        if (policies.length == 0) {
+            throw new IllegalArgumentException("At least one allocation policy is required");
+        }
+        this.policies = policies.clone();
+        return this;
+    }
+    
+    /**
+     * Ищет лучший кандидат, симулируя пакеты кандидатов параллельно.
+     *
+     * @param threads количество потоков
+     */
+    public Result optimize(int threads) throws InterruptedException, ExecutionException {
+        long start = System.nanoTime();
+        ThreadLocal<Evaluator> evaluators = ThreadLocal.withInitial(Evaluator::new);
+        Random random = new Random(seed);
+        int count = topology.getCenterCount();
+        int[] maxCaps = new int[count];
+        for (int i = 0; i < count; i++) {
+            maxCaps[i] = topology.getMaxWorkers(i);
+        }
+        
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            // Первый пакет - исходная жадная стратегия и остальные стратегии без ограничений
+            List<Candidate> batch = new ArrayList<>();
+            batch.add(new Candidate(AllocationPolicy.GREEDY, maxCaps));
+            for (AllocationPolicy policy : policies) {
+                if (policy != AllocationPolicy.GREEDY) {
+                    batch.add(new Candidate(policy, maxCaps));
+                }
+            }
+            double[] makespans = evaluate(pool, evaluators, batch);
+            int evaluations = batch.size();
+            double baseline = makespans[0];
+            Candidate best = batch.get(0);
+            double bestMakespan = baseline;
+            for (int k = 1; k < batch.size(); k++) {
+                // Исходная стратегия без ограничений участвует, только если разрешена
+                if (makespans[k] < bestMakespan || !isAllowed(best.policy)) {
+                    best = batch.get(k);
+                    bestMakespan = makespans[k];
+                }
+            }
+            
+            int stale = 0;
+            while (evaluations < maxEvaluations && stale < patience) {
+                batch.clear();
+                int size = Math.min(batchSize, maxEvaluations - evaluations);
+                for (int k = 0; k < size; k++) {
+                    batch.add(neighbour(best, maxCaps, random));
+                }
+                makespans = evaluate(pool, evaluators, batch);
+                evaluations += size;
+                
+                int improved = -1;
+                for (int k = 0; k < size; k++) {
+                    if (makespans[k] < bestMakespan) {
+                        bestMakespan = makespans[k];
+                        improved = k;
+                    }
+                }
+                if (improved >= 0) {
+                    best = batch.get(improved);
+                    stale = 0;
+                } else {
+                    stale++;
+                }
+            }
+            
+            return new Result(topology, best.policy, best.caps, bestMakespan, baseline, evaluations,
+                System.nanoTime() - start);
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    private boolean isAllowed(AllocationPolicy policy) {
+        return Arrays.asList(policies).contains(policy);
+    }
+    
+    /**
+     * Сосед кандидата: другая стратегия (если их несколько) либо новые
+     * ограничения рабочих у одного-двух центров.
+     */
+    private Candidate neighbour(Candidate current, int[] maxCaps, Random random) {
+        if (policies.length > 1 && random.nextInt(5) == 0) {
+            // Только стратегии, отличные от текущей: иначе сосед повторил бы кандидата
+            List<AllocationPolicy> others = new ArrayList<>(Arrays.asList(policies));
+            others.removeIf(policy -> policy == current.policy);
+            if (!others.isEmpty()) {
+                return new Candidate(others.get(random.nextInt(others.size())), current.caps);
+            }
+        }
+        int[] caps = current.caps.clone();
+        int changes = 1 + random.nextInt(2);
+        for (int k = 0; k < changes; k++) {
+            int center = random.nextInt(caps.length);
+            caps[center] = 1 + random.nextInt(maxCaps[center]);
+        }
+        return new Candidate(current.policy, caps);
+    }
+    
+    private static double[] evaluate(ForkJoinPool pool, ThreadLocal<Evaluator> evaluators, List<Candidate> batch)
+            throws InterruptedException, ExecutionException {
+        List<Callable<Double>> tasks = new ArrayList<>(batch.size());
+        for (Candidate candidate : batch) {
+            tasks.add(() -> evaluators.get().simulate(candidate));
+        }
+        double[] makespans = new double[batch.size()];
+        List<Future<Double>> futures = pool.invokeAll(tasks);
+        for (int k = 0; k < makespans.length; k++) {
+            makespans[k] = futures.get(k).get();
+        }
+        return makespans;
+    }
+    
+    /**
+     * Симулирует кандидат на линии этого потока.
+     */
+    private final class Evaluator {
+        private final ProductionLine line = topology.createLine();
+        private final Map<AllocationPolicy, WorkerAllocationStrategy> strategies = new EnumMap<>(AllocationPolicy.class);
+        
+        Evaluator() {
+            line.setKeepEventsInMemory(false);
+        }
+        
+        double simulate(Candidate candidate) {
+            line.reset();
+            for (int i = 0; i < candidate.caps.length; i++) {
+                line.getCenter(i).setMaxWorkers(candidate.caps[i]);
+            }
+            line.setAllocationStrategy(strategies.computeIfAbsent(candidate.policy, AllocationPolicy::create));
+            line.simulate();
+            return line.getTotalTime();
+        }
+    }
+    
+    private static final class Candidate {
+        private final AllocationPolicy policy;
+        private final int[] caps;
+        
+        Candidate(AllocationPolicy policy, int[] caps) {
+            this.policy = policy;
+            this.caps = caps;
+        }
+    }
+    
+    /**
+     * Лучший найденный кандидат в сравнении с исходной жадной стратегией.
+     */
+    public static final class Result {
+        private final LineTopology topology;
+        private final AllocationPolicy policy;
+        private final int[] caps;
+        private final double makespan;
+        private final double baselineMakespan;
+        private final int evaluations;
+        private final long elapsedNanos;
+        
+        Result(LineTopology topology, AllocationPolicy policy, int[] caps, double makespan,
+               double baselineMakespan, int evaluations, long elapsedNanos) {
+            this.topology = topology;
+            this.policy = policy;
+            this.caps = caps;
+            this.makespan = makespan;
+            this.baselineMakespan = baselineMakespan;
+            this.evaluations = evaluations;
+            this.elapsedNanos = elapsedNanos;
+        }
+        
+        public AllocationPolicy getPolicy() {
+            return policy;
+        }
+        
+        /**
+         * @return ограничение рабочих центра с индексом center в найденном кандидате
+         */
+        public int getMaxWorkers(int center) {
+            return caps[center];
+        }
+        
+        public double getMakespan() {
+            return makespan;
+        }
+        
+        /**
+         * @return время выполнения с жадной стратегией и исходными ограничениями
+         */
+        public double getBaselineMakespan() {
+            return baselineMakespan;
+        }
+        
+        public int getEvaluations() {
+            return evaluations;
+        }
+        
+        public double getEvaluationsPerSecond() {
+            return elapsedNanos > 0 ? evaluations / (elapsedNanos / 1e9) : 0;
+        }
+        
+        /**
+         * Конфигурация линии с найденными ограничениями рабочих.
+         */
+        public LineConfiguration applyTo(LineConfiguration configuration) {
+            LineConfiguration result = configuration;
+            for (int i = 0; i < caps.length; i++) {
+                if (caps[i] != topology.getMaxWorkers(i)) {
+                    result = result.withMaxWorkers(topology.getName(i), caps[i]);
+                }
+            }
+            return result;
+        }
+        
+        public String format() {
+            StringBuilder text = new StringBuilder();
+            text.append(String.format("Greedy makespan:  %.1f minutes\n", baselineMakespan));
+            text.append(String.format("Best makespan:    %.1f minutes (%.1f%% faster)\n", makespan,
+                baselineMakespan > 0 ? (baselineMakespan - makespan) / baselineMakespan * 100 : 0));
+            text.append("Strategy:         ").append(policy.name().toLowerCase().replace('_', '-')).append('\n');
+            text.append(String.format("Evaluations:      %d (%.0f per second)\n", evaluations, getEvaluationsPerSecond()));
+            for (int i = 0; i < caps.length; i++) {
+                if (caps[i] != topology.getMaxWorkers(i)) {
+                    text.append(String.format("  %s: max workers %d -> %d\n",
+                        topology.getName(i), topology.getMaxWorkers(i), caps[i]));
+                }
+            }
+            return text.toString();
+        }
+    }
+    
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+        if (args.length < 1) {
+            System.out.println(USAGE);
+            return;
+        }
+        
+        InputLimits limits = InputLimits.DEFAULT;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].startsWith("--limits=")) {
+                limits = InputLimits.forName(args[i].substring("--limits=".length()));
+            }
+        }
+        
+        MakespanOptimizer optimizer = new MakespanOptimizer(LineReader.readConfiguration(args[0], limits));
+        int threads = Runtime.getRuntime().availableProcessors();
+        
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            int separator = arg.indexOf('=');
+            String value = separator < 0 ? "" : arg.substring(separator + 1);
+            String key = separator < 0 ? arg : arg.substring(0, separator);
+            switch (key) {
+                case "--evaluations":
+                    optimizer.setMaxEvaluations(Integer.parseInt(value));
+                    break;
+                case "--batch":
+                    optimizer.setBatchSize(Integer.parseInt(value));
+                    break;
+                case "--patience":
+                    optimizer.setPatience(Integer.parseInt(value));
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(value);
+                    break;
+                case "--seed":
+                    optimizer.setSeed(Long.parseLong(value));
+                    break;
+                case "--policies": {
+                    String[] names = value.split(",");
+                    AllocationPolicy[] policies = new AllocationPolicy[names.length];
+                    for (int k = 0; k < names.length; k++) {
+                        policies[k] = AllocationPolicy.fromName(names[k]);
+                    }
+                    optimizer.setPolicies(policies);
+                    break;
+                }
+                case "--limits":
+                    // Уже учтено при чтении файла
+                    break;
+                default:
+                    System.out.println(USAGE);
+                    return;
+            }
+        }
+        
+        System.out.print(optimizer.optimize(threads).format());
+    }
+}
@@ -0,0 +1,209 @@
+package util;
+
+import model.LineConfiguration;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Кэш разобранных входных файлов. Конфигурация линии хранится в компактном
+ * двоичном виде в файле, имя которого получено из абсолютного пути к xlsx,
+ * а внутри записан SHA-256 содержимого xlsx. Если содержимое изменилось,
+ * запись считается устаревшей: файл разбирается через Apache POI заново
+ * и кэш перезаписывается.
+ *
+ * Формат записи: MAGIC, VERSION, хеш содержимого, время разбора
+ * в наносекундах и тело LineBinaryFormat.
+ */
+public class ModelCache {
+    private static final int MAGIC = 0x504C4D43;
+    // 2: центры в порядке листа Excel; записи версии 1 разбираются заново
+    private static final int VERSION = 2;
+    private static final int HASH_LENGTH = 32;
+    
+    private final Path directory;
+    
+    private boolean lastHit;
+    private long lastLoadNanos;
+    private long lastSavedNanos;
+    private long lastParseNanos;
+    
+    public ModelCache(Path directory) {
+        this.directory = directory;
+    }
+    
+    /**
+     * Каталог по умолчанию: системное свойство simulation.cache.dir
+     * или production-simulation-cache во временном каталоге.
+     */
+    public static Path defaultDirectory() {
+        String configured = System.getProperty("simulation.cache.dir");
+        if (configured != null) {
+            return Paths.get(configured);
+        }
+        return Paths.get(System.getProperty("java.io.tmpdir"), "production-simulation-cache");
+    }
+    
+    /**
+     * Возвращает конфигурацию из кэша, если содержимое файла не менялось,
+     * иначе читает её через ExcelReader и сохраняет в кэш.
+     */
+    public LineConfiguration load(String filePath) throws IOException {
+        return load(filePath, InputLimits.DEFAULT);
+    }
+    
+    /**
+     * То же с заданными ограничениями входных данных. Запись кэша не зависит
+     * от ограничений: конфигурация из кэша проверяется заново.
+     */
+    public LineConfiguration load(String filePath, InputLimits limits) throws IOException {
+        long start = System.nanoTime();
+        byte[] contentHash = hashContent(Paths.get(filePath));
+        Path entry = entryFor(filePath);
+        
+        CachedModel cached = readEntry(entry, contentHash);
+        if (cached != null) {
+            LineValidator.validateConfiguration(cached.configuration, limits);
+            lastHit = true;
+            lastLoadNanos = System.nanoTime() - start;
+            lastSavedNanos = Math.max(0, cached.parseNanos - lastLoadNanos);
+            lastParseNanos = 0;
+            return cached.configuration;
+        }
+        
+        long parseStart = System.nanoTime();
+        LineConfiguration configuration = ExcelReader.readConfiguration(filePath, limits);
+        long parseNanos = System.nanoTime() - parseStart;
+        writeEntry(entry, contentHash, parseNanos, configuration);
+        
+        lastHit = false;
+        lastLoadNanos = System.nanoTime() - start;
+        lastSavedNanos = 0;
+        lastParseNanos = parseNanos;
+        return configuration;
+    }
+    
+    /**
+     * @return true, если последний load() взял конфигурацию из кэша
+     */
+    public boolean isLastHit() {
+        return lastHit;
+    }
+    
+    public long getLastLoadNanos() {
+        return lastLoadNanos;
+    }
+    
+    /**
+     * @return сколько времени сэкономил последний load() по сравнению с разбором xlsx
+     */
+    public long getLastSavedNanos() {
+        return lastSavedNanos;
+    }
+    
+    /**
+     * @return время разбора xlsx в последнем load(); 0, если конфигурация взята из кэша
+     */
+    public long getLastParseNanos() {
+        return lastParseNanos;
+    }
+    
+    Path entryFor(String filePath) {
+        String key = Paths.get(filePath).toAbsolutePath().normalize().toString();
+        byte[] keyHash = newDigest().digest(key.getBytes(StandardCharsets.UTF_8));
+        return directory.resolve(toHex(keyHash, 16) + ".model");
+    }
+    
+    private static CachedModel readEntry(Path entry, byte[] contentHash) {
+        if (!Files.isRegularFile(entry)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(entry)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return null;
+            }
+            byte[] storedHash = new byte[HASH_LENGTH];
+            in.readFully(storedHash);
+            if (!Arrays.equals(storedHash, contentHash)) {
+                return null;
+            }
+            long parseNanos = in.readLong();
+            return new CachedModel(LineBinaryFormat.readBody(in), parseNanos);
+        } catch (IOException e) {
+            // Повреждённая или недописанная запись - разбираем xlsx заново
+            return null;
+        }
+    }
+    
+    private void writeEntry(Path entry, byte[] contentHash, long parseNanos,
+                            LineConfiguration configuration) throws IOException {
+        Files.createDirectories(directory);
+        // Пишем во временный файл и переименовываем, чтобы параллельные запуски
+        // не увидели недописанную запись
+        Path temp = Files.createTempFile(directory, "model", ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.write(contentHash);
+                out.writeLong(parseNanos);
+                LineBinaryFormat.writeBody(out, configuration);
+            }
+            Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    private static byte[] hashContent(Path file) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[8192];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return digest.digest();
+    }
+    
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 обязателен для любой реализации Java
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static String toHex(byte[] bytes, int length) {
+        StringBuilder hex = new StringBuilder(length * 2);
+        for (int i = 0; i < length; i++) {
+            hex.append(Character.forDigit((bytes[i] >> 4) & 0xF, 16));
+            hex.append(Character.forDigit(bytes[i] & 0xF, 16));
+        }
+        return hex.toString();
+    }
+    
+    private static final class CachedModel {
+        private final LineConfiguration configuration;
+        private final long parseNanos;
+        
+        CachedModel(LineConfiguration configuration, long parseNanos) {
+            this.configuration = configuration;
+            this.parseNanos = parseNanos;
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package util;
+
+import model.AllocationPolicy;
+import model.LineConfiguration;
+import model.LineTopology;
+import model.ProductionCenter;
+import model.ProductionLine;
+import model.SimulationMode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Перебор параметров линии: общее количество рабочих, максимальное количество
+ * рабочих отдельных центров и количество деталей. Топология компилируется
+ * один раз, каждый поток создаёт по ней свою линию и переиспользует её
+ * через ProductionLine.reset(), а все комбинации считаются параллельно в ForkJoinPool.
+ */
+public class ParameterSweep {
+    private static final String USAGE =
+        "Usage: java -cp program.jar util.ParameterSweep <input.xlsx|.line|.lineb> [--workers=LIST] [--details=LIST]\n" +
+        "       [--max=CENTER=LIST]... [--threads=N] [--mode=event|tick] [--limits=default|unlimited|FILE]\n" +
+        "       [--strategy=greedy|bottleneck|longest-path|lookahead]\n" +
+        "LIST - values separated by commas (10,20,30) or a range with a step (10..40:5)";
+    
+    private final LineConfiguration base;
+    private int[] totalWorkers;
+    private int[] detailsCounts;
+    private final Map<String, int[]> maxWorkers = new LinkedHashMap<>();
+    private SimulationMode mode = SimulationMode.EVENT;
+    private AllocationPolicy policy = AllocationPolicy.GREEDY;
+    
+    public ParameterSweep(LineConfiguration base) {
+        this.base = base;
+        this.totalWorkers = new int[]{base.getTotalWorkers()};
+        this.detailsCounts = new int[]{base.getDetailsCount()};
+    }
+    
+    public ParameterSweep setTotalWorkers(int... values) {
+        this.totalWorkers = values.clone();
+        return this;
+    }
+    
+    public ParameterSweep setDetailsCounts(int... values) {
+        this.detailsCounts = values.clone();
+        return this;
+    }
+    
+    public ParameterSweep setMaxWorkers(String centerName, int... values) {
+        maxWorkers.put(centerName, values.clone());
+        return this;
+    }
+    
+    public ParameterSweep setMode(SimulationMode mode) {
+        this.mode = mode;
+        return this;
+    }
+    
+    public ParameterSweep setAllocationPolicy(AllocationPolicy policy) {
+        this.policy = policy;
+        return this;
+    }
+    
+    /**
+     * Возвращает все комбинации параметров (декартово произведение).
+     */
+    public List<Scenario> scenarios() {
+        List<Scenario> scenarios = new ArrayList<>();
+        for (int workers : totalWorkers) {
+            for (int details : detailsCounts) {
+                LineConfiguration configuration = base.withTotalWorkers(workers).withDetailsCount(details);
+                addMaxWorkerVariants(scenarios, configuration,
+                    "workers=" + workers + " details=" + details, new ArrayList<>(maxWorkers.keySet()), 0);
+            }
+        }
+        return scenarios;
+    }
+    
+    private void addMaxWorkerVariants(List<Scenario> scenarios, LineConfiguration configuration,
+                                      String description, List<String> centers, int depth) {
+        if (depth == centers.size()) {
+            scenarios.add(new Scenario(configuration, description));
+            return;
+        }
+        String center = centers.get(depth);
+        for (int value : maxWorkers.get(center)) {
+            addMaxWorkerVariants(scenarios, configuration.withMaxWorkers(center, value),
+                description + " " + center + ".max=" + value, centers, depth + 1);
+        }
+    }
+    
+    /**
+     * Симулирует все комбинации параллельно.
+     *
+     * @param threads количество потоков
+     * @return результаты в порядке scenarios()
+     */
+    public List<Result> run(int threads) throws InterruptedException, ExecutionException {
+        LineTopology topology = LineTopology.compile(base);
+        ThreadLocal<ProductionLine> lines = ThreadLocal.withInitial(() -> {
+            ProductionLine line = topology.createLine();
+            line.setAllocationStrategy(policy.create());
+            return line;
+        });
+        
+        List<Callable<Result>> tasks = new ArrayList<>();
+        for (Scenario scenario : scenarios()) {
+            tasks.add(() -> simulate(lines.get(), scenario));
+        }
+        
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            List<Result> results = new ArrayList<>(tasks.size());
+            for (Future<Result> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    private Result simulate(ProductionLine line, Scenario scenario) {
+        LineConfiguration configuration = scenario.getConfiguration();
+        line.reset(configuration.getTotalWorkers(), configuration.getDetailsCount());
+        for (int i = 0; i < configuration.getCenters().size(); i++) {
+            line.getCenter(i).setMaxWorkers(configuration.getCenters().get(i).getMaxWorkers());
+        }
+        line.setMode(mode);
+        line.setKeepEventsInMemory(false);
+        line.simulate();
+        
+        // Время работы = сумма по центрам: обработанные детали × время обработки
+        double busyTime = 0;
+        int processed = 0;
+        for (ProductionCenter center : line.getCenters()) {
+            busyTime += center.getTotalDetailsProcessed() * center.getProcessingTime();
+            if (center.isFinal()) {
+                processed += center.getTotalDetailsProcessed();
+            }
+        }
+        double makespan = line.getTotalTime();
+        int workers = configuration.getTotalWorkers();
+        double utilisation = makespan > 0 && workers > 0 ? busyTime / (workers * makespan) : 0;
+        
+        return new Result(scenario, makespan, utilisation, processed);
+    }
+    
+    public static String formatTable(List<Result> results) {
+        StringBuilder table = new StringBuilder();
+        table.append(String.format("%-60s %12s %12s %10s\n", "Configuration", "Makespan", "Utilisation", "Details"));
+        for (Result result : results) {
+            table.append(String.format("%-60s %12.1f %11.1f%% %10d\n",
+                result.getScenario().getDescription(),
+                result.getMakespan(),
+                result.getUtilisation() * 100,
+                result.getDetailsProcessed()));
+        }
+        return table.toString();
+    }
+    
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+        if (args.length < 1) {
+            System.out.println(USAGE);
+            return;
+        }
+        
+        // Ограничения нужны до чтения файла, поэтому --limits ищем заранее
+        InputLimits limits = InputLimits.DEFAULT;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].startsWith("--limits=")) {
+                limits = InputLimits.forName(args[i].substring("--limits=".length()));
+            }
+        }
+        
+        ParameterSweep sweep = new ParameterSweep(LineReader.readConfiguration(args[0], limits));
+        int threads = Runtime.getRuntime().availableProcessors();
+        
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.startsWith("--workers=")) {
+                sweep.setTotalWorkers(parseValues(arg.substring("--workers=".length())));
+            } else if (arg.startsWith("--details=")) {
+                sweep.setDetailsCounts(parseValues(arg.substring("--details=".length())));
+            } else if (arg.startsWith("--max=") && arg.lastIndexOf('=') > "--max=".length()) {
+                int separator = arg.lastIndexOf('=');
+                sweep.setMaxWorkers(arg.substring("--max=".length(), separator), parseValues(arg.substring(separator + 1)));
+            } else if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(arg.substring("--threads=".length()));
+            } else if (arg.startsWith("--mode=")) {
+                sweep.setMode(SimulationMode.valueOf(arg.substring("--mode=".length()).toUpperCase()));
+            } else if (arg.startsWith("--strategy=")) {
+                sweep.setAllocationPolicy(AllocationPolicy.fromName(arg.substring("--strategy=".length())));
+            } else if (arg.startsWith("--limits=")) {
+                // Уже учтено при чтении файла
+            } else {
+                System.out.println(USAGE);
+                return;
+            }
+        }
+        
+        System.out.print(formatTable(sweep.run(threads)));
+    }
+    
+    /**
+     * Разбирает список значений: "10,20,30" или диапазон "10..40:5" (шаг по умолчанию 1).
+     */
+    static int[] parseValues(String text) {
+        int range = text.indexOf("..");
+        if (range < 0) {
+            String[] parts = text.split(",");
+            int[] values = new int[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                values[i] = Integer.parseInt(parts[i].trim());
+            }
+            return values;
+        }
+        
+        int stepSeparator = text.indexOf(':', range);
+        int from = Integer.parseInt(text.substring(0, range).trim());
+        int to = Integer.parseInt(text.substring(range + 2, stepSeparator < 0 ? text.length() : stepSeparator).trim());
+        int step = stepSeparator < 0 ? 1 : Integer.parseInt(text.substring(stepSeparator + 1).trim());
+        if (step <= 0 || to < from) {
+            throw new IllegalArgumentException("Invalid range: " + text);
+        }
+        
+        int[] values = new int[(to - from) / step + 1];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = from + i * step;
+        }
+        return values;
+    }
+    
+    /**
+     * Одна комбинация параметров.
+     */
+    public static final class Scenario {
+        private final LineConfiguration configuration;
+        private final String description;
+        
+        Scenario(LineConfiguration configuration, String description) {
+            this.configuration = configuration;
+            this.description = description;
+        }
+        
+        public LineConfiguration getConfiguration() {
+            return configuration;
+        }
+        
+        public String getDescription() {
+            return description;
+        }
+    }
+    
+    /**
+     * Итоги симуляции одной комбинации. Загрузка - доля времени рабочих,
+     * затраченного на обработку деталей, от totalWorkers × makespan.
+     * Значение выше 100% означает, что детали дорабатывались после того,
+     * как рабочих центра перераспределили в другие центры.
+     */
+    public static final class Result {
+        private final Scenario scenario;
+        private final double makespan;
+        private final double utilisation;
+        private final int detailsProcessed;
+        
+        Result(Scenario scenario, double makespan, double utilisation, int detailsProcessed) {
+            this.scenario = scenario;
+            this.makespan = makespan;
+            this.utilisation = utilisation;
+            this.detailsProcessed = detailsProcessed;
+        }
+        
+        public Scenario getScenario() {
+            return scenario;
+        }
+        
+        public double getMakespan() {
+            return makespan;
+        }
+        
+        public double getUtilisation() {
+            return utilisation;
+        }
+        
+        public int getDetailsProcessed() {
+            return detailsProcessed;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package util;
+
+import model.LineConfiguration;
+import model.LineConfiguration.CenterSpec;
+import model.LineConfiguration.Connection;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Потоковое чтение входного xlsx через SAX (XSSF event API). В отличие от
+ * ExcelReader листы не загружаются в память целиком: строки центров, связей
+ * и начальных данных обрабатываются по мере разбора XML за один проход,
+ * в памяти остаются только таблица общих строк и сама конфигурация.
+ *
+ * Результат и проверки совпадают с ExcelReader. ExcelReader сам выбирает
+ * этот способ для больших файлов.
+ */
+public class StreamingExcelReader {
+    private static final int CENTERS_SHEET = 0;
+    private static final int CONNECTIONS_SHEET = 1;
+    private static final int INITIAL_DATA_SHEET = 2;
+    
+    // Используются только первые три колонки каждого листа
+    private static final int COLUMNS = 3;
+    
+    private final ReadOnlySharedStringsTable sharedStrings;
+    private final InputLimits limits;
+    
+    // Центры в порядке строк листа: от него зависят индексы центров и порядок вывода
+    private final Map<String, CenterSpec> centers = new LinkedHashMap<>();
+    private final List<Connection> connections = new ArrayList<>();
+    private LineConfiguration configuration;
+    
+    private StreamingExcelReader(ReadOnlySharedStringsTable sharedStrings, InputLimits limits) {
+        this.sharedStrings = sharedStrings;
+        this.limits = limits;
+    }
+    
+    public static LineConfiguration readConfiguration(String filePath) throws IOException {
+        return readConfiguration(filePath, InputLimits.DEFAULT);
+    }
+    
+    public static LineConfiguration readConfiguration(String filePath, InputLimits limits) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(new File(filePath), PackageAccess.READ)) {
+            StreamingExcelReader reader = new StreamingExcelReader(new ReadOnlySharedStringsTable(pkg, false), limits);
+            Iterator<InputStream> sheets = new XSSFReader(pkg).getSheetsData();
+            
+            for (int sheet = CENTERS_SHEET; sheet <= INITIAL_DATA_SHEET; sheet++) {
+                if (!sheets.hasNext()) {
+                    throw new IllegalArgumentException("Sheet index (" + sheet + ") is out of range");
+                }
+                try (InputStream sheetData = sheets.next()) {
+                    reader.readSheet(sheet, sheetData);
+                }
+            }
+            
+            LineConfiguration configuration = reader.configuration != null
+                ? reader.configuration
+                : new LineConfiguration(new ArrayList<>(reader.centers.values()), reader.connections, null, 0, 0);
+            LineValidator.validateCenters(configuration, limits);
+            return configuration;
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Cannot read workbook " + filePath, e);
+        }
+    }
+    
+    private void readSheet(int sheet, InputStream sheetData)
+            throws IOException, SAXException, ParserConfigurationException {
+        XMLReader parser = XMLHelper.newXMLReader();
+        parser.setContentHandler(new SheetHandler(sheet));
+        parser.parse(new InputSource(sheetData));
+    }
+    
+    /**
+     * Обрабатывает строку листа. Строка 0 - заголовок, как и в ExcelReader.
+     * Отсутствующие ячейки - пустая строка или 0.
+     */
+    private void processRow(int sheet, int rowIndex, String[] values) {
+        if (rowIndex < 1) {
+            return;
+        }
+        switch (sheet) {
+            case CENTERS_SHEET: {
+                String name = text(values[0]);
+                double processingTime = number(values[1]);
+                int maxWorkers = (int) number(values[2]);
+                
+                LineValidator.validateCenterData(processingTime, maxWorkers, limits);
+                
+                centers.put(name, new CenterSpec(name, processingTime, maxWorkers));
+                break;
+            }
+            case CONNECTIONS_SHEET:
+                connections.add(new Connection(text(values[0]), text(values[1])));
+                break;
+            default: {
+                // Начальные данные - только первая строка после заголовка
+                if (rowIndex != 1) {
+                    return;
+                }
+                int totalWorkers = (int) number(values[0]);
+                String initialCenterName = text(values[1]);
+                int detailsCount = (int) number(values[2]);
+                
+                LineValidator.validateInitialData(totalWorkers, detailsCount, limits);
+                
+                configuration = new LineConfiguration(new ArrayList<>(centers.values()), connections,
+                    initialCenterName, detailsCount, totalWorkers);
+            }
+        }
+    }
+    
+    private static String text(String value) {
+        return value == null ? "" : value;
+    }
+    
+    private static double number(String value) {
+        return value == null || value.isEmpty() ? 0 : Double.parseDouble(value);
+    }
+    
+    /**
+     * Разбор XML листа: собирает значения первых колонок строки
+     * и передаёт строку в processRow() по её закрытию.
+     */
+    private final class SheetHandler extends DefaultHandler {
+        private final int sheet;
+        private final String[] values = new String[COLUMNS];
+        private final StringBuilder text = new StringBuilder();
+        
+        private int rowIndex = -1;
+        private int column = -1;
+        private String cellType;
+        private boolean collecting;
+        
+        SheetHandler(int sheet) {
+            this.sheet = sheet;
+        }
+        
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "row": {
+                    String reference = attributes.getValue("r");
+                    rowIndex = reference != null ? Integer.parseInt(reference) - 1 : rowIndex + 1;
+                    column = -1;
+                    for (int i = 0; i < COLUMNS; i++) {
+                        values[i] = null;
+                    }
+                    break;
+                }
+                case "c": {
+                    String reference = attributes.getValue("r");
+                    column = reference != null ? columnIndex(reference) : column + 1;
+                    cellType = attributes.getValue("t");
+                    text.setLength(0);
+                    break;
+                }
+                case "v":
+                case "t":
+                    collecting = true;
+                    break;
+                default:
+                    break;
+            }
+        }
+        
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (collecting) {
+                text.append(ch, start, length);
+            }
+        }
+        
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            switch (localName) {
+                case "v":
+                case "t":
+                    collecting = false;
+                    break;
+                case "c":
+                    if (column >= 0 && column < COLUMNS) {
+                        values[column] = "s".equals(cellType)
+                            ? sharedStrings.getItemAt(Integer.parseInt(text.toString())).getString()
+                            : text.toString();
+                    }
+                    break;
+                case "row":
+                    processRow(sheet, rowIndex, values);
+                    break;
+                default:
+                    break;
+            }
+        }
+        
+        private int columnIndex(String reference) {
+            int index = 0;
+            for (int i = 0; i < reference.length(); i++) {
+                char c = reference.charAt(i);
+                if (c < 'A' || c > 'Z') {
+                    break;
+                }
+                index = index * 26 + (c - 'A' + 1);
+            }
+            return index - 1;
+        }
+    }
+}
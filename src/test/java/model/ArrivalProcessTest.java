@@ -0,0 +1,136 @@
+package model;
+
+import model.LineConfiguration.CenterSpec;
+import model.LineConfiguration.Connection;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+class ArrivalProcessTest {
+    
+    private final LineTopology topology = LineTopology.compile(new LineConfiguration(
+        Arrays.asList(
+            new CenterSpec("Center 1", 2.0, 2),
+            new CenterSpec("Center 2", 3.5, 3),
+            new CenterSpec("Center 3", 1.0, 1)),
+        Arrays.asList(
+            new Connection("Center 1", "Center 2"),
+            new Connection("Center 2", "Center 3")),
+        "Center 1", 5, 3));
+    
+    /**
+     * Конечный поток из заданных моментов.
+     */
+    private static ArrivalProcess times(double... times) {
+        return new ArrivalProcess() {
+            private int next;
+            
+            @Override
+            public double nextArrival() {
+                return next < times.length ? times[next++] : Double.POSITIVE_INFINITY;
+            }
+        };
+    }
+    
+    @Test
+    void testFixedRate() {
+        ArrivalProcess arrivals = ArrivalProcess.fixedRate(0.5);
+        assertEquals(2.0, arrivals.nextArrival());
+        assertEquals(4.0, arrivals.nextArrival());
+        assertEquals(6.0, arrivals.nextArrival());
+        assertThrows(IllegalArgumentException.class, () -> ArrivalProcess.fixedRate(0));
+        assertThrows(IllegalArgumentException.class, () -> ArrivalProcess.poisson(-1, 1));
+    }
+    
+    @Test
+    void testPoissonIsReproducible() {
+        ArrivalProcess first = ArrivalProcess.poisson(2.0, 42);
+        ArrivalProcess second = ArrivalProcess.poisson(2.0, 42);
+        double previous = 0;
+        double time = 0;
+        for (int i = 0; i < 100_000; i++) {
+            time = first.nextArrival();
+            assertEquals(time, second.nextArrival());
+            assertTrue(time >= previous);
+            previous = time;
+        }
+        // Средний промежуток 1 / rate
+        assertEquals(0.5, time / 100_000, 0.01);
+    }
+    
+    @Test
+    void testArrivalsJoinInitialCenter() {
+        for (SimulationMode mode : SimulationMode.values()) {
+            ProductionLine line = topology.createLine();
+            line.setMode(mode);
+            line.setArrivals(times(0.5, 10, 10, 40));
+            CompletionTrace trace = new CompletionTrace(100);
+            line.setCompletionTrace(trace);
+            line.simulate();
+            
+            // Детали начальной партии 0..4 и поступившие 5..8 проходят все центры
+            assertEquals(9, line.getCenter(2).getTotalDetailsProcessed(), mode.name());
+            double firstStart = Double.NaN;
+            for (int k = 0; k < trace.size(); k++) {
+                if (trace.getDetailId(k) == 8 && trace.getCenter(k) == 0) {
+                    firstStart = trace.getStartTime(k);
+                }
+            }
+            assertEquals(40.0, firstStart, mode.name());
+            assertTrue(line.getTotalTime() > 40, mode.name());
+        }
+    }
+    
+    @Test
+    void testTickModeAdmitsAtNextMinute() {
+        ProductionLine line = topology.createLine();
+        line.reset(3, 0);
+        line.setMode(SimulationMode.TICK);
+        line.setArrivals(times(2.5));
+        CompletionTrace trace = new CompletionTrace(10);
+        line.setCompletionTrace(trace);
+        line.simulate();
+        
+        assertEquals(0, trace.getDetailId(0));
+        assertEquals(3.0, trace.getStartTime(0));
+    }
+    
+    @Test
+    void testPausedRunMatchesContinuousRun() {
+        for (SimulationMode mode : SimulationMode.values()) {
+            ProductionLine continuous = topology.createLine();
+            continuous.setMode(mode);
+            continuous.setArrivals(ArrivalProcess.poisson(0.2, 5));
+            assertFalse(continuous.simulateUntil(2000));
+            
+            ProductionLine paused = topology.createLine();
+            paused.setMode(mode);
+            paused.setArrivals(ArrivalProcess.poisson(0.2, 5));
+            assertFalse(paused.simulateUntil(700));
+            assertFalse(paused.simulateUntil(2000));
+            
+            assertEquals(EventRows.describe(continuous), EventRows.describe(paused), mode.name());
+            assertEquals(continuous.getTotalTime(), paused.getTotalTime());
+        }
+    }
+    
+    @Test
+    void testDecreasingArrivalsAreRejected() {
+        ProductionLine line = topology.createLine();
+        line.setArrivals(times(5, 3));
+        assertThrows(IllegalStateException.class, line::simulate);
+    }
+    
+    @Test
+    void testCheckpointsAreNotSupported() {
+        ProductionLine line = topology.createLine();
+        line.setArrivals(ArrivalProcess.fixedRate(1));
+        line.setCheckpoints(10, snapshot -> { });
+        assertThrows(IllegalStateException.class, () -> line.simulateUntil(100));
+        
+        ProductionCenter center = new ProductionCenter("A", 1.0, 1);
+        ProductionLine noInitial = new ProductionLine(Arrays.asList(center), 1);
+        assertThrows(IllegalArgumentException.class, () -> noInitial.setArrivals(ArrivalProcess.fixedRate(1)));
+    }
+}
@@ -0,0 +1,73 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+class CenterPriorityIndexTest {
+    
+    @Test
+    void testTraversalMatchesStableSort() {
+        Random random = new Random(42);
+        List<ProductionCenter> centers = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            centers.add(new ProductionCenter("Center " + i, 1 + random.nextInt(3), 2));
+        }
+        CenterPriorityIndex index = new CenterPriorityIndex(centers);
+        
+        for (int step = 0; step < 200; step++) {
+            // Меняем буферы нескольких центров, как это делает шаг симуляции
+            for (int k = 0; k < 5; k++) {
+                ProductionCenter center = centers.get(random.nextInt(centers.size()));
+                if (random.nextBoolean() || center.getBufferSize() == 0) {
+                    center.addDetailToBuffer(step);
+                } else {
+                    center.setCurrentWorkers(1);
+                    center.completeAndStartDetails(step);
+                    center.setCurrentWorkers(0);
+                }
+            }
+            index.refresh();
+            
+            List<ProductionCenter> expected = new ArrayList<>();
+            for (ProductionCenter center : centers) {
+                if (center.getBufferSize() > 0) {
+                    expected.add(center);
+                }
+            }
+            expected.sort(Comparator.comparingDouble(ProductionCenter::calculatePriority).reversed());
+            
+            List<ProductionCenter> actual = new ArrayList<>();
+            index.startTraversal();
+            for (int i = index.nextCenter(); i >= 0; i = index.nextCenter()) {
+                actual.add(centers.get(i));
+            }
+            
+            assertEquals(expected, actual);
+        }
+    }
+    
+    @Test
+    void testEmptyBufferLeavesIndex() {
+        ProductionCenter center = new ProductionCenter("Center", 1.0, 1);
+        List<ProductionCenter> centers = new ArrayList<>();
+        centers.add(center);
+        CenterPriorityIndex index = new CenterPriorityIndex(centers);
+        
+        center.addDetailToBuffer(1);
+        index.refresh();
+        index.startTraversal();
+        assertEquals(0, index.nextCenter());
+        assertEquals(-1, index.nextCenter());
+        
+        center.setCurrentWorkers(1);
+        center.completeAndStartDetails(0.0);
+        index.refresh();
+        index.startTraversal();
+        assertEquals(-1, index.nextCenter());
+    }
+}
@@ -0,0 +1,125 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import util.LineGenerator;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+class CenterWorklistTest {
+    
+    @Test
+    void testPassInIndexOrder() {
+        CenterWorklist worklist = new CenterWorklist(10);
+        worklist.mark(7);
+        worklist.mark(2);
+        worklist.mark(5);
+        worklist.mark(2);
+        
+        worklist.startPass();
+        assertEquals(Arrays.asList(2, 5, 7), drain(worklist));
+    }
+    
+    @Test
+    void testMarksDuringPass() {
+        CenterWorklist worklist = new CenterWorklist(10);
+        worklist.mark(3);
+        worklist.startPass();
+        
+        assertEquals(3, worklist.nextCenter());
+        // Центр после текущего обрабатывается в этом же проходе,
+        // сам центр и центры до него - в следующем
+        worklist.mark(8);
+        worklist.mark(3);
+        worklist.mark(1);
+        assertEquals(8, worklist.nextCenter());
+        assertEquals(-1, worklist.nextCenter());
+        
+        worklist.startPass();
+        assertEquals(Arrays.asList(1, 3), drain(worklist));
+        worklist.startPass();
+        assertEquals(-1, worklist.nextCenter());
+    }
+    
+    @Test
+    void testTouchedCenters() {
+        CenterWorklist worklist = new CenterWorklist(5);
+        worklist.mark(4);
+        worklist.mark(0);
+        worklist.startPass();
+        drain(worklist);
+        worklist.mark(4);
+        worklist.mark(2);
+        
+        assertEquals(3, worklist.getTouchedCount());
+        worklist.sortTouched();
+        assertEquals(0, worklist.getTouched(0));
+        assertEquals(2, worklist.getTouched(1));
+        assertEquals(4, worklist.getTouched(2));
+        
+        worklist.clearTouched();
+        assertEquals(0, worklist.getTouchedCount());
+        worklist.mark(2);
+        assertEquals(1, worklist.getTouchedCount());
+    }
+    
+    @Test
+    void testClear() {
+        CenterWorklist worklist = new CenterWorklist(5);
+        worklist.markAll();
+        worklist.startPass();
+        worklist.nextCenter();
+        worklist.clear();
+        
+        assertEquals(0, worklist.getTouchedCount());
+        worklist.startPass();
+        assertEquals(-1, worklist.nextCenter());
+        worklist.mark(3);
+        worklist.startPass();
+        assertEquals(Arrays.asList(3), drain(worklist));
+    }
+    
+    @Test
+    void testEventSequenceMatchesFullScan() {
+        // Количество строк и хеш последовательности событий получены прогоном
+        // тех же линий событийным движком с полным обходом центров на каждом проходе
+        LineGenerator uniform = new LineGenerator()
+            .setCenters(60)
+            .setLayerWidth(8)
+            .setMaxFanIn(3)
+            .setDetailsCount(300)
+            .setTotalWorkers(50);
+        assertEventSequence(uniform.setSeed(1).generate(), false, 165720, -1372031264);
+        assertEventSequence(uniform.setSeed(1).generate(), true, 1487, 1425984678);
+        assertEventSequence(uniform.setSeed(2).generate(), false, 159540, -1940528852);
+        assertEventSequence(uniform.setSeed(2).generate(), true, 1450, -858957285);
+        
+        // Одинаковое время обработки - много одновременных событий
+        LineConfiguration fixed = uniform
+            .setProcessingTimes(LineGenerator.TimeDistribution.FIXED, 1, 1)
+            .setSeed(3)
+            .generate();
+        assertEventSequence(fixed, false, 18600, 468471801);
+        assertEventSequence(fixed, true, 726, 305361044);
+    }
+    
+    private static void assertEventSequence(LineConfiguration configuration, boolean delta, int count, int hash) {
+        ProductionLine line = configuration.createLine();
+        line.setMode(SimulationMode.EVENT);
+        line.setRecordChangesOnly(delta);
+        line.simulate();
+        List<String> rows = EventRows.describe(line);
+        assertEquals(count, rows.size());
+        assertEquals(hash, rows.hashCode());
+    }
+    
+    private static List<Integer> drain(CenterWorklist worklist) {
+        List<Integer> centers = new ArrayList<>();
+        for (int i = worklist.nextCenter(); i >= 0; i = worklist.nextCenter()) {
+            centers.add(i);
+        }
+        return centers;
+    }
+}
@@ -0,0 +1,79 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringWriter;
+
+class CompletionTraceTest {
+    
+    @Test
+    void testRecordsEveryCompletion() {
+        ProductionLine line = TestLines.chain(3, 2.0, 1.5);
+        CompletionTrace trace = new CompletionTrace(100);
+        line.setCompletionTrace(trace);
+        line.simulate();
+        
+        // Каждая деталь завершается в A и в B
+        assertEquals(6, trace.size());
+        assertEquals(0, trace.getDroppedCount());
+        assertEquals("A", trace.getCenterName(0));
+        assertEquals(0, trace.getDetailId(0));
+        assertEquals(0.0, trace.getStartTime(0));
+        assertEquals(2.0, trace.getEndTime(0));
+        for (int k = 0; k < trace.size(); k++) {
+            double processingTime = trace.getCenter(k) == 0 ? 2.0 : 1.5;
+            assertEquals(processingTime, trace.getEndTime(k) - trace.getStartTime(k), 1e-9);
+        }
+        assertEquals(line.getTotalTime(), trace.getEndTime(trace.size() - 1));
+    }
+    
+    @Test
+    void testRingKeepsLatestRecords() {
+        ProductionLine line = TestLines.chain(10, 2.0, 1.5);
+        CompletionTrace trace = new CompletionTrace(4);
+        line.setCompletionTrace(trace);
+        line.simulate();
+        
+        assertEquals(20, trace.getRecordedCount());
+        assertEquals(4, trace.size());
+        assertEquals(16, trace.getDroppedCount());
+        // Последней завершается деталь 9 в конечном центре
+        assertEquals("B", trace.getCenterName(3));
+        assertEquals(9, trace.getDetailId(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> trace.getDetailId(4));
+    }
+    
+    @Test
+    void testSameOutputWithTrace() {
+        ProductionLine plain = TestLines.chain(10, 2.0, 1.5);
+        plain.setMode(SimulationMode.TICK);
+        plain.simulate();
+        
+        ProductionLine traced = TestLines.chain(10, 2.0, 1.5);
+        traced.setMode(SimulationMode.TICK);
+        traced.setCompletionTrace(new CompletionTrace(8));
+        traced.simulate();
+        
+        assertEquals(plain.getTotalTime(), traced.getTotalTime());
+        assertEquals(plain.getEvents().size(), traced.getEvents().size());
+    }
+    
+    @Test
+    void testWriteCsv() throws Exception {
+        ProductionLine line = TestLines.chain(1, 2.0, 1.5);
+        CompletionTrace trace = new CompletionTrace(10);
+        line.setCompletionTrace(trace);
+        line.simulate();
+        
+        StringWriter csv = new StringWriter();
+        trace.writeCsv(csv);
+        assertEquals(CompletionTrace.HEADER + "A, 0, 0.0, 2.0\nB, 0, 2.0, 3.5\n", csv.toString());
+        
+        // Отключённая трасса не получает записей
+        line.setCompletionTrace(null);
+        line.getCenter(0).addDetailToBuffer(1);
+        line.simulate();
+        assertEquals(2, trace.size());
+    }
+}
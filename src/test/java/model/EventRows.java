@@ -0,0 +1,25 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * События линии в виде строк для сравнения прогонов в тестах.
+ */
+final class EventRows {
+    
+    private EventRows() {
+    }
+    
+    /**
+     * @return по строке "время центр рабочие буфер" на событие, накопленное в памяти
+     */
+    static List<String> describe(ProductionLine line) {
+        List<String> rows = new ArrayList<>();
+        for (ProductionEvent event : line.getEvents()) {
+            rows.add(event.getTime() + " " + event.getProductionCenter() + " "
+                + event.getWorkersCount() + " " + event.getBufferCount());
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,95 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class EventStoreTest {
+    
+    @Test
+    void testRecordAcrossChunks() {
+        EventStore store = new EventStore();
+        int count = 200_000;
+        for (int i = 0; i < count; i++) {
+            store.record(i * 0.5, "Центр " + (i % 3), i % 7, i);
+        }
+        
+        assertEquals(count, store.size());
+        assertEquals(3, store.getCenterCount());
+        for (int i = 0; i < count; i += 997) {
+            assertEquals(i * 0.5, store.getTime(i));
+            assertEquals("Центр " + (i % 3), store.getProductionCenter(i));
+            assertEquals(i % 3, store.getCenterId(i));
+            assertEquals(i % 7, store.getWorkersCount(i));
+            assertEquals(i, store.getBufferCount(i));
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> store.getTime(count));
+        assertThrows(IndexOutOfBoundsException.class, () -> store.getCenterName(3));
+    }
+    
+    @Test
+    void testListView() {
+        EventStore store = new EventStore();
+        List<ProductionEvent> events = store.asList();
+        store.record(1.0, "A", 1, 2);
+        store.record(2.0, "B", 3, 4);
+        
+        // Представление отражает новые записи и не изменяется снаружи
+        assertEquals(2, events.size());
+        assertEquals("B", events.get(1).getProductionCenter());
+        assertEquals(4, events.get(1).getBufferCount());
+        assertThrows(UnsupportedOperationException.class, () -> events.add(new ProductionEvent(0, "C", 0, 0)));
+        
+        List<String> centers = new ArrayList<>();
+        for (ProductionEvent event : events) {
+            centers.add(event.getProductionCenter());
+        }
+        assertEquals(List.of("A", "B"), centers);
+        
+        store.clear();
+        assertTrue(events.isEmpty());
+        store.record(3.0, "B", 0, 0);
+        assertEquals(1, store.getCenterId(0));
+    }
+    
+    @Test
+    void testReplay() {
+        EventStore store = new EventStore();
+        store.record(0.5, "A", 1, 10);
+        store.record(0.5, "B", 2, 20);
+        
+        ListEventSink copy = new ListEventSink();
+        store.replay(copy);
+        assertEquals(2, copy.getEvents().size());
+        assertEquals(0.5, copy.getEvents().get(1).getTime());
+        assertEquals("B", copy.getEvents().get(1).getProductionCenter());
+        assertEquals(20, copy.getEvents().get(1).getBufferCount());
+    }
+    
+    @Test
+    void testTimeRunsAndWideValues() {
+        EventStore store = new EventStore();
+        double[] times = {0.0, 0.0, -0.0, 1.5, 1.5, 1.5, 0.1 + 0.2, 7.0};
+        for (int i = 0; i < times.length; i++) {
+            store.record(times[i], "A", i == 4 ? -1 : i, i == 5 ? Integer.MAX_VALUE : i);
+        }
+        
+        // Время восстанавливается побитово, значения вне 0..65535 не искажаются
+        for (int i = 0; i < times.length; i++) {
+            assertEquals(Double.doubleToRawLongBits(times[i]), Double.doubleToRawLongBits(store.getTime(i)));
+        }
+        assertEquals(-1, store.getWorkersCount(4));
+        assertEquals(3, store.getWorkersCount(3));
+        assertEquals(Integer.MAX_VALUE, store.getBufferCount(5));
+        assertEquals(6, store.getBufferCount(6));
+        
+        ListEventSink copy = new ListEventSink();
+        store.replay(copy);
+        for (int i = 0; i < times.length; i++) {
+            assertEquals(store.asList().get(i).getTime(), copy.getEvents().get(i).getTime());
+            assertEquals(store.getWorkersCount(i), copy.getEvents().get(i).getWorkersCount());
+        }
+    }
+}
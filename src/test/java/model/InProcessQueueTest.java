@@ -0,0 +1,39 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class InProcessQueueTest {
+    
+    @Test
+    void testFifoOrder() {
+        InProcessQueue queue = new InProcessQueue(2);
+        queue.add(1, 0.0);
+        queue.add(2, 1.0);
+        
+        assertEquals(2, queue.size());
+        assertEquals(0.0, queue.peekStartTime());
+        assertEquals(1, queue.poll());
+        assertEquals(1.0, queue.peekStartTime());
+        assertEquals(2, queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+    
+    @Test
+    void testGrowAfterWrapAround() {
+        InProcessQueue queue = new InProcessQueue(2);
+        queue.add(1, 0.0);
+        queue.add(2, 0.5);
+        queue.poll();
+        
+        // Голова смещена, при расширении порядок должен сохраниться
+        queue.add(3, 1.0);
+        queue.add(4, 1.5);
+        
+        assertEquals(3, queue.size());
+        assertEquals(2, queue.poll());
+        assertEquals(3, queue.poll());
+        assertEquals(1.5, queue.peekStartTime());
+        assertEquals(4, queue.poll());
+    }
+}
@@ -0,0 +1,28 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntQueueTest {
+    
+    @Test
+    void testGrowPreservesOrder() {
+        IntQueue queue = new IntQueue();
+        
+        // Сдвигаем голову, чтобы расширение прошло через границу массива
+        for (int i = 0; i < 10; i++) {
+            queue.add(-1);
+            queue.poll();
+        }
+        for (int i = 0; i < 100; i++) {
+            queue.add(i);
+        }
+        
+        assertEquals(100, queue.size());
+        assertEquals(50, queue.get(50));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, queue.poll());
+        }
+        assertTrue(queue.isEmpty());
+    }
+}
@@ -0,0 +1,66 @@
+package model;
+
+import model.LineConfiguration.CenterSpec;
+import model.LineConfiguration.Connection;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+class LineConfigurationTest {
+    
+    private LineConfiguration createConfiguration() {
+        return new LineConfiguration(
+            Arrays.asList(
+                new CenterSpec("Center 1", 2.0, 2),
+                new CenterSpec("Center 2", 1.5, 1),
+                new CenterSpec("Center 3", 1.0, 2)),
+            Arrays.asList(
+                new Connection("Center 1", "Center 2"),
+                new Connection("Center 2", "Center 3")),
+            "Center 1", 10, 4);
+    }
+    
+    @Test
+    void testCreateLine() {
+        ProductionLine line = createConfiguration().createLine();
+        ProductionCenter[] centers = line.getCenters().toArray(new ProductionCenter[0]);
+        
+        assertEquals(3, centers.length);
+        assertTrue(centers[0].isInitial());
+        assertTrue(centers[2].isFinal());
+        assertEquals(10, centers[0].getBufferSize());
+        assertEquals(centers[1], centers[0].getNextCenters().get(0));
+    }
+    
+    @Test
+    void testLinesAreIndependent() {
+        LineConfiguration configuration = createConfiguration();
+        ProductionLine first = configuration.createLine();
+        first.simulate();
+        
+        ProductionLine second = configuration.createLine();
+        assertEquals(10, second.getCenters().iterator().next().getBufferSize());
+        second.simulate();
+        
+        assertEquals(first.getTotalTime(), second.getTotalTime());
+        assertEquals(first.getEvents().size(), second.getEvents().size());
+    }
+    
+    @Test
+    void testWithMethodsKeepOriginal() {
+        LineConfiguration configuration = createConfiguration();
+        LineConfiguration changed = configuration
+            .withTotalWorkers(8)
+            .withDetailsCount(20)
+            .withMaxWorkers("Center 2", 3);
+        
+        assertEquals(4, configuration.getTotalWorkers());
+        assertEquals(1, configuration.getCenters().get(1).getMaxWorkers());
+        assertEquals(8, changed.getTotalWorkers());
+        assertEquals(20, changed.getDetailsCount());
+        assertEquals(3, changed.getCenters().get(1).getMaxWorkers());
+        
+        assertThrows(IllegalArgumentException.class, () -> configuration.withMaxWorkers("Unknown", 1));
+    }
+}
@@ -0,0 +1,150 @@
+package model;
+
+import model.LineConfiguration.CenterSpec;
+import model.LineConfiguration.Connection;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+class LineForkTest {
+    
+    private final LineTopology topology = LineTopology.compile(new LineConfiguration(
+        Arrays.asList(
+            new CenterSpec("Center 1", 2.0, 2),
+            new CenterSpec("Center 2", 3.5, 3),
+            new CenterSpec("Center 3", 1.0, 1)),
+        Arrays.asList(
+            new Connection("Center 1", "Center 2"),
+            new Connection("Center 2", "Center 3")),
+        "Center 1", 30, 3));
+    
+    private static int finished(ProductionLine line) {
+        return line.getCenter(2).getTotalDetailsProcessed();
+    }
+    
+    @Test
+    void testPausedRunContinues() {
+        for (SimulationMode mode : SimulationMode.values()) {
+            ProductionLine full = topology.createLine();
+            full.setMode(mode);
+            full.simulate();
+            
+            ProductionLine paused = topology.createLine();
+            paused.setMode(mode);
+            assertFalse(paused.simulateUntil(20));
+            assertTrue(paused.getTotalTime() >= 20);
+            assertFalse(paused.simulateUntil(40));
+            assertTrue(paused.simulateUntil(Double.POSITIVE_INFINITY));
+            assertEquals(EventRows.describe(full), EventRows.describe(paused), mode.toString());
+            assertEquals(full.getTotalTime(), paused.getTotalTime());
+        }
+    }
+    
+    @Test
+    void testForkWithoutChangesMatchesRun() {
+        ProductionLine full = topology.createLine();
+        full.simulate();
+        
+        ProductionLine prefix = topology.createLine();
+        prefix.simulateUntil(25);
+        ProductionLine fork = LineFork.of(prefix).createLine();
+        fork.simulate();
+        
+        List<String> events = EventRows.describe(prefix);
+        events.addAll(EventRows.describe(fork));
+        assertEquals(EventRows.describe(full), events);
+        assertEquals(full.getCenter(1).getStatistics(), fork.getCenter(1).getStatistics());
+    }
+    
+    @Test
+    void testChangesApplyFromForkTime() {
+        ProductionLine prefix = topology.createLine();
+        prefix.simulateUntil(25);
+        LineFork fork = LineFork.of(prefix);
+        
+        ProductionLine base = fork.createLine();
+        base.simulate();
+        ProductionLine moreWorkers = fork.withTotalWorkers(6).withMaxWorkers("Center 3", 2).createLine();
+        moreWorkers.simulate();
+        assertEquals(6, moreWorkers.getTotalWorkers());
+        assertTrue(moreWorkers.getTotalTime() < base.getTotalTime());
+        
+        ProductionLine injected = fork.withInjectedDetails("Center 3", 2).createLine();
+        injected.simulate();
+        assertEquals(finished(base) + 2, finished(injected));
+        
+        // Исходный сценарий не изменился
+        ProductionLine again = fork.createLine();
+        again.simulate();
+        assertEquals(EventRows.describe(base), EventRows.describe(again));
+    }
+    
+    @Test
+    void testInjectedDetailsStartAtForkTime() {
+        LineTopology twoCenters = LineTopology.compile(new LineConfiguration(
+            Arrays.asList(new CenterSpec("A", 10.0, 1), new CenterSpec("B", 1.0, 1)),
+            Arrays.asList(new Connection("A", "B")), "A", 1, 2));
+        for (SimulationMode mode : SimulationMode.values()) {
+            ProductionLine prefix = twoCenters.createLine();
+            prefix.setMode(mode);
+            prefix.simulateUntil(5);
+            LineFork fork = LineFork.of(prefix);
+            
+            // B простаивает, поэтому новая деталь запускается сразу и получает следующий
+            // идентификатор; в режиме EVENT приостановка приходится на завершение в A
+            ProductionLine line = fork.withInjectedDetails("B", 1).createLine();
+            CompletionTrace trace = new CompletionTrace(10);
+            line.setCompletionTrace(trace);
+            line.simulate();
+            int k = trace.getDetailId(0) == 1 ? 0 : 1;
+            assertEquals("B", trace.getCenterName(k), mode.toString());
+            assertEquals(1, trace.getDetailId(k));
+            assertEquals(fork.getTime(), trace.getStartTime(k));
+            assertEquals(2, line.getCenter(1).getTotalDetailsProcessed());
+        }
+    }
+    
+    @Test
+    void testConcurrentForksFromSharedPrefix() {
+        ProductionLine prefix = topology.createLine();
+        prefix.simulateUntil(15);
+        LineFork fork = LineFork.of(prefix);
+        
+        List<Double> sequential = new ArrayList<>();
+        for (int workers = 1; workers <= 8; workers++) {
+            ProductionLine line = fork.withTotalWorkers(workers).createLine();
+            line.simulate();
+            sequential.add(line.getTotalTime());
+        }
+        List<Double> parallel = IntStream.rangeClosed(1, 8).parallel()
+            .mapToObj(workers -> {
+                ProductionLine line = fork.withTotalWorkers(workers).createLine();
+                line.simulate();
+                return line.getTotalTime();
+            })
+            .collect(Collectors.toList());
+        assertEquals(sequential, parallel);
+    }
+    
+    @Test
+    void testValidation() {
+        LineFork fork = new LineFork(topology, topology.createLine().snapshot());
+        assertThrows(IllegalArgumentException.class, () -> fork.withMaxWorkers("Center 9", 1));
+        assertThrows(IllegalArgumentException.class, () -> fork.withInjectedDetails("Center 1", -1));
+        assertThrows(IllegalArgumentException.class, () -> fork.withTotalWorkers(-1));
+        // Без рабочих сценарий не может завершиться
+        assertThrows(IllegalArgumentException.class, () -> fork.withTotalWorkers(0));
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+            () -> fork.withMaxWorkers("Center 2", 0));
+        assertTrue(error.getMessage().contains("Center 2"));
+        
+        ProductionCenter center = new ProductionCenter("A", 1.0, 1);
+        ProductionLine line = new ProductionLine(Arrays.asList(center), 1);
+        assertThrows(IllegalStateException.class, () -> LineFork.of(line));
+    }
+}
@@ -0,0 +1,171 @@
+package model;
+
+import model.LineConfiguration.CenterSpec;
+import model.LineConfiguration.Connection;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+class LineSnapshotTest {
+    
+    private final LineConfiguration configuration = new LineConfiguration(
+        Arrays.asList(
+            new CenterSpec("Center 1", 2.0, 2),
+            new CenterSpec("Center 2", 3.5, 2),
+            new CenterSpec("Center 3", 1.0, 1),
+            new CenterSpec("Center 4", 2.5, 2)),
+        Arrays.asList(
+            new Connection("Center 1", "Center 2"),
+            new Connection("Center 1", "Center 3"),
+            new Connection("Center 2", "Center 4"),
+            new Connection("Center 3", "Center 4")),
+        "Center 1", 40, 4);
+    
+    private ProductionLine createLine(SimulationMode mode, boolean delta) {
+        ProductionLine line = configuration.createLine();
+        line.setMode(mode);
+        line.setRecordChangesOnly(delta);
+        line.setAllocationStrategy(AllocationPolicy.LOOKAHEAD.create());
+        return line;
+    }
+    
+    private static String statistics(ProductionLine line) {
+        StringBuilder statistics = new StringBuilder(line.getStatistics());
+        for (ProductionCenter center : line.getCenters()) {
+            statistics.append(center.getStatistics());
+        }
+        return statistics.toString();
+    }
+    
+    private static LineSnapshot copy(LineSnapshot snapshot) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        snapshot.write(bytes);
+        return LineSnapshot.read(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+    
+    @Test
+    void testResumeMatchesUninterruptedRun() throws IOException {
+        for (SimulationMode mode : SimulationMode.values()) {
+            for (boolean delta : new boolean[]{false, true}) {
+                List<LineSnapshot> snapshots = new ArrayList<>();
+                ProductionLine full = createLine(mode, delta);
+                full.setCheckpoints(5, snapshots::add);
+                full.simulate();
+                List<String> expected = EventRows.describe(full);
+                assertTrue(snapshots.size() > 3, mode + " " + delta);
+                
+                // Продолжение из любого снимка дописывает те же события
+                for (LineSnapshot snapshot : snapshots) {
+                    assertTrue(snapshot.isInProgress());
+                    ProductionLine resumed = createLine(mode, delta);
+                    resumed.restore(copy(snapshot));
+                    resumed.simulate();
+                    
+                    List<String> actual = new ArrayList<>(expected.subList(0, (int) snapshot.getRecordedEvents()));
+                    actual.addAll(EventRows.describe(resumed));
+                    String context = mode + " " + delta + " at " + snapshot.getTime();
+                    assertEquals(expected, actual, context);
+                    assertEquals(statistics(full), statistics(resumed), context);
+                }
+            }
+        }
+    }
+    
+    @Test
+    void testCheckpointTimes() {
+        List<Double> times = new ArrayList<>();
+        ProductionLine line = createLine(SimulationMode.TICK, false);
+        line.setCheckpoints(10, snapshot -> times.add(snapshot.getTime()));
+        line.simulate();
+        
+        assertEquals(10.0, times.get(0));
+        assertEquals(20.0, times.get(1));
+        assertTrue(times.get(times.size() - 1) < line.getTotalTime());
+        assertThrows(IllegalArgumentException.class, () -> line.setCheckpoints(0, snapshot -> { }));
+    }
+    
+    @Test
+    void testSnapshotBeforeRunStartsNewRun() throws IOException {
+        ProductionLine line = createLine(SimulationMode.EVENT, false);
+        LineSnapshot initial = copy(line.snapshot());
+        assertFalse(initial.isInProgress());
+        assertEquals(4, initial.getCenterCount());
+        line.simulate();
+        List<String> expected = EventRows.describe(line);
+        
+        line.restore(initial);
+        line.getEventStore().clear();
+        line.simulate();
+        assertEquals(expected, EventRows.describe(line));
+    }
+    
+    @Test
+    void testBufferStoredAsRuns() throws IOException {
+        ByteArrayOutputStream small = new ByteArrayOutputStream();
+        configuration.createLine().snapshot().write(small);
+        ByteArrayOutputStream large = new ByteArrayOutputStream();
+        ProductionLine line = configuration.withDetailsCount(100_000).createLine();
+        line.snapshot().write(large);
+        
+        // Детали начального центра идут подряд и занимают одну серию
+        assertEquals(small.size(), large.size());
+        
+        line.getCenter(2).addDetailToBuffer(7);
+        line.getCenter(2).addDetailToBuffer(3);
+        ProductionLine restored = configuration.withDetailsCount(0).createLine();
+        restored.restore(copy(line.snapshot()));
+        assertEquals(100_000, restored.getCenter(0).getBufferSize());
+        List<Detail> buffered = restored.getCenter(2).getBufferedDetails();
+        assertEquals(7, buffered.get(0).getId());
+        assertEquals(3, buffered.get(1).getId());
+    }
+    
+    @Test
+    void testResumeRestoresRunSettings() throws IOException {
+        List<LineSnapshot> snapshots = new ArrayList<>();
+        ProductionLine full = createLine(SimulationMode.TICK, true);
+        full.setAllocationStrategy(AllocationPolicy.BOTTLENECK.create());
+        full.setCheckpoints(5, snapshots::add);
+        full.simulate();
+        List<String> expected = EventRows.describe(full);
+        LineSnapshot snapshot = copy(snapshots.get(1));
+        assertTrue(snapshot.isRecordChangesOnly());
+        assertEquals("BOTTLENECK", snapshot.getStrategy());
+        
+        // Линия с другими режимом, записью и стратегией продолжает прогон с настройками снимка
+        ProductionLine resumed = createLine(SimulationMode.EVENT, false);
+        resumed.restore(snapshot);
+        assertEquals(SimulationMode.TICK, resumed.getMode());
+        assertTrue(resumed.isRecordChangesOnly());
+        assertEquals(AllocationPolicy.BOTTLENECK, AllocationPolicy.of(resumed.getAllocationStrategy()));
+        resumed.simulate();
+        List<String> actual = new ArrayList<>(expected.subList(0, (int) snapshot.getRecordedEvents()));
+        actual.addAll(EventRows.describe(resumed));
+        assertEquals(expected, actual);
+        
+        // Свою стратегию восстановить нельзя - другая стратегия линии отклоняется
+        ProductionLine custom = createLine(SimulationMode.EVENT, false);
+        custom.setAllocationStrategy((centerIndex, center) -> center.getBufferSize());
+        List<LineSnapshot> customSnapshots = new ArrayList<>();
+        custom.setCheckpoints(5, customSnapshots::add);
+        custom.simulate();
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+            () -> createLine(SimulationMode.EVENT, false).restore(customSnapshots.get(0)));
+        assertTrue(error.getMessage().startsWith("Snapshot was taken with allocation strategy"));
+    }
+    
+    @Test
+    void testRejectsOtherLine() {
+        LineSnapshot snapshot = createLine(SimulationMode.EVENT, false).snapshot();
+        LineConfiguration other = new LineConfiguration(
+            Arrays.asList(new CenterSpec("A", 1.0, 1)), Arrays.asList(), "A", 1, 1);
+        assertThrows(IllegalArgumentException.class, () -> other.createLine().restore(snapshot));
+        assertThrows(IOException.class, () -> LineSnapshot.read(new ByteArrayInputStream(new byte[16])));
+    }
+}
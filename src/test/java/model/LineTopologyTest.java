@@ -0,0 +1,84 @@
+package model;
+
+import model.LineConfiguration.CenterSpec;
+import model.LineConfiguration.Connection;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+class LineTopologyTest {
+    
+    private final LineConfiguration configuration = new LineConfiguration(
+        Arrays.asList(
+            new CenterSpec("Center 1", 2.0, 2),
+            new CenterSpec("Center 2", 1.5, 1),
+            new CenterSpec("Center 3", 1.0, 2),
+            new CenterSpec("Center 4", 2.0, 1)),
+        Arrays.asList(
+            new Connection("Center 1", "Center 2"),
+            new Connection("Center 1", "Center 3"),
+            new Connection("Center 2", "Center 4"),
+            new Connection("Center 3", "Center 4"),
+            new Connection("Center 3", "Unknown")),
+        "Center 1", 10, 3);
+    
+    @Test
+    void testCompile() {
+        LineTopology topology = LineTopology.compile(configuration);
+        
+        assertEquals(4, topology.getCenterCount());
+        assertEquals("Center 2", topology.getName(1));
+        assertEquals(1.5, topology.getProcessingTime(1));
+        assertEquals(2, topology.getNextCount(0));
+        assertEquals(1, topology.getNextCenter(0, 0));
+        assertEquals(2, topology.getNextCenter(0, 1));
+        assertEquals(1, topology.getNextCount(2));
+        assertEquals(0, topology.getNextCount(3));
+        assertEquals(0, topology.getInitialCenter());
+        assertTrue(topology.isFinal(3));
+        assertFalse(topology.isFinal(0));
+    }
+    
+    @Test
+    void testResetRepeatsRun() {
+        LineTopology topology = LineTopology.compile(configuration);
+        ProductionLine line = topology.createLine();
+        line.simulate();
+        double firstTime = line.getTotalTime();
+        int firstEvents = line.getEvents().size();
+        String firstStatistics = line.getCenter(3).getStatistics();
+        
+        line.reset();
+        assertEquals(10, line.getCenter(0).getBufferSize());
+        assertEquals(0, line.getCenter(3).getTotalDetailsProcessed());
+        line.simulate();
+        
+        assertEquals(firstTime, line.getTotalTime());
+        assertEquals(firstEvents, line.getEvents().size());
+        assertEquals(firstStatistics, line.getCenter(3).getStatistics());
+    }
+    
+    @Test
+    void testResetWithOtherParameters() {
+        LineTopology topology = LineTopology.compile(configuration);
+        ProductionLine line = topology.createLine();
+        line.getCenter(1).setMaxWorkers(5);
+        line.simulate();
+        
+        line.reset(6, 20);
+        assertEquals(1, line.getCenter(1).getMaxWorkers());
+        line.simulate();
+        
+        ProductionLine expected = configuration.withTotalWorkers(6).withDetailsCount(20).createLine();
+        expected.simulate();
+        assertEquals(expected.getTotalTime(), line.getTotalTime());
+        assertEquals(20, line.getCenter(3).getTotalDetailsProcessed());
+    }
+    
+    @Test
+    void testResetRequiresTopology() {
+        ProductionLine line = new ProductionLine(Arrays.asList(new ProductionCenter("Center", 1.0, 1)), 1);
+        assertThrows(IllegalStateException.class, line::reset);
+    }
+}
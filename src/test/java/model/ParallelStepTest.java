@@ -0,0 +1,89 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import util.LineGenerator;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+class ParallelStepTest {
+    
+    @Test
+    void testSameOutputAsSequential() throws Exception {
+        // Несколько порций центров и слияния потоков от центров с большими и меньшими индексами
+        LineConfiguration configuration = new LineGenerator()
+            .setCenters(200)
+            .setLayerWidth(20)
+            .setMaxFanIn(3)
+            .setDetailsCount(500)
+            .setTotalWorkers(60)
+            .setSeed(3)
+            .generate();
+        
+        ProductionLine sequential = configuration.createLine();
+        sequential.setMode(SimulationMode.TICK);
+        sequential.simulate();
+        
+        // Свой пул на 4 потока: фазы идут параллельно и на машине с одним ядром
+        ProductionLine parallel = configuration.createLine();
+        parallel.setMode(SimulationMode.TICK);
+        parallel.setParallelStep(true);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            pool.submit(parallel::simulate).get();
+        } finally {
+            pool.shutdown();
+        }
+        
+        assertEquals(sequential.getTotalTime(), parallel.getTotalTime());
+        assertEquals(sequential.getEvents().size(), parallel.getEvents().size());
+        for (int i = 0; i < sequential.getEvents().size(); i++) {
+            ProductionEvent expected = sequential.getEvents().get(i);
+            ProductionEvent actual = parallel.getEvents().get(i);
+            assertEquals(expected.getProductionCenter(), actual.getProductionCenter());
+            assertEquals(expected.getWorkersCount(), actual.getWorkersCount());
+            assertEquals(expected.getBufferCount(), actual.getBufferCount());
+        }
+        for (int i = 0; i < 200; i++) {
+            assertEquals(sequential.getCenter(i).getStatistics(), parallel.getCenter(i).getStatistics());
+        }
+    }
+    
+    @Test
+    void testArrivalOrder() {
+        // C получает детали от A (индекс меньше) и от D (индекс больше):
+        // детали от D не могут быть запущены в C на том же шаге
+        ProductionCenter a = new ProductionCenter("A", 1.0, 1);
+        ProductionCenter b = new ProductionCenter("B", 1.0, 1);
+        ProductionCenter c = new ProductionCenter("C", 1.0, 2);
+        ProductionCenter d = new ProductionCenter("D", 1.0, 1);
+        a.addNextCenter(c);
+        b.addNextCenter(d);
+        d.addNextCenter(c);
+        List<ProductionCenter> centers = Arrays.asList(a, b, c, d);
+        ParallelStep step = ParallelStep.create(centers);
+        
+        a.addDetailToBuffer(1);
+        d.addDetailToBuffer(2);
+        a.setCurrentWorkers(1);
+        d.setCurrentWorkers(1);
+        c.setCurrentWorkers(2);
+        step.processInPhases(0);
+        step.processInPhases(1);
+        
+        // На шаге 1 деталь 1 от A запущена, деталь 2 от D ждёт в буфере
+        assertEquals(1, c.getDetailsInProcessCount());
+        assertEquals(1, c.getBufferSize());
+        assertEquals(2, c.getBufferedDetails().get(0).getId());
+    }
+    
+    @Test
+    void testNextCenterOutsideLine() {
+        ProductionCenter a = new ProductionCenter("A", 1.0, 1);
+        a.addNextCenter(new ProductionCenter("B", 1.0, 1));
+        
+        assertNull(ParallelStep.create(Arrays.asList(a)));
+    }
+}
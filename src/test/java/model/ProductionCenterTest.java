@@ -26,6 +26,12 @@ class ProductionCenterTest {
         center.addDetailToBuffer(detail);
         
         assertEquals(1, center.getBufferSize());
+        
+        // Деталь хранится по идентификатору и восстанавливается по запросу
+        center.addDetailToBuffer(7);
+        assertEquals(2, center.getBufferSize());
+        assertEquals(1, center.getBufferedDetails().get(0).getId());
+        assertEquals(7, center.getBufferedDetails().get(1).getId());
     }
     
     @Test
@@ -69,10 +75,10 @@ class ProductionCenterTest {
         assertEquals(0.0, center.getAverageLoad());
         assertEquals(0, center.getTotalDetailsProcessed());
         
-        // Завершаем обработку первых двух деталей
+        // Завершаем обработку первых двух деталей, освободившийся рабочий берёт третью
         center.processDetails(2.0);
-        assertEquals(1, center.getBufferSize());
-        assertEquals(0, center.getDetailsInProcessCount());
+        assertEquals(0, center.getBufferSize());
+        assertEquals(1, center.getDetailsInProcessCount());
         assertEquals(2, center.getTotalDetailsProcessed());
     }
 
@@ -102,4 +108,24 @@ class ProductionCenterTest {
         assertEquals(1, center2.getBufferSize());
         assertEquals(1, center3.getBufferSize());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testNextCompletionTime() {
+        ProductionCenter center = new ProductionCenter("Test Center", 2.5, 2);
+        assertEquals(Double.POSITIVE_INFINITY, center.getNextCompletionTime());
+        
+        center.setCurrentWorkers(1);
+        center.addDetailToBuffer(new Detail(1));
+        center.addDetailToBuffer(new Detail(2));
+        
+        assertTrue(center.completeAndStartDetails(0.5));
+        assertEquals(3.0, center.getNextCompletionTime());
+        
+        // До момента завершения ничего не меняется
+        assertFalse(center.completeAndStartDetails(2.9));
+        
+        assertTrue(center.completeAndStartDetails(3.0));
+        assertEquals(1, center.getTotalDetailsProcessed());
+        assertEquals(5.5, center.getNextCompletionTime());
+    }
+}
\ No newline at end of file
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.Arrays;
+import java.util.List;
 
 class ProductionLineTest {
     
@@ -68,4 +69,108 @@ class ProductionLineTest {
         assertEquals(5, center3.getTotalDetailsProcessed()); // Примерно половина деталей
         assertEquals(10, center4.getTotalDetailsProcessed());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testEventModeUsesExactProcessingTime() {
+        ProductionCenter center1 = new ProductionCenter("Center 1", 1.5, 1);
+        ProductionCenter center2 = new ProductionCenter("Center 2", 0.25, 1);
+        
+        center1.setInitial(true);
+        center2.setFinal(true);
+        center1.addNextCenter(center2);
+        
+        for (int i = 0; i < 3; i++) {
+            center1.addDetailToBuffer(new Detail(i));
+        }
+        
+        ProductionLine line = new ProductionLine(Arrays.asList(center1, center2), 2);
+        assertEquals(SimulationMode.EVENT, line.getMode());
+        line.simulate();
+        
+        // Три детали по 1.5 минуты и 0.25 минуты на последнюю
+        assertEquals(4.75, line.getTotalTime(), 1e-9);
+        assertEquals(3, center2.getTotalDetailsProcessed());
+        
+        // Состояние записывается только в моменты событий: 0, 1.5, 1.75, 3, 3.25, 4.5, 4.75
+        assertEquals(7 * 2, line.getEvents().size());
+    }
+    
+    @Test
+    void testTickModeMatchesEventModeTotals() {
+        ProductionLine tickLine = createBranchedLine();
+        tickLine.setMode(SimulationMode.TICK);
+        tickLine.simulate();
+        
+        ProductionLine eventLine = createBranchedLine();
+        eventLine.simulate();
+        
+        // Шаговый режим округляет время обработки до целых минут
+        assertTrue(eventLine.getTotalTime() <= tickLine.getTotalTime());
+        for (ProductionCenter center : eventLine.getCenters()) {
+            assertEquals(0, center.getBufferSize());
+            assertEquals(0, center.getDetailsInProcessCount());
+        }
+        assertEquals(tickLine.getStatistics().split("\n")[2], eventLine.getStatistics().split("\n")[2]);
+    }
+    
+    private ProductionLine createBranchedLine() {
+        ProductionCenter center1 = new ProductionCenter("Center 1", 2.0, 2);
+        ProductionCenter center2 = new ProductionCenter("Center 2", 1.5, 1);
+        ProductionCenter center3 = new ProductionCenter("Center 3", 1.0, 2);
+        ProductionCenter center4 = new ProductionCenter("Center 4", 2.0, 1);
+        
+        center1.setInitial(true);
+        center1.addNextCenter(center2);
+        center1.addNextCenter(center3);
+        center2.addNextCenter(center4);
+        center3.addNextCenter(center4);
+        center4.setFinal(true);
+        
+        for (int i = 0; i < 20; i++) {
+            center1.addDetailToBuffer(new Detail(i));
+        }
+        
+        return new ProductionLine(Arrays.asList(center1, center2, center3, center4), 4);
+    }
+    
+    @Test
+    void testRecordChangesOnly() {
+        ProductionLine denseLine = createBranchedLine();
+        denseLine.setMode(SimulationMode.TICK);
+        denseLine.simulate();
+        
+        ProductionLine deltaLine = createBranchedLine();
+        deltaLine.setMode(SimulationMode.TICK);
+        deltaLine.setRecordChangesOnly(true);
+        deltaLine.simulate();
+        
+        List<ProductionEvent> events = deltaLine.getEvents();
+        assertTrue(events.size() < denseLine.getEvents().size());
+        
+        // Первый и последний моменты содержат все центры
+        double firstTime = events.get(0).getTime();
+        double lastTime = deltaLine.getTotalTime();
+        assertEquals(4, events.stream().filter(e -> e.getTime() == firstTime).count());
+        assertEquals(4, events.stream().filter(e -> e.getTime() == lastTime).count());
+    }
+    
+    @Test
+    void testStallFailsInBothModes() {
+        for (SimulationMode mode : SimulationMode.values()) {
+            ProductionCenter a = new ProductionCenter("A", 1.0, 1);
+            ProductionCenter b = new ProductionCenter("B", 1.0, 1);
+            a.setInitial(true);
+            b.setFinal(true);
+            a.addNextCenter(b);
+            for (int i = 0; i < 3; i++) {
+                a.addDetailToBuffer(i);
+            }
+            // Центр B не может получить рабочих: детали застревают в его буфере
+            b.setMaxWorkers(0);
+            ProductionLine line = new ProductionLine(Arrays.asList(a, b), 2);
+            line.setMode(mode);
+            IllegalStateException error = assertThrows(IllegalStateException.class, line::simulate, mode.name());
+            assertTrue(error.getMessage().startsWith("Simulation stalled"), mode.name());
+        }
+    }
+}
\ No newline at end of file
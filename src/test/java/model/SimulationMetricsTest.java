@@ -0,0 +1,100 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+
+class SimulationMetricsTest {
+    
+    // Цепочка A -> B -> C, каждая деталь передаётся дважды
+    private static ProductionLine chain(int details) {
+        return TestLines.chain(details, 4.0, 4.0, 4.0);
+    }
+    
+    @Test
+    void testTickCounters() {
+        ProductionLine line = chain(5);
+        line.setMode(SimulationMode.TICK);
+        SimulationMetrics metrics = new SimulationMetrics();
+        line.setMetrics(metrics);
+        line.simulate();
+        
+        assertEquals((long) line.getTotalTime(), metrics.getSteps());
+        assertEquals(0, metrics.getTicksSkipped());
+        assertEquals(10, metrics.getDetailsMoved());
+        assertEquals(line.getEvents().size(), metrics.getEventsRecorded());
+        assertTrue(metrics.getWorkerReassignments() >= 3);
+        assertTrue(metrics.getProcessingNanos() > 0);
+        assertTrue(metrics.getAllocationNanos() > 0);
+    }
+    
+    @Test
+    void testEventModeSkipsTicks() {
+        ProductionLine line = chain(5);
+        SimulationMetrics metrics = new SimulationMetrics();
+        line.setMetrics(metrics);
+        line.simulate();
+        
+        // Детали завершаются раз в 4 минуты: между событиями 3 минуты без шага
+        assertTrue(metrics.getSteps() < line.getTotalTime());
+        assertTrue(metrics.getTicksSkipped() > 0);
+        assertTrue(metrics.getSteps() + metrics.getTicksSkipped() <= line.getTotalTime() + 1);
+        assertEquals(10, metrics.getDetailsMoved());
+        assertEquals(10.0 / metrics.getSteps(), metrics.getDetailsMovedPerStep(), 1e-9);
+    }
+    
+    @Test
+    void testSameOutputWithMetrics() {
+        ProductionLine plain = chain(20);
+        plain.simulate();
+        
+        ProductionLine measured = chain(20);
+        SimulationMetrics metrics = new SimulationMetrics();
+        measured.setMetrics(metrics);
+        long[] written = new long[1];
+        measured.addEventSink(metrics.timeOutput((time, center, workers, buffer) -> written[0]++));
+        measured.simulate();
+        
+        assertEquals(plain.getTotalTime(), measured.getTotalTime());
+        assertEquals(plain.getEvents().size(), measured.getEvents().size());
+        assertEquals(measured.getEvents().size(), written[0]);
+        assertTrue(metrics.getRecordingNanos() >= metrics.getOutputWriteNanos());
+    }
+    
+    @Test
+    void testFormatAndReset() {
+        ProductionLine line = chain(3);
+        SimulationMetrics metrics = new SimulationMetrics();
+        line.setMetrics(metrics);
+        line.simulate();
+        
+        List<String> lines = Arrays.asList(metrics.format().split("\n"));
+        assertTrue(lines.contains("sim.details.moved=6"));
+        for (String entry : lines) {
+            assertTrue(entry.matches("sim\\.[a-z.]+=[0-9.E-]+"), entry);
+        }
+        
+        metrics.reset();
+        assertEquals(0, metrics.getSteps());
+        assertEquals(0, metrics.getDetailsMoved());
+    }
+    
+    @Test
+    void testRegisterMBean() throws Exception {
+        SimulationMetrics metrics = new SimulationMetrics();
+        metrics.registerMBean();
+        // Повторная регистрация заменяет прежний экземпляр
+        metrics.registerMBean();
+        
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(SimulationMetrics.OBJECT_NAME);
+        metrics.addStep();
+        assertEquals(1L, server.getAttribute(name, "Steps"));
+        server.unregisterMBean(name);
+    }
+}
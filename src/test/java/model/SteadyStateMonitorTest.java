@@ -0,0 +1,121 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+class SteadyStateMonitorTest {
+    
+    /**
+     * Один центр: деталь обрабатывается минуту, поступает каждые 2 минуты.
+     */
+    private static ProductionLine createLine(SimulationMode mode) {
+        ProductionCenter center = new ProductionCenter("A", 1.0, 1);
+        center.setInitial(true);
+        center.setFinal(true);
+        ProductionLine line = new ProductionLine(Arrays.asList(center), 1);
+        line.setMode(mode);
+        line.setArrivals(ArrivalProcess.fixedRate(0.5));
+        return line;
+    }
+    
+    private static SteadyStateMonitor.Report at(List<SteadyStateMonitor.Report> reports, double time) {
+        return reports.stream().filter(report -> report.getTime() == time).findFirst().orElseThrow();
+    }
+    
+    @Test
+    void testRollingWindow() {
+        for (SimulationMode mode : SimulationMode.values()) {
+            ProductionLine line = createLine(mode);
+            List<SteadyStateMonitor.Report> reports = new ArrayList<>();
+            line.setSteadyStateMonitor(new SteadyStateMonitor(10, reports::add));
+            assertFalse(line.simulateUntil(30.5));
+            
+            // Отчёт в конце каждого интервала окна (по минуте)
+            for (int i = 0; i < reports.size(); i++) {
+                assertEquals(i + 1, reports.get(i).getTime());
+            }
+            // В первом окне завершились детали, поступившие в 2, 4, 6, 8
+            assertEquals(4, at(reports, 10).getCompleted(), mode.name());
+            assertEquals(0.4, at(reports, 10).getThroughput(), 1e-9);
+            // Окно (10, 20]: завершения в 11, 13, ..., 19
+            SteadyStateMonitor.Report report = at(reports, 20);
+            assertEquals(5, report.getCompleted(), mode.name());
+            assertEquals(0.5, report.getThroughput(), 1e-9);
+            assertEquals(0.5, report.getAverageWip(), 1e-9);
+            assertEquals(1.0, report.getLatencyP50(), 1.0 / 64);
+            assertEquals(1.0, report.getLatencyP99(), 1.0 / 64);
+            // Короткое начальное окно не занижает пропускную способность
+            assertEquals(0, at(reports, 1).getCompleted());
+            assertTrue(Double.isNaN(at(reports, 1).getLatencyP50()));
+        }
+    }
+    
+    @Test
+    void testSameOutputWithMonitor() {
+        ProductionLine plain = createLine(SimulationMode.EVENT);
+        plain.simulateUntil(500);
+        
+        ProductionLine monitored = createLine(SimulationMode.EVENT);
+        monitored.setSteadyStateMonitor(new SteadyStateMonitor(60, null));
+        monitored.simulateUntil(500);
+        
+        assertEquals(EventRows.describe(plain), EventRows.describe(monitored));
+        // Окно в середине интервала - 9 полных интервалов и начало текущего
+        SteadyStateMonitor.Report report = monitored.getSteadyStateMonitor().report();
+        assertEquals(500.0, report.getTime());
+        assertEquals(28, report.getCompleted());
+        assertEquals(0.5, report.getThroughput(), 1e-9);
+    }
+    
+    @Test
+    void testInitialBatchCountsWithoutLatency() {
+        ProductionCenter a = new ProductionCenter("A", 2.0, 1);
+        ProductionCenter b = new ProductionCenter("B", 1.0, 1);
+        a.setInitial(true);
+        b.setFinal(true);
+        a.addNextCenter(b);
+        for (int i = 0; i < 4; i++) {
+            a.addDetailToBuffer(i);
+        }
+        ProductionLine line = new ProductionLine(Arrays.asList(a, b), 2);
+        SteadyStateMonitor monitor = new SteadyStateMonitor(100, null);
+        line.setSteadyStateMonitor(monitor);
+        line.simulate();
+        
+        SteadyStateMonitor.Report report = monitor.report();
+        assertEquals(4, report.getCompleted());
+        assertEquals(0, report.getWip());
+        assertEquals(9.0, report.getTime());
+        assertTrue(Double.isNaN(report.getLatencyP50()));
+        // Детали в линии: 4 до 3-й минуты, затем на одну меньше каждые 2 минуты
+        assertEquals((4 * 3 + 3 * 2 + 2 * 2 + 1 * 2) / 9.0, report.getAverageWip(), 1e-9);
+    }
+    
+    @Test
+    void testHistogramBins() {
+        assertEquals(0, SteadyStateMonitor.bin(0));
+        assertEquals(63, SteadyStateMonitor.bin(0.63));
+        assertEquals(0.63, SteadyStateMonitor.value(SteadyStateMonitor.bin(0.63)));
+        double previous = -1;
+        for (double latency = 0.5; latency < 1e9; latency *= 1.37) {
+            int bin = SteadyStateMonitor.bin(latency);
+            assertTrue(bin >= 0 && bin < SteadyStateMonitor.BINS);
+            assertEquals(latency, SteadyStateMonitor.value(bin), latency / 64);
+            assertTrue(SteadyStateMonitor.value(bin) >= previous);
+            previous = SteadyStateMonitor.value(bin);
+        }
+        assertEquals(SteadyStateMonitor.BINS - 1, SteadyStateMonitor.bin(Double.POSITIVE_INFINITY));
+    }
+    
+    @Test
+    void testReportCsv() {
+        SteadyStateMonitor.Report report = new SteadyStateMonitor.Report(
+            120, 30, 0.25, 4, 3.456, 2.04, 5.0, Double.NaN);
+        assertEquals("120.0, 0.25, 4, 3.46, 2.0, 5.0, , 30\n", report.toCsv());
+        assertThrows(IllegalArgumentException.class, () -> new SteadyStateMonitor(0, null));
+    }
+}
@@ -0,0 +1,37 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Небольшие линии, собранные вручную, для тестов.
+ */
+final class TestLines {
+    
+    private TestLines() {
+    }
+    
+    /**
+     * Цепочка центров "A" -> "B" -> ... с одним рабочим на центр. Детали
+     * 0 .. details - 1 лежат в буфере первого центра, рабочих столько же,
+     * сколько центров.
+     *
+     * @param processingTimes время обработки каждого центра по порядку
+     */
+    static ProductionLine chain(int details, double... processingTimes) {
+        List<ProductionCenter> centers = new ArrayList<>();
+        for (int i = 0; i < processingTimes.length; i++) {
+            ProductionCenter center = new ProductionCenter(String.valueOf((char) ('A' + i)), processingTimes[i], 1);
+            if (i > 0) {
+                centers.get(i - 1).addNextCenter(center);
+            }
+            centers.add(center);
+        }
+        centers.get(0).setInitial(true);
+        centers.get(centers.size() - 1).setFinal(true);
+        for (int i = 0; i < details; i++) {
+            centers.get(0).addDetailToBuffer(i);
+        }
+        return new ProductionLine(centers, centers.size());
+    }
+}
@@ -0,0 +1,99 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+class WorkerAllocationStrategyTest {
+    
+    @Test
+    void testAllPoliciesComplete() {
+        for (AllocationPolicy policy : AllocationPolicy.values()) {
+            for (SimulationMode mode : SimulationMode.values()) {
+                ProductionLine line = diamond().createLine();
+                line.setAllocationStrategy(policy.create());
+                line.setMode(mode);
+                line.simulate();
+                
+                assertEquals(20, line.getCenter(3).getTotalDetailsProcessed(), policy + " " + mode);
+            }
+        }
+    }
+    
+    @Test
+    void testGreedyIsDefault() {
+        ProductionLine defaultLine = diamond().createLine();
+        defaultLine.simulate();
+        ProductionLine greedyLine = diamond().createLine();
+        greedyLine.setAllocationStrategy(AllocationPolicy.GREEDY.create());
+        greedyLine.simulate();
+        
+        assertEquals(defaultLine.getTotalTime(), greedyLine.getTotalTime());
+        assertEquals(defaultLine.getEvents().size(), greedyLine.getEvents().size());
+    }
+    
+    @Test
+    void testLongestPathPriority() {
+        ProductionLine line = diamond().createLine();
+        List<ProductionCenter> centers = Arrays.asList(
+            line.getCenter(0), line.getCenter(1), line.getCenter(2), line.getCenter(3));
+        WorkerAllocationStrategy strategy = AllocationPolicy.LONGEST_PATH.create();
+        strategy.prepare(centers);
+        
+        // Путь от A: 1 + max(4, 1) + 2 = 7 минут, 20 деталей в буфере
+        assertEquals(140, strategy.priority(0, centers.get(0)));
+    }
+    
+    @Test
+    void testBottleneckPriority() {
+        ProductionCenter center = new ProductionCenter("Center", 4.0, 2);
+        center.addDetailToBuffer(1);
+        center.addDetailToBuffer(2);
+        
+        // Два рабочих разберут две детали по 4 минуты за 4 минуты
+        assertEquals(4, AllocationPolicy.BOTTLENECK.create().priority(0, center));
+    }
+    
+    @Test
+    void testLookaheadCountsIncomingDetails() {
+        ProductionLine line = diamond().createLine();
+        List<ProductionCenter> centers = Arrays.asList(
+            line.getCenter(0), line.getCenter(1), line.getCenter(2), line.getCenter(3));
+        WorkerAllocationStrategy strategy = AllocationPolicy.LOOKAHEAD.create();
+        strategy.prepare(centers);
+        assertTrue(strategy.dependsOnPredecessors());
+        
+        ProductionCenter a = centers.get(0);
+        a.setCurrentWorkers(2);
+        a.completeAndStartDetails(0);
+        // A обрабатывает 2 детали и раздаёт их поровну между B и C
+        assertEquals(1 * 4.0, strategy.priority(1, centers.get(1)));
+    }
+    
+    @Test
+    void testFromName() {
+        assertEquals(AllocationPolicy.LONGEST_PATH, AllocationPolicy.fromName("longest-path"));
+        assertEquals(AllocationPolicy.LOOKAHEAD, AllocationPolicy.fromName("LOOKAHEAD"));
+        assertThrows(IllegalArgumentException.class, () -> AllocationPolicy.fromName("random"));
+    }
+    
+    /**
+     * A раздаёт детали B (4 минуты) и C (1 минута), оба передают их в D.
+     */
+    private static LineTopology diamond() {
+        return LineTopology.compile(new LineConfiguration(
+            Arrays.asList(
+                new LineConfiguration.CenterSpec("A", 1.0, 2),
+                new LineConfiguration.CenterSpec("B", 4.0, 2),
+                new LineConfiguration.CenterSpec("C", 1.0, 1),
+                new LineConfiguration.CenterSpec("D", 2.0, 2)),
+            Arrays.asList(
+                new LineConfiguration.Connection("A", "B"),
+                new LineConfiguration.Connection("A", "C"),
+                new LineConfiguration.Connection("B", "D"),
+                new LineConfiguration.Connection("C", "D")),
+            "A", 20, 3));
+    }
+}
@@ -0,0 +1,45 @@
+package util;
+
+import model.ArrivalProcess;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+class ArrivalFileTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    void testReadsTimesInOrder() throws IOException {
+        Path file = tempDir.resolve("arrivals.txt");
+        Files.write(file, "# записанные поступления\n0.5\n\n  2 \n2\n10.25\n".getBytes(StandardCharsets.UTF_8));
+        try (ArrivalFile arrivals = new ArrivalFile(file.toString())) {
+            assertEquals(0.5, arrivals.nextArrival());
+            assertEquals(2.0, arrivals.nextArrival());
+            assertEquals(2.0, arrivals.nextArrival());
+            assertEquals(10.25, arrivals.nextArrival());
+            assertEquals(Double.POSITIVE_INFINITY, arrivals.nextArrival());
+            assertEquals(Double.POSITIVE_INFINITY, arrivals.nextArrival());
+        }
+    }
+    
+    @Test
+    void testRejectsInvalidTimes() {
+        ArrivalProcess decreasing = new ArrivalFile(new StringReader("5\n3\n"));
+        decreasing.nextArrival();
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, decreasing::nextArrival);
+        assertTrue(error.getMessage().startsWith("Line 2:"));
+        
+        ArrivalProcess malformed = new ArrivalFile(new StringReader("1\n# x\nsoon\n"));
+        malformed.nextArrival();
+        error = assertThrows(IllegalArgumentException.class, malformed::nextArrival);
+        assertTrue(error.getMessage().startsWith("Line 3:"));
+    }
+}
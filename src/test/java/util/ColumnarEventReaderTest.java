@@ -0,0 +1,86 @@
+package util;
+
+import model.ProductionEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+class ColumnarEventReaderTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    /**
+     * 100 минут по 3 центра в минуту, блоки по 10 строк.
+     */
+    private String writeResult() throws IOException {
+        String file = tempDir.resolve("result.simc").toString();
+        try (ColumnarEventSink sink = new ColumnarEventSink(file, 10)) {
+            for (int minute = 0; minute < 100; minute++) {
+                sink.record(minute, "A", 1, minute);
+                sink.record(minute, "B", 2, minute * 2);
+                sink.record(minute, "C", 3, minute * 3);
+            }
+        }
+        return file;
+    }
+    
+    @Test
+    void testTableOfContents() throws IOException {
+        try (ColumnarEventReader reader = new ColumnarEventReader(writeResult())) {
+            assertEquals(300, reader.getRowCount());
+            assertEquals(30, reader.getBlockCount());
+            assertEquals(Arrays.asList("A", "B", "C"), reader.getCenterNames());
+        }
+    }
+    
+    @Test
+    void testScanCenter() throws IOException {
+        List<ProductionEvent> events = new ArrayList<>();
+        try (ColumnarEventReader reader = new ColumnarEventReader(writeResult())) {
+            long rows = reader.scan("B", Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+                (time, center, workers, buffer) -> events.add(new ProductionEvent(time, center, workers, buffer)));
+            assertEquals(100, rows);
+            assertEquals(0, reader.scan("Нет такого", 0, 100, (time, center, workers, buffer) -> fail()));
+        }
+        for (int minute = 0; minute < 100; minute++) {
+            assertEquals(minute, events.get(minute).getTime());
+            assertEquals("B", events.get(minute).getProductionCenter());
+            assertEquals(minute * 2, events.get(minute).getBufferCount());
+        }
+    }
+    
+    @Test
+    void testScanTimeRange() throws IOException {
+        List<ProductionEvent> events = new ArrayList<>();
+        try (ColumnarEventReader reader = new ColumnarEventReader(writeResult())) {
+            reader.scan("C", 40, 42.5,
+                (time, center, workers, buffer) -> events.add(new ProductionEvent(time, center, workers, buffer)));
+        }
+        assertEquals(3, events.size());
+        assertEquals(40.0, events.get(0).getTime());
+        assertEquals(42.0, events.get(2).getTime());
+        assertEquals(126, events.get(2).getBufferCount());
+    }
+    
+    @Test
+    void testRejectsIncompleteFile() throws IOException {
+        String file = writeResult();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 4);
+        }
+        assertThrows(IOException.class, () -> new ColumnarEventReader(file));
+        
+        Path csv = tempDir.resolve("result.csv");
+        Files.writeString(csv, "Time, ProductionCenter, WorkersCount, BufferCount\n");
+        assertThrows(IOException.class, () -> new ColumnarEventReader(csv.toString()));
+    }
+}
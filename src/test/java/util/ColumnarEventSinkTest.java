@@ -0,0 +1,105 @@
+package util;
+
+import model.LineConfiguration;
+import model.ProductionEvent;
+import model.ProductionLine;
+import model.SimulationMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+class ColumnarEventSinkTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    private static final double[] TIMES = {
+        0.0, -0.0, 1.0, 2.5, 2.5, 0.1 + 0.2, 1.0 / 3, 1e-9, 12345678.9, 1e16, -1.25, Double.NaN
+    };
+    
+    @Test
+    void testRoundTripIsExact() throws IOException {
+        String file = tempDir.resolve("result.simc").toString();
+        List<ProductionEvent> written = new ArrayList<>();
+        // Маленькие блоки: и блоки с десятыми долями, и блоки с double
+        try (ColumnarEventSink sink = new ColumnarEventSink(file, 3)) {
+            for (int i = 0; i < TIMES.length; i++) {
+                String center = "Центр " + (i % 4);
+                int workers = i % 2 == 0 ? i : -i * 1000;
+                int buffer = i == 5 ? Integer.MAX_VALUE : Integer.MIN_VALUE + i;
+                sink.record(TIMES[i], center, workers, buffer);
+                written.add(new ProductionEvent(TIMES[i], center, workers, buffer));
+            }
+        }
+        
+        List<ProductionEvent> read = readAll(file);
+        assertEquals(written.size(), read.size());
+        for (int i = 0; i < written.size(); i++) {
+            assertEquals(Double.doubleToRawLongBits(written.get(i).getTime()),
+                Double.doubleToRawLongBits(read.get(i).getTime()), "row " + i);
+            assertEquals(written.get(i).getProductionCenter(), read.get(i).getProductionCenter());
+            assertEquals(written.get(i).getWorkersCount(), read.get(i).getWorkersCount());
+            assertEquals(written.get(i).getBufferCount(), read.get(i).getBufferCount());
+        }
+    }
+    
+    @Test
+    void testSimulationSmallerThanCsv() throws IOException {
+        LineConfiguration configuration = new LineGenerator().setCenters(20).setDetailsCount(500).setSeed(5).generate();
+        for (SimulationMode mode : SimulationMode.values()) {
+            String columnar = tempDir.resolve(mode + ".simc").toString();
+            String csv = tempDir.resolve(mode + ".csv").toString();
+            ProductionLine line = configuration.createLine();
+            line.setMode(mode);
+            try (ColumnarEventSink columnarSink = new ColumnarEventSink(columnar);
+                 FastCsvEventSink csvSink = new FastCsvEventSink(csv)) {
+                line.addEventSink(columnarSink);
+                line.addEventSink(csvSink);
+                line.simulate();
+            }
+            
+            List<ProductionEvent> read = readAll(columnar);
+            assertEquals(line.getEvents().size(), read.size());
+            for (int i = 0; i < read.size(); i++) {
+                assertEquals(line.getEvents().get(i).getTime(), read.get(i).getTime());
+                assertEquals(line.getEvents().get(i).getProductionCenter(), read.get(i).getProductionCenter());
+                assertEquals(line.getEvents().get(i).getBufferCount(), read.get(i).getBufferCount());
+            }
+            assertTrue(Files.size(Path.of(columnar)) * 3 < Files.size(Path.of(csv)),
+                mode + ": " + Files.size(Path.of(columnar)) + " vs " + Files.size(Path.of(csv)));
+        }
+    }
+    
+    @Test
+    void testEmptyResult() throws IOException {
+        String file = tempDir.resolve("empty.simc").toString();
+        new ColumnarEventSink(file).close();
+        try (ColumnarEventReader reader = new ColumnarEventReader(file)) {
+            assertEquals(0, reader.getRowCount());
+            assertEquals(0, reader.getBlockCount());
+            assertTrue(reader.getCenterNames().isEmpty());
+        }
+    }
+    
+    @Test
+    void testWidth() {
+        assertEquals(1, ColumnarEventSink.width(-128, 127));
+        assertEquals(2, ColumnarEventSink.width(0, 128));
+        assertEquals(2, ColumnarEventSink.width(-32768, 0));
+        assertEquals(4, ColumnarEventSink.width(0, 32768));
+    }
+    
+    static List<ProductionEvent> readAll(String file) throws IOException {
+        List<ProductionEvent> events = new ArrayList<>();
+        try (ColumnarEventReader reader = new ColumnarEventReader(file)) {
+            reader.scan((time, center, workers, buffer) -> events.add(new ProductionEvent(time, center, workers, buffer)));
+        }
+        return events;
+    }
+}
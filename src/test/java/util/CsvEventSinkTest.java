@@ -0,0 +1,61 @@
+package util;
+
+import model.Detail;
+import model.ProductionCenter;
+import model.ProductionLine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+class CsvEventSinkTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    void testStreamingMatchesCsvWriter() throws IOException {
+        ProductionLine line = createLine();
+        StringWriter streamed = new StringWriter();
+        try (CsvEventSink sink = new CsvEventSink(streamed)) {
+            line.addEventSink(sink);
+            line.simulate();
+        }
+        
+        Path file = tempDir.resolve("output.csv");
+        CsvWriter.writeResults(file.toString(), line.getEvents());
+        
+        assertEquals(new String(Files.readAllBytes(file)), streamed.toString());
+    }
+    
+    @Test
+    void testEventsNotKeptInMemory() throws IOException {
+        ProductionLine line = createLine();
+        line.setKeepEventsInMemory(false);
+        StringWriter streamed = new StringWriter();
+        try (CsvEventSink sink = new CsvEventSink(streamed)) {
+            line.addEventSink(sink);
+            line.simulate();
+        }
+        
+        assertTrue(line.getEvents().isEmpty());
+        assertTrue(streamed.toString().split("\n").length > 1);
+    }
+    
+    private ProductionLine createLine() {
+        ProductionCenter center1 = new ProductionCenter("Center 1", 2.0, 2);
+        ProductionCenter center2 = new ProductionCenter("Center 2", 1.5, 1);
+        center1.setInitial(true);
+        center2.setFinal(true);
+        center1.addNextCenter(center2);
+        for (int i = 0; i < 5; i++) {
+            center1.addDetailToBuffer(new Detail(i));
+        }
+        return new ProductionLine(Arrays.asList(center1, center2), 3);
+    }
+}
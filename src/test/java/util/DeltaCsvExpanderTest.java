@@ -0,0 +1,69 @@
+package util;
+
+import model.Detail;
+import model.ProductionCenter;
+import model.ProductionLine;
+import model.SimulationMode;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+
+class DeltaCsvExpanderTest {
+    
+    @Test
+    void testExpandRestoresTickOutput() throws IOException {
+        String dense = simulate(false);
+        String delta = simulate(true);
+        assertTrue(delta.length() < dense.length());
+        
+        StringWriter expanded = new StringWriter();
+        DeltaCsvExpander.expand(new StringReader(delta), expanded, 1.0);
+        
+        assertEquals(dense, expanded.toString());
+    }
+    
+    @Test
+    void testExpandKeepsLastKnownState() throws IOException {
+        String delta = CsvEventSink.HEADER
+            + "0.0, A, 1, 5\n"
+            + "0.0, B, 0, 0\n"
+            + "2.5, B, 1, 1\n"
+            + "3.0, A, 0, 0\n"
+            + "3.0, B, 1, 1\n";
+        StringWriter expanded = new StringWriter();
+        DeltaCsvExpander.expand(new StringReader(delta), expanded, 1.0);
+        
+        assertEquals(CsvEventSink.HEADER
+            + "0.0, A, 1, 5\n0.0, B, 0, 0\n"
+            + "1.0, A, 1, 5\n1.0, B, 0, 0\n"
+            + "2.0, A, 1, 5\n2.0, B, 0, 0\n"
+            + "3.0, A, 0, 0\n3.0, B, 1, 1\n", expanded.toString());
+    }
+    
+    private String simulate(boolean delta) throws IOException {
+        ProductionCenter center1 = new ProductionCenter("Center 1", 2.0, 2);
+        ProductionCenter center2 = new ProductionCenter("Center 2", 3.0, 1);
+        ProductionCenter center3 = new ProductionCenter("Center 3", 1.0, 1);
+        center1.setInitial(true);
+        center1.addNextCenter(center2);
+        center2.addNextCenter(center3);
+        center3.setFinal(true);
+        for (int i = 0; i < 6; i++) {
+            center1.addDetailToBuffer(new Detail(i));
+        }
+        
+        ProductionLine line = new ProductionLine(Arrays.asList(center1, center2, center3), 3);
+        line.setMode(SimulationMode.TICK);
+        line.setRecordChangesOnly(delta);
+        StringWriter output = new StringWriter();
+        try (FastCsvEventSink sink = new FastCsvEventSink(output)) {
+            line.addEventSink(sink);
+            line.simulate();
+        }
+        return output.toString();
+    }
+}
@@ -1,5 +1,6 @@
 package util;
 
+import model.ProductionEvent;
 import model.ProductionLine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -32,7 +33,8 @@ class ExcelReaderTest {
         
         // Проверяем результаты
         assertFalse(events.isEmpty());
-        assertEquals(10, events.get(events.size() - 1).getTime(), 0.1);
+        // Узкое место - Центр 2 (3 мин, 1 рабочий): 2 + 10 × 3 + 2.5
+        assertEquals(34.5, events.get(events.size() - 1).getTime(), 0.1);
     }
     
     @Test
@@ -8,6 +8,10 @@ import java.io.IOException;
 
 public class ExcelTestGenerator {
     public static void generateTestFile(String filePath) throws IOException {
+        generateTestFile(filePath, 10);
+    }
+    
+    public static void generateTestFile(String filePath, int detailsCount) throws IOException {
         try (Workbook workbook = new XSSFWorkbook()) {
             // Создаем лист с производственными центрами
             Sheet centersSheet = workbook.createSheet("Centers");
@@ -29,7 +33,7 @@ public class ExcelTestGenerator {
             // Создаем лист с начальными данными
             Sheet initialDataSheet = workbook.createSheet("Initial Data");
             createHeader(initialDataSheet, new String[]{"Кол-во рабочих", "Начальный центр", "Кол-во деталей"});
-            addRow(initialDataSheet, 1, new Object[]{5, "Центр 1", 10});
+            addRow(initialDataSheet, 1, new Object[]{5, "Центр 1", detailsCount});
             
             // Сохраняем файл
             try (FileOutputStream fileOut = new FileOutputStream(filePath)) {
@@ -0,0 +1,113 @@
+package util;
+
+import model.EventSink;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+class FastCsvEventSinkTest {
+    
+    private static final double[] TIMES = {
+        0.0, -0.0, 1.0, 2.5, 34.5, 0.05, 0.15, 0.25, 0.35, 1.0 / 3, 2.0 / 3,
+        0.1 + 0.2, 1e-9, 99.95, 12345678.9, 1e16, -1.25, Double.NaN
+    };
+    
+    @Test
+    void testMatchesStringFormat() throws IOException {
+        assertEquals(formatReference(), formatFast());
+    }
+    
+    @Test
+    void testMatchesStringFormatInOtherLocales() throws IOException {
+        Locale original = Locale.getDefault(Locale.Category.FORMAT);
+        try {
+            for (Locale locale : new Locale[]{
+                    new Locale("ru", "RU"), Locale.GERMANY, Locale.forLanguageTag("ar-EG"),
+                    Locale.forLanguageTag("th-TH-u-nu-thai")}) {
+                Locale.setDefault(Locale.Category.FORMAT, locale);
+                assertEquals(formatReference(), formatFast(), locale.toString());
+            }
+        } finally {
+            Locale.setDefault(Locale.Category.FORMAT, original);
+        }
+    }
+    
+    @Test
+    void testLongNamesAcrossBufferBoundary() throws IOException {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            name.append((char) ('a' + i % 26));
+        }
+        
+        StringWriter reference = new StringWriter();
+        StringWriter fast = new StringWriter();
+        try (CsvEventSink sink = new CsvEventSink(reference);
+             FastCsvEventSink fastSink = new FastCsvEventSink(fast)) {
+            for (int i = 0; i < 1000; i++) {
+                String center = i % 100 == 0 ? name.toString() : "Центр " + i;
+                sink.record(i, center, i % 7, Integer.MAX_VALUE - i);
+                fastSink.record(i, center, i % 7, Integer.MAX_VALUE - i);
+            }
+        }
+        assertEquals(reference.toString(), fast.toString());
+    }
+    
+    @Test
+    void testResumeKeepsRecordedRows(@TempDir Path directory) throws IOException {
+        String file = directory.resolve("out.csv").toString();
+        try (FastCsvEventSink sink = new FastCsvEventSink(file)) {
+            for (int i = 0; i < 5; i++) {
+                sink.record(i, "Center 1", 1, i);
+            }
+        }
+        
+        // Строки после третьей записаны уже после снимка и перезаписываются
+        try (FastCsvEventSink sink = FastCsvEventSink.resume(file, 3)) {
+            sink.record(3, "Center 2", 2, 0);
+        }
+        String expected = CsvEventSink.HEADER
+            + format(0, 0) + format(1, 1) + format(2, 2) + "3.0, Center 2, 2, 0\n";
+        assertEquals(expected.replace('.', decimalSeparator()),
+            new String(Files.readAllBytes(directory.resolve("out.csv")), StandardCharsets.UTF_8));
+        
+        assertThrows(IOException.class, () -> FastCsvEventSink.resume(file, 10));
+    }
+    
+    private static String format(int time, int buffer) {
+        return time + ".0, Center 1, 1, " + buffer + "\n";
+    }
+    
+    private static char decimalSeparator() {
+        return String.format("%.1f", 0.5).charAt(1);
+    }
+    
+    private String formatReference() throws IOException {
+        StringWriter writer = new StringWriter();
+        try (CsvEventSink sink = new CsvEventSink(writer)) {
+            recordAll(sink);
+        }
+        return writer.toString();
+    }
+    
+    private String formatFast() throws IOException {
+        StringWriter writer = new StringWriter();
+        try (FastCsvEventSink sink = new FastCsvEventSink(writer)) {
+            recordAll(sink);
+        }
+        return writer.toString();
+    }
+    
+    private void recordAll(EventSink sink) {
+        for (double time : TIMES) {
+            sink.record(time, "Центр 1", 3, 1024);
+            sink.record(time, "Center 2", 0, -7);
+        }
+    }
+}
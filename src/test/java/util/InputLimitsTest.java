@@ -0,0 +1,104 @@
+package util;
+
+import model.LineConfiguration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+class InputLimitsTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    void testLoadFromProperties() throws IOException {
+        Path file = tempDir.resolve("limits.properties");
+        Files.write(file, ("processing.time.max = 100\n" +
+            "workers.max = 400\n" +
+            "details.max = unlimited\n").getBytes(StandardCharsets.UTF_8));
+        
+        InputLimits limits = InputLimits.forName(file.toString());
+        assertEquals(100, limits.getMaxProcessingTime());
+        assertEquals(400, limits.getMaxTotalWorkers());
+        assertEquals(Integer.MAX_VALUE, limits.getMaxDetailsCount());
+        // Отсутствующий ключ берётся из профиля по умолчанию
+        assertEquals(20, limits.getMaxCenters());
+        
+        assertSame(InputLimits.DEFAULT, InputLimits.forName("default"));
+        assertSame(InputLimits.UNLIMITED, InputLimits.forName("unlimited"));
+    }
+    
+    @Test
+    void testDefaultMessages() {
+        IllegalArgumentException time = assertThrows(IllegalArgumentException.class,
+            () -> LineValidator.validateCenterData(11, 1, InputLimits.DEFAULT));
+        assertEquals("Processing time must be between 0 and 10 minutes", time.getMessage());
+        
+        IllegalArgumentException workers = assertThrows(IllegalArgumentException.class,
+            () -> LineValidator.validateInitialData(41, 10, InputLimits.DEFAULT));
+        assertEquals("Total workers must be between 1 and 40", workers.getMessage());
+        
+        IllegalArgumentException unlimited = assertThrows(IllegalArgumentException.class,
+            () -> LineValidator.validateInitialData(0, 10, InputLimits.UNLIMITED));
+        assertEquals("Total workers must be positive", unlimited.getMessage());
+    }
+    
+    @Test
+    void testReadersEnforceLimits() throws IOException {
+        // 100 центров, 400 рабочих и 20 000 деталей - в 10 раз больше ограничений по умолчанию
+        LineConfiguration configuration = new LineGenerator()
+            .setCenters(100)
+            .setDetailsCount(20_000)
+            .setTotalWorkers(400)
+            .generate();
+        InputLimits scaled = new InputLimits(100, 400, 20_000, 200);
+        
+        for (String name : new String[]{"line.line", "line.lineb", "line.xlsx"}) {
+            String path = tempDir.resolve(name).toString();
+            LineConverter.write(configuration, path);
+            
+            assertThrows(IllegalArgumentException.class, () -> LineReader.readConfiguration(path), name);
+            LineConfiguration read = LineReader.readConfiguration(path, scaled);
+            assertEquals(100, read.getCenters().size(), name);
+            assertEquals(20_000, read.getDetailsCount(), name);
+        }
+    }
+    
+    @Test
+    void testCentersCount() {
+        String text = "[centers]\n" +
+            "A, 1, 1\n" +
+            "B, 1, 1\n" +
+            "C, 1, 1\n" +
+            "[connections]\n" +
+            "A, B\n" +
+            "B, C\n" +
+            "[initial]\n" +
+            "workers = 1\n" +
+            "center = A\n" +
+            "details = 1\n";
+        InputLimits twoCenters = new InputLimits(10, 40, 2000, 2);
+        
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+            () -> LineTextFormat.read(new StringReader(text), twoCenters));
+        assertEquals("Maximum number of production centers is 2", error.getMessage());
+    }
+    
+    @Test
+    void testCacheRevalidates() throws IOException {
+        String input = tempDir.resolve("line.xlsx").toString();
+        ExcelTestGenerator.generateTestFile(input, 1500);
+        ModelCache cache = new ModelCache(tempDir.resolve("cache"));
+        cache.load(input);
+        
+        InputLimits fewDetails = new InputLimits(10, 40, 1000, 20);
+        assertThrows(IllegalArgumentException.class, () -> cache.load(input, fewDetails));
+        assertTrue(cache.load(input).getDetailsCount() == 1500 && cache.isLastHit());
+    }
+}
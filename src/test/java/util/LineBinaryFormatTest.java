@@ -0,0 +1,59 @@
+package util;
+
+import model.LineConfiguration;
+import model.LineConfiguration.CenterSpec;
+import model.LineConfiguration.Connection;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+class LineBinaryFormatTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    void testWriteAndReadBack() throws IOException {
+        LineConfiguration configuration = new LineConfiguration(
+            Arrays.asList(new CenterSpec("Центр 1", 2.0, 2), new CenterSpec("Центр 2", 1.0 / 3, 1)),
+            Arrays.asList(new Connection("Центр 1", "Центр 2")),
+            "Центр 1", 12, 3);
+        String path = tempDir.resolve("line.lineb").toString();
+        
+        LineBinaryFormat.write(configuration, path);
+        LineConfiguration read = LineBinaryFormat.read(path);
+        
+        assertEquals("Центр 2", read.getCenters().get(1).getName());
+        assertEquals(1.0 / 3, read.getCenters().get(1).getProcessingTime());
+        assertEquals(1, read.getCenters().get(1).getMaxWorkers());
+        assertEquals("Центр 2", read.getConnections().get(0).getTo());
+        assertEquals("Центр 1", read.getInitialCenter());
+        assertEquals(12, read.getDetailsCount());
+        assertEquals(3, read.getTotalWorkers());
+    }
+    
+    @Test
+    void testRejectsOtherFiles() throws IOException {
+        Path path = tempDir.resolve("line.lineb");
+        Files.write(path, "[centers]\n".getBytes());
+        assertThrows(IOException.class, () -> LineBinaryFormat.read(path.toString()));
+    }
+    
+    @Test
+    void testValidatesStructure() throws IOException {
+        // Два конечных центра
+        LineConfiguration configuration = new LineConfiguration(
+            Arrays.asList(new CenterSpec("A", 1.0, 1), new CenterSpec("B", 1.0, 1), new CenterSpec("C", 1.0, 1)),
+            Arrays.asList(new Connection("A", "B"), new Connection("A", "C")),
+            "A", 1, 1);
+        String path = tempDir.resolve("line.lineb").toString();
+        LineBinaryFormat.write(configuration, path);
+        
+        assertThrows(IllegalStateException.class, () -> LineBinaryFormat.read(path));
+    }
+}
@@ -0,0 +1,139 @@
+package util;
+
+import model.LineConfiguration;
+import model.LineConfiguration.CenterSpec;
+import model.LineTopology;
+import model.ProductionCenter;
+import model.ProductionLine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+class LineGeneratorTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    void testStructure() {
+        LineConfiguration configuration = new LineGenerator()
+            .setCenters(200)
+            .setMaxFanIn(3)
+            .setMaxFanOut(2)
+            .setSeed(7)
+            .generate();
+        
+        assertEquals(200, configuration.getCenters().size());
+        LineValidator.validateStructure(configuration);
+        
+        // Входящих связей у промежуточных центров от 1 до maxFanIn
+        LineTopology topology = LineTopology.compile(configuration);
+        int[] incoming = new int[topology.getCenterCount()];
+        for (int i = 0; i < topology.getCenterCount(); i++) {
+            for (int k = 0; k < topology.getNextCount(i); k++) {
+                incoming[topology.getNextCenter(i, k)]++;
+            }
+        }
+        assertEquals(0, incoming[0]);
+        for (int i = 1; i < topology.getCenterCount() - 1; i++) {
+            assertTrue(incoming[i] >= 1 && incoming[i] <= 3, "center " + i + " fan-in " + incoming[i]);
+        }
+    }
+    
+    @Test
+    void testSameSeedSameLine() {
+        LineConfiguration first = new LineGenerator().setCenters(50).setSeed(3).generate();
+        LineConfiguration second = new LineGenerator().setCenters(50).setSeed(3).generate();
+        
+        assertEquals(first.getConnections().size(), second.getConnections().size());
+        for (int i = 0; i < first.getConnections().size(); i++) {
+            assertEquals(first.getConnections().get(i).getFrom(), second.getConnections().get(i).getFrom());
+            assertEquals(first.getConnections().get(i).getTo(), second.getConnections().get(i).getTo());
+        }
+        for (int i = 0; i < first.getCenters().size(); i++) {
+            assertEquals(first.getCenters().get(i).getProcessingTime(), second.getCenters().get(i).getProcessingTime());
+        }
+    }
+    
+    @Test
+    void testProcessingTimeDistributions() {
+        LineConfiguration fixed = new LineGenerator()
+            .setProcessingTimes(LineGenerator.TimeDistribution.FIXED, 2.5, 2.5)
+            .generate();
+        for (CenterSpec center : fixed.getCenters()) {
+            assertEquals(2.5, center.getProcessingTime());
+        }
+        
+        LineConfiguration exponential = new LineGenerator()
+            .setCenters(500)
+            .setProcessingTimes(LineGenerator.TimeDistribution.EXPONENTIAL, 1, 5)
+            .generate();
+        for (CenterSpec center : exponential.getCenters()) {
+            assertTrue(center.getProcessingTime() >= 1 && center.getProcessingTime() <= 5);
+        }
+    }
+    
+    @Test
+    void testLargeLineBeyondInputLimits() {
+        // 10 000 центров в 1 000 слоях: структура проверяется без ограничений входных данных
+        LineConfiguration configuration = new LineGenerator()
+            .setCenters(10_000)
+            .setLayerWidth(10)
+            .setDetailsCount(1_000_000)
+            .setTotalWorkers(2_000)
+            .generate();
+        LineValidator.validateStructure(configuration);
+        assertThrows(IllegalArgumentException.class, () -> LineValidator.validateConfiguration(configuration, InputLimits.DEFAULT));
+        
+        LineConfiguration simulated = new LineGenerator()
+            .setCenters(100)
+            .setDetailsCount(5_000)
+            .setTotalWorkers(100)
+            .generate();
+        ProductionLine line = simulated.createLine();
+        line.setKeepEventsInMemory(false);
+        line.simulate();
+        assertEquals(5_000, line.getCenter(99).getTotalDetailsProcessed());
+    }
+    
+    private static List<String> centerNames(ProductionLine line) {
+        return line.getCenters().stream().map(ProductionCenter::getName).collect(Collectors.toList());
+    }
+    
+    @Test
+    void testWriteFormats() throws IOException {
+        LineConfiguration configuration = new LineGenerator().setCenters(10).setDetailsCount(100).setSeed(5).generate();
+        
+        ProductionLine expected = configuration.createLine();
+        expected.simulate();
+        for (String name : new String[]{"line.xlsx", "line.line", "line.lineb"}) {
+            String path = tempDir.resolve(name).toString();
+            LineConverter.write(configuration, path);
+            ProductionLine line = LineReader.read(path);
+            line.simulate();
+            assertEquals(expected.getTotalTime(), line.getTotalTime(), name);
+            // Порядок центров сохраняется: от него зависят индексы центров и порядок строк вывода
+            assertEquals(centerNames(expected), centerNames(line), name);
+            assertEquals(expected.getEvents().size(), line.getEvents().size(), name);
+        }
+    }
+    
+    @Test
+    void testConvertBeyondDefaultLimits() throws IOException {
+        LineConfiguration configuration = new LineGenerator().setCenters(200).setSeed(7).generate();
+        String binary = tempDir.resolve("big.lineb").toString();
+        String text = tempDir.resolve("big.line").toString();
+        LineConverter.write(configuration, binary);
+        
+        // С ограничениями по умолчанию допускается не больше 20 центров
+        assertThrows(IllegalArgumentException.class, () -> LineConverter.convert(binary, text));
+        LineConverter.convert(binary, text, InputLimits.UNLIMITED);
+        LineConfiguration converted = LineReader.readConfiguration(text, InputLimits.UNLIMITED);
+        assertEquals(200, converted.getCenters().size());
+    }
+}
@@ -0,0 +1,105 @@
+package util;
+
+import model.LineConfiguration;
+import model.LineConfiguration.CenterSpec;
+import model.LineConfiguration.Connection;
+import model.ProductionLine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+class LineTextFormatTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    void testRead() throws IOException {
+        String text =
+            "# Тестовая линия\n" +
+            "[centers]\n" +
+            "Центр 1, 2.0, 2\n" +
+            "\"Центр, 2\", 3, 1\n" +
+            "\n" +
+            "[connections]\n" +
+            "Центр 1, \"Центр, 2\"\n" +
+            "[initial]\n" +
+            "workers = 5\n" +
+            "center = Центр 1\n" +
+            "details = 10\n";
+        
+        LineConfiguration configuration = LineTextFormat.read(new StringReader(text));
+        
+        assertEquals(2, configuration.getCenters().size());
+        assertEquals("Центр, 2", configuration.getCenters().get(1).getName());
+        assertEquals(3.0, configuration.getCenters().get(1).getProcessingTime());
+        assertEquals("Центр, 2", configuration.getConnections().get(0).getTo());
+        assertEquals("Центр 1", configuration.getInitialCenter());
+        assertEquals(5, configuration.getTotalWorkers());
+        assertEquals(10, configuration.getDetailsCount());
+    }
+    
+    @Test
+    void testWriteAndReadBack() throws IOException {
+        LineConfiguration configuration = new LineConfiguration(
+            Arrays.asList(
+                new CenterSpec("A", 0.1, 1),
+                new CenterSpec(" \"B\" ", 2.5, 3),
+                new CenterSpec("#C", 1.0 / 3, 2)),
+            Arrays.asList(new Connection("A", " \"B\" "), new Connection(" \"B\" ", "#C")),
+            "A", 7, 4);
+        
+        StringWriter text = new StringWriter();
+        LineTextFormat.write(configuration, text);
+        LineConfiguration read = LineTextFormat.read(new StringReader(text.toString()));
+        
+        for (int i = 0; i < 3; i++) {
+            assertEquals(configuration.getCenters().get(i).getName(), read.getCenters().get(i).getName());
+            assertEquals(configuration.getCenters().get(i).getProcessingTime(), read.getCenters().get(i).getProcessingTime());
+            assertEquals(configuration.getCenters().get(i).getMaxWorkers(), read.getCenters().get(i).getMaxWorkers());
+        }
+        assertEquals(" \"B\" ", read.getConnections().get(1).getFrom());
+        assertEquals(7, read.getDetailsCount());
+        assertEquals(4, read.getTotalWorkers());
+    }
+    
+    @Test
+    void testErrorsReportLineNumber() {
+        String text = "[centers]\nA, 2.0\n";
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> LineTextFormat.read(new StringReader(text)));
+        assertTrue(e.getMessage().startsWith("Line 2:"));
+        
+        assertThrows(IllegalArgumentException.class,
+            () -> LineTextFormat.read(new StringReader("[centers]\nA, 20.0, 1\n")));
+    }
+    
+    @Test
+    void testConvertedFilesSimulateLikeExcel() throws IOException {
+        String xlsx = tempDir.resolve("line.xlsx").toString();
+        String text = tempDir.resolve("line.line").toString();
+        String binary = tempDir.resolve("line.lineb").toString();
+        ExcelTestGenerator.generateTestFile(xlsx);
+        
+        LineConverter.convert(xlsx, text);
+        LineConverter.convert(text, binary);
+        
+        ProductionLine expected = LineReader.read(xlsx);
+        expected.simulate();
+        for (String path : new String[]{text, binary}) {
+            ProductionLine line = LineReader.read(path);
+            line.simulate();
+            assertEquals(expected.getTotalTime(), line.getTotalTime());
+            assertEquals(expected.getEvents().size(), line.getEvents().size());
+            for (int i = 0; i < expected.getCenters().size(); i++) {
+                assertEquals(expected.getCenter(i).getStatistics(), line.getCenter(i).getStatistics());
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package util;
+
+import model.AllocationPolicy;
+import model.LineConfiguration;
+import model.ProductionLine;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MakespanOptimizerTest {
+    
+    // 20 центров и 5 рабочих: жадная стратегия заметно хуже лучших вариантов
+    private final LineConfiguration configuration = new LineGenerator()
+        .setCenters(20)
+        .setDetailsCount(300)
+        .setTotalWorkers(5)
+        .setMaxWorkers(6)
+        .setSeed(2)
+        .generate();
+    
+    @Test
+    void testFindsConfigurationNotWorseThanGreedy() throws Exception {
+        MakespanOptimizer.Result result = new MakespanOptimizer(configuration)
+            .setMaxEvaluations(200)
+            .setBatchSize(16)
+            .optimize(4);
+        
+        ProductionLine greedy = configuration.createLine();
+        greedy.simulate();
+        assertEquals(greedy.getTotalTime(), result.getBaselineMakespan());
+        assertTrue(result.getMakespan() <= result.getBaselineMakespan());
+        assertTrue(result.getEvaluations() <= 200);
+        
+        // Найденная конфигурация воспроизводит свой makespan
+        ProductionLine best = result.applyTo(configuration).createLine();
+        best.setAllocationStrategy(result.getPolicy().create());
+        best.simulate();
+        assertEquals(result.getMakespan(), best.getTotalTime());
+    }
+    
+    @Test
+    void testResultDoesNotDependOnThreads() throws Exception {
+        MakespanOptimizer optimizer = new MakespanOptimizer(configuration)
+            .setMaxEvaluations(100)
+            .setBatchSize(10)
+            .setSeed(5);
+        
+        MakespanOptimizer.Result single = optimizer.optimize(1);
+        MakespanOptimizer.Result parallel = optimizer.optimize(4);
+        assertEquals(single.getMakespan(), parallel.getMakespan());
+        assertEquals(single.getPolicy(), parallel.getPolicy());
+        for (int i = 0; i < configuration.getCenters().size(); i++) {
+            assertEquals(single.getMaxWorkers(i), parallel.getMaxWorkers(i));
+        }
+    }
+    
+    @Test
+    void testSinglePolicy() throws Exception {
+        MakespanOptimizer.Result result = new MakespanOptimizer(configuration)
+            .setPolicies(AllocationPolicy.BOTTLENECK)
+            .setMaxEvaluations(50)
+            .optimize(2);
+        
+        assertEquals(AllocationPolicy.BOTTLENECK, result.getPolicy());
+    }
+}
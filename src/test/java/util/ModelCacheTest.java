@@ -0,0 +1,94 @@
+package util;
+
+import model.LineConfiguration;
+import model.ProductionLine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+class ModelCacheTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    void testSecondLoadUsesCache() throws IOException {
+        String input = tempDir.resolve("line.xlsx").toString();
+        ExcelTestGenerator.generateTestFile(input);
+        ModelCache cache = new ModelCache(tempDir.resolve("cache"));
+        
+        LineConfiguration parsed = cache.load(input);
+        assertFalse(cache.isLastHit());
+        assertTrue(Files.isRegularFile(cache.entryFor(input)));
+        
+        LineConfiguration cached = cache.load(input);
+        assertTrue(cache.isLastHit());
+        assertEquals(parsed.getCenters().size(), cached.getCenters().size());
+        assertEquals(parsed.getCenters().get(1).getName(), cached.getCenters().get(1).getName());
+        assertEquals(parsed.getCenters().get(1).getProcessingTime(), cached.getCenters().get(1).getProcessingTime());
+        assertEquals(parsed.getConnections().size(), cached.getConnections().size());
+        assertEquals(parsed.getInitialCenter(), cached.getInitialCenter());
+        assertEquals(parsed.getTotalWorkers(), cached.getTotalWorkers());
+        
+        // Линия из кэша симулируется так же, как из xlsx
+        ProductionLine expected = parsed.createLine();
+        ProductionLine actual = cached.createLine();
+        expected.simulate();
+        actual.simulate();
+        assertEquals(expected.getTotalTime(), actual.getTotalTime());
+    }
+    
+    @Test
+    void testChangedFileInvalidatesCache() throws IOException {
+        String input = tempDir.resolve("line.xlsx").toString();
+        ExcelTestGenerator.generateTestFile(input, 10);
+        ModelCache cache = new ModelCache(tempDir.resolve("cache"));
+        cache.load(input);
+        
+        ExcelTestGenerator.generateTestFile(input, 20);
+        LineConfiguration configuration = cache.load(input);
+        assertFalse(cache.isLastHit());
+        assertEquals(20, configuration.getDetailsCount());
+        
+        cache.load(input);
+        assertTrue(cache.isLastHit());
+    }
+    
+    @Test
+    void testCorruptedEntryIsRebuilt() throws IOException {
+        String input = tempDir.resolve("line.xlsx").toString();
+        ExcelTestGenerator.generateTestFile(input);
+        ModelCache cache = new ModelCache(tempDir.resolve("cache"));
+        cache.load(input);
+        
+        Files.write(cache.entryFor(input), new byte[]{1, 2, 3});
+        assertEquals(10, cache.load(input).getDetailsCount());
+        assertFalse(cache.isLastHit());
+        
+        cache.load(input);
+        assertTrue(cache.isLastHit());
+    }
+    
+    @Test
+    void testOldVersionEntryIsRebuilt() throws IOException {
+        String input = tempDir.resolve("line.xlsx").toString();
+        ExcelTestGenerator.generateTestFile(input);
+        ModelCache cache = new ModelCache(tempDir.resolve("cache"));
+        cache.load(input);
+        
+        // Запись версии 1 могла сохранить центры не в порядке листа
+        Path entry = cache.entryFor(input);
+        byte[] bytes = Files.readAllBytes(entry);
+        bytes[7] = 1;
+        Files.write(entry, bytes);
+        cache.load(input);
+        assertFalse(cache.isLastHit());
+        
+        cache.load(input);
+        assertTrue(cache.isLastHit());
+    }
+}
@@ -0,0 +1,64 @@
+package util;
+
+import model.LineConfiguration;
+import model.LineConfiguration.CenterSpec;
+import model.LineConfiguration.Connection;
+import model.ProductionLine;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+class ParameterSweepTest {
+    
+    private final LineConfiguration configuration = new LineConfiguration(
+        Arrays.asList(
+            new CenterSpec("Center 1", 2.0, 2),
+            new CenterSpec("Center 2", 3.0, 1),
+            new CenterSpec("Center 3", 1.0, 2)),
+        Arrays.asList(
+            new Connection("Center 1", "Center 2"),
+            new Connection("Center 2", "Center 3")),
+        "Center 1", 10, 3);
+    
+    @Test
+    void testScenariosCoverAllCombinations() {
+        ParameterSweep sweep = new ParameterSweep(configuration)
+            .setTotalWorkers(2, 4, 6)
+            .setDetailsCounts(10, 20)
+            .setMaxWorkers("Center 2", 1, 2);
+        
+        assertEquals(3 * 2 * 2, sweep.scenarios().size());
+    }
+    
+    @Test
+    void testParallelRunMatchesSequentialSimulation() throws Exception {
+        ParameterSweep sweep = new ParameterSweep(configuration)
+            .setTotalWorkers(1, 2, 3, 4)
+            .setMaxWorkers("Center 2", 1, 2);
+        
+        List<ParameterSweep.Result> results = sweep.run(4);
+        assertEquals(8, results.size());
+        
+        for (ParameterSweep.Result result : results) {
+            ProductionLine line = result.getScenario().getConfiguration().createLine();
+            line.simulate();
+            assertEquals(line.getTotalTime(), result.getMakespan());
+            assertEquals(10, result.getDetailsProcessed());
+            assertTrue(result.getUtilisation() > 0);
+        }
+        
+        // Второй рабочий в узком месте сокращает время
+        assertTrue(results.get(7).getMakespan() < results.get(6).getMakespan());
+        assertTrue(ParameterSweep.formatTable(results).contains("Center 2.max=2"));
+    }
+    
+    @Test
+    void testParseValues() {
+        assertArrayEquals(new int[]{10, 20, 30}, ParameterSweep.parseValues("10,20,30"));
+        assertArrayEquals(new int[]{10, 15, 20}, ParameterSweep.parseValues("10..20:5"));
+        assertArrayEquals(new int[]{1, 2, 3}, ParameterSweep.parseValues("1..3"));
+        assertThrows(IllegalArgumentException.class, () -> ParameterSweep.parseValues("5..1"));
+    }
+}
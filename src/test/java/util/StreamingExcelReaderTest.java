@@ -0,0 +1,109 @@
+package util;
+
+import model.LineConfiguration;
+import model.LineConfiguration.CenterSpec;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+
+class StreamingExcelReaderTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    void testSameConfigurationAsUserModel() throws IOException {
+        String input = tempDir.resolve("line.xlsx").toString();
+        ExcelTestGenerator.generateTestFile(input);
+        
+        LineConfiguration expected = ExcelReader.readWithUserModel(input, InputLimits.DEFAULT);
+        LineConfiguration actual = StreamingExcelReader.readConfiguration(input);
+        
+        assertEquals(expected.getCenters().size(), actual.getCenters().size());
+        for (int i = 0; i < expected.getCenters().size(); i++) {
+            CenterSpec expectedCenter = expected.getCenters().get(i);
+            CenterSpec actualCenter = actual.getCenters().get(i);
+            assertEquals(expectedCenter.getName(), actualCenter.getName());
+            assertEquals(expectedCenter.getProcessingTime(), actualCenter.getProcessingTime());
+            assertEquals(expectedCenter.getMaxWorkers(), actualCenter.getMaxWorkers());
+        }
+        assertEquals(expected.getConnections().size(), actual.getConnections().size());
+        assertEquals(expected.getConnections().get(1).getTo(), actual.getConnections().get(1).getTo());
+        assertEquals(expected.getInitialCenter(), actual.getInitialCenter());
+        assertEquals(expected.getDetailsCount(), actual.getDetailsCount());
+        assertEquals(expected.getTotalWorkers(), actual.getTotalWorkers());
+    }
+    
+    @Test
+    void testLargeConnectionTable() throws IOException {
+        // Длинная цепочка центров с пропущенными строками и ячейками вне первых колонок
+        String input = tempDir.resolve("chain.xlsx").toString();
+        int count = 500;
+        try (Workbook workbook = new XSSFWorkbook()) {
+            Sheet centers = workbook.createSheet("Centers");
+            centers.createRow(0).createCell(0).setCellValue("Name");
+            Sheet connections = workbook.createSheet("Connections");
+            connections.createRow(0).createCell(0).setCellValue("From");
+            for (int i = 0; i < count; i++) {
+                Row row = centers.createRow(2 * i + 1);
+                row.createCell(0).setCellValue("C" + i);
+                row.createCell(1).setCellValue(0.5 + i % 10 * 0.25);
+                row.createCell(2).setCellValue(1 + i % 3);
+                row.createCell(5).setCellValue("comment");
+                if (i > 0) {
+                    Row connection = connections.createRow(i);
+                    connection.createCell(0).setCellValue("C" + (i - 1));
+                    connection.createCell(1).setCellValue("C" + i);
+                }
+            }
+            Sheet initial = workbook.createSheet("Initial Data");
+            initial.createRow(0).createCell(0).setCellValue("Workers");
+            Row row = initial.createRow(1);
+            row.createCell(0).setCellValue(40);
+            row.createCell(1).setCellValue("C0");
+            row.createCell(2).setCellValue(100);
+            try (FileOutputStream out = new FileOutputStream(input)) {
+                workbook.write(out);
+            }
+        }
+        
+        // 500 центров больше ограничения по умолчанию
+        LineConfiguration expected = ExcelReader.readWithUserModel(input, InputLimits.UNLIMITED);
+        LineConfiguration actual = StreamingExcelReader.readConfiguration(input, InputLimits.UNLIMITED);
+        
+        assertEquals(count, actual.getCenters().size());
+        assertEquals(count - 1, actual.getConnections().size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(expected.getCenters().get(i).getName(), actual.getCenters().get(i).getName());
+            assertEquals(expected.getCenters().get(i).getProcessingTime(), actual.getCenters().get(i).getProcessingTime());
+        }
+        assertEquals("C0", actual.getInitialCenter());
+        assertEquals(100, actual.getDetailsCount());
+    }
+    
+    @Test
+    void testValidation() throws IOException {
+        String input = tempDir.resolve("line.xlsx").toString();
+        try (Workbook workbook = new XSSFWorkbook()) {
+            Row row = workbook.createSheet("Centers").createRow(1);
+            row.createCell(0).setCellValue("Center");
+            row.createCell(1).setCellValue(11.0);
+            row.createCell(2).setCellValue(1);
+            workbook.createSheet("Connections");
+            workbook.createSheet("Initial Data");
+            try (FileOutputStream out = new FileOutputStream(input)) {
+                workbook.write(out);
+            }
+        }
+        
+        assertThrows(IllegalArgumentException.class, () -> StreamingExcelReader.readConfiguration(input));
+    }
+}